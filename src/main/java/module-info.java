@@ -4,6 +4,8 @@ module midiP {
     requires java.desktop;
     requires lombok;
     requires java.logging;
+    requires jdk.jfr;
+    requires static jdk.incubator.vector;
 
     opens sample.views;
 }
\ No newline at end of file
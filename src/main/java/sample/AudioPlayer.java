@@ -1,40 +1,81 @@
 package sample;
 
+import sample.audio.AudioSink;
+import sample.audio.LineSink;
+import sample.audio.SampleBank;
+import sample.audio.SampleBankFile;
+import sample.audio.WavetableSynth;
 import sample.models.Note;
+import sample.models.midi.MidiTrace;
 
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.DataLine;
-import javax.sound.sampled.SourceDataLine;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.sound.sampled.LineUnavailableException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InterruptedIOException;
-
-import java.util.logging.Logger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 /**
  * Class to play back an audio file
- * using the SourceDataLine in Java Sound API.
+ * through an AudioSink, a SourceDataLine of the Java Sound API by default.
  * @author www.codejava.net
  */
 public class AudioPlayer extends Thread implements Runnable {
-    private static final Logger LOGGER = Logger.getLogger(AudioPlayer.class.getName());
+    /**
+     * records the start of each note and the errors, instead of logging them.
+     */
+    private static final MidiTrace TRACE = MidiTrace.shared();
 
     private boolean isPlaying = false;
 
     private Note note;
 
+    /**
+     * installed sample bank file, mapped once for all the players without bank.
+     */
+    private static SampleBank installedBank;
+
+    /**
+     * bank the sample is played from, null for the installed bank or the sample file.
+     */
+    private final SampleBank sampleBank;
+
+    /**
+     * opens the sink the sample is played through.
+     */
+    private final AudioSink.Factory sinkFactory;
+
     /**
      * size of the byte buffer used to read/write the audio stream.
      */
     private static final int BUFFER_SIZE = 4096;
 
     public AudioPlayer(Note note) {
+        this(note, null);
+    }
+
+    /**
+     * @param note the Note to play
+     * @param sampleBank bank the sample is played from, null for the installed bank or the sample file
+     */
+    public AudioPlayer(final Note note, final SampleBank sampleBank) {
+        this(note, sampleBank, LineSink::open);
+    }
+
+    /**
+     * @param note the Note to play
+     * @param sampleBank bank the sample is played from, null for the installed bank or the sample file
+     * @param sinkFactory opens the sink the sample is played through
+     */
+    public AudioPlayer(final Note note, final SampleBank sampleBank, final AudioSink.Factory sinkFactory) {
         super();
         this.note = note;
+        this.sampleBank = sampleBank;
+        this.sinkFactory = sinkFactory;
     }
 
     public void stopPlaying() {
@@ -42,26 +83,30 @@ public class AudioPlayer extends Thread implements Runnable {
     }
 
     public void play() {
+        final long startNanos = System.nanoTime();
+        final SampleBank bank = sampleBank != null ? sampleBank : installedBank();
+        if (bank != null && bank.isAvailable(note.getKey())) {
+            playFromBank(bank, MidiTrace.SOURCE_BANK, startNanos);
+            return;
+        }
         File audioFile = new File(new File("").getAbsolutePath()
                 + "/src/downloads/sounds/piano/ff."
                 + note.toString()
                 + ".aiff");
+        if (!audioFile.exists()) {
+            playFromBank(WavetableSynth.bank(), MidiTrace.SOURCE_SYNTH, startNanos);
+            return;
+        }
 
         AudioInputStream audioStream;
         AudioFormat format;
-        DataLine.Info info;
-        SourceDataLine audioLine;
+        AudioSink audioLine;
 
         try {
             audioStream = AudioSystem.getAudioInputStream(audioFile);
             format = audioStream.getFormat();
-            info = new DataLine.Info(SourceDataLine.class, format);
-            audioLine = (SourceDataLine) AudioSystem.getLine(info);
-            audioLine.open(format);
-
-            audioLine.start();
-
-            LOGGER.info(String.format("Playing %s.", note));
+            audioLine = sinkFactory.open(format);
+            TRACE.audioStarted(note.getKey(), MidiTrace.SOURCE_FILE, startNanos);
 
             byte[] bytesBuffer = new byte[BUFFER_SIZE];
             int bytesRead;
@@ -78,16 +123,67 @@ public class AudioPlayer extends Thread implements Runnable {
             audioStream.close();
 
         } catch (UnsupportedAudioFileException ex) {
-            LOGGER.info(String.format("The specified audio file is not supported. %s", ex.getMessage()));
-            ex.printStackTrace();
+            TRACE.error("The specified audio file is not supported", ex);
         } catch (LineUnavailableException ex) {
-            LOGGER.info(String.format("Audio line for playing back is unavailable. %s", ex.getMessage()));
-            ex.printStackTrace();
+            TRACE.error("Audio line for playing back is unavailable", ex);
         } catch (InterruptedIOException ex) {
-            LOGGER.info(String.format("Playback Interrupted. %s", ex.getMessage()));
-            ex.printStackTrace();
+            TRACE.error("Playback Interrupted", ex);
+        } catch (IOException e) {
+            TRACE.error("Playing " + note + " failed", e);
+        }
+    }
+
+    /**
+     * Maps the sample bank file installed by SampleInstaller the first time it is found.
+     * @return the installed bank, null if it is not installed or cannot be read
+     */
+    private static synchronized SampleBank installedBank() {
+        if (installedBank == null && Files.exists(SampleBankFile.DEFAULT_BANK_FILE)) {
+            try {
+                installedBank = SampleBankFile.map(SampleBankFile.DEFAULT_BANK_FILE);
+            } catch (IOException e) {
+                TRACE.error("Reading the installed sample bank failed", e);
+            }
+        }
+        return installedBank;
+    }
+
+    /**
+     * Plays the sample from memory, without touching the disk, repeating its loop if it has one.
+     * @param bank bank holding a sample of the Note
+     * @param source MidiTrace.SOURCE_BANK or MidiTrace.SOURCE_SYNTH
+     * @param startNanos System.nanoTime() when the Note was asked for
+     */
+    private void playFromBank(final SampleBank bank, final int source, final long startNanos) {
+        ByteBuffer samples = bank.samples(note.getKey());
+        final int loopStart = bank.loopStart(note.getKey()) * SampleBank.FRAME_SIZE;
+        final int loopEnd = bank.loopEnd(note.getKey()) * SampleBank.FRAME_SIZE;
+        if (loopEnd > loopStart) {
+            samples.limit(loopEnd);
+        }
+        try {
+            AudioSink audioLine = sinkFactory.open(SampleBank.FORMAT);
+            TRACE.audioStarted(note.getKey(), source, startNanos);
+
+            byte[] bytesBuffer = new byte[BUFFER_SIZE];
+            this.isPlaying = true;
+
+            int start = 0;
+            while (samples.hasRemaining() && this.isPlaying && start++ < 100) {
+                int bytesRead = Math.min(BUFFER_SIZE, samples.remaining());
+                samples.get(bytesBuffer, 0, bytesRead);
+                audioLine.write(bytesBuffer, 0, bytesRead);
+                if (!samples.hasRemaining() && loopEnd > loopStart) {
+                    samples.position(loopStart);
+                }
+            }
+
+            audioLine.drain();
+            audioLine.close();
+        } catch (LineUnavailableException ex) {
+            TRACE.error("Audio line for playing back is unavailable", ex);
         } catch (IOException e) {
-            e.printStackTrace();
+            TRACE.error("Playing " + note + " failed", e);
         }
     }
 
@@ -0,0 +1,56 @@
+package sample.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import java.io.IOException;
+
+/**
+ * Destination of rendered PCM frames: a sound card line, a file, or nothing.
+ * Writes may block, which is how a line paces the thread rendering into it.
+ */
+public interface AudioSink extends AutoCloseable {
+
+    /**
+     * Opens sinks of a given format.
+     */
+    @FunctionalInterface
+    interface Factory {
+        /**
+         * @param format format of the frames to write
+         * @return the open sink
+         * @throws LineUnavailableException if no output line is available
+         * @throws IOException if the sink cannot be created
+         */
+        AudioSink open(AudioFormat format) throws LineUnavailableException, IOException;
+    }
+
+    /**
+     * @return the format of the frames written
+     */
+    AudioFormat format();
+
+    /**
+     * Writes whole frames, blocking until they are accepted.
+     * @param data the frames in {@link #format()}
+     * @param offset index of the first byte
+     * @param length number of bytes, a multiple of the frame size
+     * @return the number of bytes written
+     */
+    int write(byte[] data, int offset, int length);
+
+    /**
+     * Blocks until every written frame has been played or stored.
+     */
+    void drain();
+
+    /**
+     * @return the number of frames written since the sink was opened
+     */
+    long framesWritten();
+
+    /**
+     * Releases the sink; further writes are not allowed.
+     */
+    @Override
+    void close();
+}
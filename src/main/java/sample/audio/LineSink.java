@@ -0,0 +1,76 @@
+package sample.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * AudioSink playing through a SourceDataLine of the default mixer.
+ */
+public final class LineSink implements AudioSink {
+    private final SourceDataLine line;
+    private final int frameSize;
+    private long framesWritten;
+
+    private LineSink(final SourceDataLine line) {
+        this.line = line;
+        this.frameSize = line.getFormat().getFrameSize();
+    }
+
+    /**
+     * Opens and starts a line with the default buffer size.
+     * @param format format of the frames to play
+     * @return the started sink
+     * @throws LineUnavailableException if no line supports the format
+     */
+    public static LineSink open(final AudioFormat format) throws LineUnavailableException {
+        return open(format, AudioSystem.NOT_SPECIFIED);
+    }
+
+    /**
+     * Opens and starts a line.
+     * @param format format of the frames to play
+     * @param bufferBytes size of the line buffer, AudioSystem.NOT_SPECIFIED for the default
+     * @return the started sink
+     * @throws LineUnavailableException if no line supports the format
+     */
+    public static LineSink open(final AudioFormat format, final int bufferBytes) throws LineUnavailableException {
+        final SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        if (bufferBytes == AudioSystem.NOT_SPECIFIED) {
+            line.open(format);
+        } else {
+            line.open(format, bufferBytes);
+        }
+        line.start();
+        return new LineSink(line);
+    }
+
+    @Override
+    public AudioFormat format() {
+        return line.getFormat();
+    }
+
+    @Override
+    public int write(final byte[] data, final int offset, final int length) {
+        final int written = line.write(data, offset, length);
+        framesWritten += written / frameSize;
+        return written;
+    }
+
+    @Override
+    public void drain() {
+        line.drain();
+    }
+
+    @Override
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
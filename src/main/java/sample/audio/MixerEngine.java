@@ -0,0 +1,441 @@
+package sample.audio;
+
+import sample.models.Note;
+
+import javax.sound.sampled.LineUnavailableException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Polyphonic playback of a SampleBank through a single AudioSink.
+ * A dedicated render thread mixes every active voice into one buffer per
+ * audio period and writes it to the sink, whose blocking write paces the thread.
+ * Voices live in preallocated arrays; note-on and note-off are queued as
+ * packed ints and applied at the start of the next period, so neither the
+ * callers nor the render thread allocate while playing.
+ * When every voice is busy, a new note steals the quietest releasing voice,
+ * or else the oldest one.
+ */
+public final class MixerEngine implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MixerEngine.class.getName());
+
+    /**
+     * default maximum number of voices playing at once.
+     */
+    public static final int DEFAULT_POLYPHONY = 32;
+
+    /**
+     * default number of frames mixed per period, about 6 ms.
+     */
+    public static final int DEFAULT_PERIOD_FRAMES = 256;
+
+    /**
+     * number of frames over which a released voice fades out, about 100 ms.
+     */
+    static final int RELEASE_FRAMES = 4410;
+
+    /**
+     * gain applied to every voice, leaving headroom for chords.
+     */
+    private static final float MASTER_GAIN = 0.5f;
+
+    /**
+     * maximum number of queued note events.
+     */
+    private static final int QUEUE_SIZE = 1024;
+
+    static final int NOTE_ON = 1 << 16;
+    static final int NOTE_OFF = 2 << 16;
+    static final int ALL_NOTES_OFF = 3 << 16;
+
+    private final SampleBank bank;
+    private final int polyphony;
+    private final int periodFrames;
+
+    /**
+     * key of each voice, -1 when the voice is free.
+     */
+    private final int[] voiceKeys;
+
+    /**
+     * next frame of the sample played by each voice.
+     */
+    private final int[] voicePositions;
+
+    /**
+     * current gain of each voice.
+     */
+    private final float[] voiceGains;
+
+    /**
+     * gain change per frame of each voice, negative while releasing.
+     */
+    private final float[] voiceGainSteps;
+
+    /**
+     * start order of each voice, used to steal the oldest.
+     */
+    private final long[] voiceStarts;
+    private long startCounter;
+
+    /**
+     * mixed frames of the current period, interleaved stereo.
+     */
+    private final float[] mix;
+
+    /**
+     * queued note events: type | key &lt;&lt; 8 | velocity.
+     */
+    private final int[] queue = new int[QUEUE_SIZE];
+    private int queueHead;
+    private int queueSize;
+    private int droppedEvents;
+
+    private AudioSink sink;
+    private Thread renderThread;
+    private volatile boolean running;
+
+    /**
+     * @param bank samples to play
+     */
+    public MixerEngine(final SampleBank bank) {
+        this(bank, DEFAULT_POLYPHONY, DEFAULT_PERIOD_FRAMES);
+    }
+
+    /**
+     * @param bank samples to play
+     * @param polyphony maximum number of voices playing at once
+     * @param periodFrames number of frames mixed per period
+     */
+    public MixerEngine(final SampleBank bank, final int polyphony, final int periodFrames) {
+        if (polyphony <= 0 || periodFrames <= 0) {
+            throw new IllegalArgumentException("Invalid mixer configuration: " + polyphony + " voices, "
+                    + periodFrames + " frames per period");
+        }
+        this.bank = bank;
+        this.polyphony = polyphony;
+        this.periodFrames = periodFrames;
+        this.voiceKeys = new int[polyphony];
+        this.voicePositions = new int[polyphony];
+        this.voiceGains = new float[polyphony];
+        this.voiceGainSteps = new float[polyphony];
+        this.voiceStarts = new long[polyphony];
+        this.mix = new float[periodFrames * SampleBank.CHANNELS];
+        Arrays.fill(voiceKeys, -1);
+    }
+
+    /**
+     * Opens an output line and starts the render thread.
+     * @throws LineUnavailableException if no output line is available
+     */
+    public void start() throws LineUnavailableException {
+        start(LineSink.open(SampleBank.FORMAT, periodFrames * SampleBank.FRAME_SIZE * 4));
+    }
+
+    /**
+     * Starts the render thread writing into the sink, which the engine closes on {@link #close()}.
+     * @param output sink in {@link SampleBank#FORMAT}
+     */
+    public synchronized void start(final AudioSink output) {
+        if (running) {
+            output.close();
+            return;
+        }
+        if (!output.format().matches(SampleBank.FORMAT)) {
+            output.close();
+            throw new IllegalArgumentException("Unsupported sink format " + output.format());
+        }
+        sink = output;
+        LOGGER.info(String.format("Mixing %d voices through %s", polyphony, sink.getClass().getSimpleName()));
+        running = true;
+        renderThread = new Thread(this::renderLoop, "MixerEngine");
+        renderThread.setDaemon(true);
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
+    }
+
+    private void renderLoop() {
+        final byte[] period = new byte[periodFrames * SampleBank.FRAME_SIZE];
+        while (running) {
+            render(period, periodFrames);
+            sink.write(period, 0, period.length);
+        }
+    }
+
+    /**
+     * Stops the render thread and closes the sink.
+     */
+    @Override
+    public void close() {
+        final Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = renderThread;
+            renderThread = null;
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (sink != null) {
+            sink.close();
+            sink = null;
+        }
+    }
+
+    /**
+     * Starts a voice playing the sample of the key.
+     * @param key MIDI key number
+     * @param velocity MIDI velocity, 1 - 127
+     */
+    public void noteOn(final int key, final int velocity) {
+        if (Note.isValidKey(key)) {
+            enqueue(NOTE_ON | key << 8 | Math.min(Math.max(velocity, 1), 127));
+        }
+    }
+
+    /**
+     * Releases the voices playing the key.
+     * @param key MIDI key number
+     */
+    public void noteOff(final int key) {
+        if (Note.isValidKey(key)) {
+            enqueue(NOTE_OFF | key << 8);
+        }
+    }
+
+    /**
+     * Releases every voice.
+     */
+    public void allNotesOff() {
+        enqueue(ALL_NOTES_OFF);
+    }
+
+    private synchronized void enqueue(final int event) {
+        if (queueSize == QUEUE_SIZE) {
+            droppedEvents++;
+            return;
+        }
+        queue[(queueHead + queueSize++) % QUEUE_SIZE] = event;
+    }
+
+    private synchronized void applyQueuedEvents() {
+        for (; queueSize > 0; queueSize--) {
+            final int event = queue[queueHead];
+            queueHead = (queueHead + 1) % QUEUE_SIZE;
+            apply(event);
+        }
+    }
+
+    /**
+     * Applies a note event at once, bypassing the queue.
+     * Only for an engine driven by a single thread, as the offline renderer does.
+     * @param event type | key &lt;&lt; 8 | velocity
+     */
+    void apply(final int event) {
+        final int key = event >>> 8 & 0xFF;
+        switch (event & 0xFF0000) {
+            case NOTE_ON -> startVoice(key, event & 0xFF);
+            case NOTE_OFF -> {
+                for (int v = 0; v < polyphony; v++) {
+                    if (voiceKeys[v] == key) {
+                        release(v);
+                    }
+                }
+            }
+            default -> {
+                for (int v = 0; v < polyphony; v++) {
+                    if (voiceKeys[v] >= 0) {
+                        release(v);
+                    }
+                }
+            }
+        }
+    }
+
+    private void startVoice(final int key, final int velocity) {
+        if (!bank.isAvailable(key)) {
+            return;
+        }
+        final int voice = chooseVoice(key);
+        voiceKeys[voice] = key;
+        voicePositions[voice] = 0;
+        voiceGains[voice] = MASTER_GAIN * velocity / 127f;
+        voiceGainSteps[voice] = 0f;
+        voiceStarts[voice] = startCounter++;
+    }
+
+    /**
+     * @param key key about to be played
+     * @return the voice already playing the key, a free voice,
+     * the quietest releasing voice, or the oldest voice, in that order
+     */
+    private int chooseVoice(final int key) {
+        int free = -1;
+        int quietest = -1;
+        int oldest = 0;
+        for (int v = 0; v < polyphony; v++) {
+            if (voiceKeys[v] == key) {
+                return v;
+            }
+            if (voiceKeys[v] < 0) {
+                if (free < 0) {
+                    free = v;
+                }
+            } else if (voiceGainSteps[v] < 0f) {
+                if (quietest < 0 || voiceGains[v] < voiceGains[quietest]) {
+                    quietest = v;
+                }
+            } else if (voiceStarts[v] < voiceStarts[oldest] || voiceKeys[oldest] < 0) {
+                oldest = v;
+            }
+        }
+        if (free >= 0) {
+            return free;
+        }
+        return quietest >= 0 ? quietest : oldest;
+    }
+
+    private void release(final int voice) {
+        if (voiceGainSteps[voice] == 0f) {
+            voiceGainSteps[voice] = -voiceGains[voice] / RELEASE_FRAMES;
+        }
+    }
+
+    /**
+     * Mixes the next frames of every active voice.
+     * Called by the render thread; exposed to render without a sink.
+     * @param dest receives the frames in {@link SampleBank#FORMAT}
+     * @param frames number of frames to render, at most the period size
+     * @return the number of frames rendered
+     */
+    public int render(final byte[] dest, final int frames) {
+        return render(dest, 0, frames);
+    }
+
+    /**
+     * @param dest receives the frames in {@link SampleBank#FORMAT}
+     * @param offset index in dest of the first byte
+     * @param frames number of frames to render, at most the period size
+     * @return the number of frames rendered
+     */
+    int render(final byte[] dest, final int offset, final int frames) {
+        final int count = Math.min(frames, periodFrames);
+        applyQueuedEvents();
+        Arrays.fill(mix, 0, count * SampleBank.CHANNELS, 0f);
+        for (int v = 0; v < polyphony; v++) {
+            if (voiceKeys[v] >= 0) {
+                renderVoice(v, count, true);
+            }
+        }
+        for (int i = 0; i < count * SampleBank.CHANNELS; i++) {
+            final int value = Math.round(Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i])));
+            dest[offset + 2 * i] = (byte) value;
+            dest[offset + 2 * i + 1] = (byte) (value >> 8);
+        }
+        return count;
+    }
+
+    /**
+     * Moves every active voice forward as {@link #render(byte[], int)} would, without mixing.
+     * @param frames number of frames to skip, not limited to the period size
+     * @return the number of frames played by the longest voice, less than frames if every voice ended
+     */
+    int advance(final int frames) {
+        applyQueuedEvents();
+        int played = 0;
+        for (int v = 0; v < polyphony; v++) {
+            if (voiceKeys[v] >= 0) {
+                played = Math.max(played, renderVoice(v, frames, false));
+            }
+        }
+        return played;
+    }
+
+    /**
+     * Copies the state of every voice of another engine of the same polyphony.
+     * @param source engine to copy
+     */
+    void copyVoices(final MixerEngine source) {
+        System.arraycopy(source.voiceKeys, 0, voiceKeys, 0, polyphony);
+        System.arraycopy(source.voicePositions, 0, voicePositions, 0, polyphony);
+        System.arraycopy(source.voiceGains, 0, voiceGains, 0, polyphony);
+        System.arraycopy(source.voiceGainSteps, 0, voiceGainSteps, 0, polyphony);
+        System.arraycopy(source.voiceStarts, 0, voiceStarts, 0, polyphony);
+        startCounter = source.startCounter;
+    }
+
+    /**
+     * @param voice the voice to move forward
+     * @param frames number of frames
+     * @param mixing true to add the frames to the mix, false to only move forward
+     * @return the number of frames played, less than frames if the voice ended
+     */
+    private int renderVoice(final int voice, final int frames, final boolean mixing) {
+        final int key = voiceKeys[voice];
+        final int length = bank.frames(key);
+        int position = voicePositions[voice];
+        float gain = voiceGains[voice];
+        final float step = voiceGainSteps[voice];
+        final int loopStart = bank.loopStart(key);
+        final int loopEnd = bank.loopEnd(key);
+        final boolean looping = loopEnd > loopStart;
+        int i = 0;
+        for (; i < frames && gain > 0f; i++, position++) {
+            if (looping && position == loopEnd) {
+                position = loopStart;
+            } else if (position >= length) {
+                break;
+            }
+            if (mixing) {
+                mix[2 * i] += gain * bank.sample(key, position, 0);
+                mix[2 * i + 1] += gain * bank.sample(key, position, 1);
+            }
+            gain += step;
+        }
+        if (!looping && position >= length || gain <= 0f) {
+            voiceKeys[voice] = -1;
+        } else {
+            voicePositions[voice] = position;
+            voiceGains[voice] = gain;
+        }
+        return i;
+    }
+
+    /**
+     * @return the number of voices currently playing, as of the last period
+     */
+    public int activeVoices() {
+        int active = 0;
+        for (int key : voiceKeys) {
+            if (key >= 0) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return the maximum number of voices playing at once
+     */
+    public int polyphony() {
+        return polyphony;
+    }
+
+    /**
+     * @return the number of frames mixed per period
+     */
+    public int periodFrames() {
+        return periodFrames;
+    }
+
+    /**
+     * @return the number of note events dropped because the queue was full
+     */
+    public synchronized int droppedEvents() {
+        return droppedEvents;
+    }
+}
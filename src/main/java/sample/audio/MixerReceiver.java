@@ -0,0 +1,75 @@
+package sample.audio;
+
+import sample.models.midi.MidiDecoder;
+
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Receiver;
+
+/**
+ * Receiver playing the notes of the midi messages it is sent through a MixerEngine.
+ * Note offs are held back while the sustain pedal is down, and All Sound Off
+ * or All Notes Off release every voice. Messages are expected from one thread
+ * at a time, a midi device or a MidiFilePlayer.
+ */
+public final class MixerReceiver implements Receiver {
+    private static final int SUSTAIN_PEDAL = 64;
+
+    private final MixerEngine mixer;
+    private final MidiDecoder decoder;
+    private final MidiDecoder.Listener listener = this::onMessage;
+
+    /**
+     * keys released while the sustain pedal was down, 0 - 63 and 64 - 127.
+     */
+    private long sustainedLow;
+    private long sustainedHigh;
+
+    /**
+     * @param mixer plays the notes, started and closed by the caller
+     * @param channelMask bit c set to play the notes of channel c, 0 - 15
+     */
+    public MixerReceiver(final MixerEngine mixer, final int channelMask) {
+        this.mixer = mixer;
+        this.decoder = new MidiDecoder(channelMask);
+    }
+
+    @Override
+    public void send(final MidiMessage message, final long timeStamp) {
+        decoder.decode(message, listener);
+    }
+
+    private void onMessage(final int kind, final int status, final int data1, final int data2) {
+        if (kind == MidiDecoder.NOTE_ON) {
+            mixer.noteOn(data1, data2);
+        } else if (kind == MidiDecoder.NOTE_OFF) {
+            if (decoder.controller(SUSTAIN_PEDAL) >= 64) {
+                if (data1 < Long.SIZE) {
+                    sustainedLow |= 1L << data1;
+                } else {
+                    sustainedHigh |= 1L << data1;
+                }
+            } else {
+                mixer.noteOff(data1);
+            }
+        } else if (kind == MidiDecoder.CONTROL_CHANGE && data1 == SUSTAIN_PEDAL && data2 < 64) {
+            // release the sustained keys that are not held again
+            for (long keys = sustainedLow & ~decoder.pressedLow(); keys != 0; keys &= keys - 1) {
+                mixer.noteOff(Long.numberOfTrailingZeros(keys));
+            }
+            for (long keys = sustainedHigh & ~decoder.pressedHigh(); keys != 0; keys &= keys - 1) {
+                mixer.noteOff(Long.SIZE + Long.numberOfTrailingZeros(keys));
+            }
+            sustainedLow = 0;
+            sustainedHigh = 0;
+        } else if (kind == MidiDecoder.CONTROL_CHANGE
+                && (data1 == MidiDecoder.ALL_SOUND_OFF || data1 == MidiDecoder.ALL_NOTES_OFF)) {
+            mixer.allNotesOff();
+            sustainedLow = 0;
+            sustainedHigh = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,43 @@
+package sample.audio;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * AudioSink discarding every frame, counting them only.
+ * Writes never block, so whatever renders into it runs as fast as it can.
+ */
+public final class NullSink implements AudioSink {
+    private final AudioFormat format;
+    private final int frameSize;
+    private volatile long framesWritten;
+
+    /**
+     * @param format format of the frames to discard
+     */
+    public NullSink(final AudioFormat format) {
+        this.format = format;
+        this.frameSize = format.getFrameSize();
+    }
+
+    @Override
+    public AudioFormat format() {
+        return format;
+    }
+
+    @Override
+    public int write(final byte[] data, final int offset, final int length) {
+        framesWritten += length / frameSize;
+        return length;
+    }
+
+    @Override
+    public void drain() { }
+
+    @Override
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    @Override
+    public void close() { }
+}
@@ -0,0 +1,439 @@
+package sample.audio;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Renders a MIDI sequence through the MixerEngine voices into an AudioSink,
+ * as fast as the machine allows and without any sound line.
+ * A first pass moves the voices through the whole sequence without mixing,
+ * copying the state of every voice at the start of each segment; the segments
+ * are then mixed in parallel from those copies, so notes ringing across a
+ * segment boundary sound exactly as in a sequential render.
+ * Events are packed in longs: frame &lt;&lt; 24 | type | key &lt;&lt; 8 | velocity,
+ * with the MixerEngine event types.
+ */
+public final class OfflineRenderer {
+    private static final Logger LOGGER = Logger.getLogger(OfflineRenderer.class.getName());
+
+    /**
+     * default number of frames of a segment, about 5 seconds.
+     */
+    public static final int DEFAULT_SEGMENT_FRAMES = 5 * (int) SampleBank.SAMPLE_RATE;
+
+    /**
+     * MIDI channel of the General MIDI percussion, skipped.
+     */
+    private static final int PERCUSSION_CHANNEL = 9;
+
+    private static final int SUSTAIN_PEDAL = 64;
+    private static final int ALL_SOUND_OFF = 120;
+    private static final int ALL_NOTES_OFF = 123;
+    private static final int TEMPO = 0x51;
+
+    /**
+     * tempo of a sequence without tempo event, in microseconds per quarter note.
+     */
+    private static final int DEFAULT_TEMPO = 500_000;
+
+    /**
+     * maximum number of frames rendered after the last event, for voices held by looping samples.
+     */
+    private static final long MAX_TAIL_FRAMES = 60 * (long) SampleBank.SAMPLE_RATE;
+
+    private static final int EVENT_BITS = 24;
+    private static final int EVENT_MASK = (1 << EVENT_BITS) - 1;
+
+    private final SampleBank bank;
+    private final int polyphony;
+    private final int segmentFrames;
+    private final int threads;
+
+    /**
+     * Result of a render.
+     */
+    public static final class Report {
+        private final long frames;
+        private final int segments;
+        private final long nanos;
+
+        private Report(final long frames, final int segments, final long nanos) {
+            this.frames = frames;
+            this.segments = segments;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the number of frames rendered
+         */
+        public long frames() {
+            return frames;
+        }
+
+        /**
+         * @return the number of segments rendered
+         */
+        public int segments() {
+            return segments;
+        }
+
+        /**
+         * @return the time taken to render, in nanoseconds
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the duration of the audio rendered divided by the time taken to render it
+         */
+        public double realTimeFactor() {
+            return frames / (double) SampleBank.SAMPLE_RATE / Math.max(nanos, 1) * 1e9;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Rendered %.1f s of audio in %.1f ms over %d segments, %.1fx real time",
+                    frames / SampleBank.SAMPLE_RATE, nanos / 1e6, segments, realTimeFactor());
+        }
+    }
+
+    /**
+     * @param bank samples to play
+     */
+    public OfflineRenderer(final SampleBank bank) {
+        this(bank, MixerEngine.DEFAULT_POLYPHONY, DEFAULT_SEGMENT_FRAMES, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param bank samples to play
+     * @param polyphony maximum number of voices playing at once
+     * @param segmentFrames number of frames of a segment rendered by one thread
+     * @param threads number of threads rendering segments
+     */
+    public OfflineRenderer(final SampleBank bank, final int polyphony, final int segmentFrames, final int threads) {
+        if (polyphony <= 0 || segmentFrames <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Invalid renderer configuration: " + polyphony + " voices, "
+                    + segmentFrames + " frames per segment, " + threads + " threads");
+        }
+        this.bank = bank;
+        this.polyphony = polyphony;
+        this.segmentFrames = segmentFrames;
+        this.threads = threads;
+    }
+
+    /**
+     * @param event packed event
+     * @return the frame of the event
+     */
+    public static long frame(final long event) {
+        return event >>> EVENT_BITS;
+    }
+
+    /**
+     * Converts the notes of a sequence to packed events sorted by frame,
+     * following its tempo changes. Note offs are held back while the sustain
+     * pedal of their channel is down; the percussion channel is skipped.
+     * @param sequence the sequence
+     * @return the events
+     */
+    public static long[] events(final Sequence sequence) {
+        final List<MidiEvent> raw = new ArrayList<>();
+        final List<long[]> tempos = new ArrayList<>();
+        for (Track track : sequence.getTracks()) {
+            for (int i = 0; i < track.size(); i++) {
+                final MidiEvent event = track.get(i);
+                if (event.getMessage() instanceof MetaMessage meta && meta.getType() == TEMPO
+                        && meta.getData().length == 3) {
+                    final byte[] data = meta.getData();
+                    tempos.add(new long[] {event.getTick(), (data[0] & 0xFF) << 16 | (data[1] & 0xFF) << 8 | data[2] & 0xFF});
+                } else if (event.getMessage() instanceof ShortMessage message
+                        && message.getChannel() != PERCUSSION_CHANNEL) {
+                    raw.add(event);
+                }
+            }
+        }
+        tempos.sort((a, b) -> Long.compare(a[0], b[0]));
+        final TempoMap tempoMap = new TempoMap(sequence, tempos);
+
+        // stable sort on the tick, keeping the track order of simultaneous events
+        final long[] order = new long[raw.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = raw.get(i).getTick() << 32 | i;
+        }
+        Arrays.sort(order);
+
+        final boolean[] pedals = new boolean[16];
+        final boolean[] held = new boolean[16 * 128];
+        final boolean[] sustained = new boolean[16 * 128];
+        final long[] events = new long[raw.size()];
+        int count = 0;
+        for (long sorted : order) {
+            final MidiEvent event = raw.get((int) sorted);
+            final ShortMessage message = (ShortMessage) event.getMessage();
+            final long frame = tempoMap.frame(event.getTick()) << EVENT_BITS;
+            final int channel = message.getChannel();
+            final int key = message.getData1();
+            final int command = message.getCommand();
+            if (command == ShortMessage.NOTE_ON && message.getData2() > 0) {
+                held[channel * 128 + key] = true;
+                sustained[channel * 128 + key] = false;
+                events[count++] = frame | MixerEngine.NOTE_ON | key << 8 | message.getData2();
+            } else if (command == ShortMessage.NOTE_ON || command == ShortMessage.NOTE_OFF) {
+                held[channel * 128 + key] = false;
+                if (pedals[channel]) {
+                    sustained[channel * 128 + key] = true;
+                } else {
+                    events[count++] = frame | MixerEngine.NOTE_OFF | key << 8;
+                }
+            } else if (command == ShortMessage.CONTROL_CHANGE && key == SUSTAIN_PEDAL) {
+                pedals[channel] = message.getData2() >= 64;
+                if (!pedals[channel]) {
+                    for (int k = 0; k < 128; k++) {
+                        if (sustained[channel * 128 + k] && !held[channel * 128 + k]) {
+                            events[count++] = frame | MixerEngine.NOTE_OFF | k << 8;
+                        }
+                        sustained[channel * 128 + k] = false;
+                    }
+                }
+            } else if (command == ShortMessage.CONTROL_CHANGE && (key == ALL_SOUND_OFF || key == ALL_NOTES_OFF)) {
+                events[count++] = frame | MixerEngine.ALL_NOTES_OFF;
+            }
+        }
+        return Arrays.copyOf(events, count);
+    }
+
+    /**
+     * Converts ticks to frames, following the tempo changes of a sequence.
+     */
+    private static final class TempoMap {
+        private final boolean ppq;
+        private final double ticksPerSecond;
+        private final int resolution;
+        private final long[] ticks;
+        private final long[] tempos;
+
+        /**
+         * microseconds elapsed at each tempo change.
+         */
+        private final double[] micros;
+
+        TempoMap(final Sequence sequence, final List<long[]> changes) {
+            ppq = sequence.getDivisionType() == Sequence.PPQ;
+            resolution = sequence.getResolution();
+            ticksPerSecond = sequence.getDivisionType() * resolution;
+            ticks = new long[changes.size() + 1];
+            tempos = new long[changes.size() + 1];
+            micros = new double[changes.size() + 1];
+            tempos[0] = DEFAULT_TEMPO;
+            for (int i = 0; i < changes.size(); i++) {
+                ticks[i + 1] = changes.get(i)[0];
+                tempos[i + 1] = changes.get(i)[1];
+                micros[i + 1] = micros[i] + (ticks[i + 1] - ticks[i]) * (double) tempos[i] / resolution;
+            }
+        }
+
+        long frame(final long tick) {
+            final double elapsed;
+            if (ppq) {
+                int i = Arrays.binarySearch(ticks, tick);
+                i = i >= 0 ? i : -i - 2;
+                // the last change at a tick applies
+                while (i + 1 < ticks.length && ticks[i + 1] == tick) {
+                    i++;
+                }
+                elapsed = micros[i] + (tick - ticks[i]) * (double) tempos[i] / resolution;
+            } else {
+                elapsed = tick * 1e6 / ticksPerSecond;
+            }
+            return Math.round(elapsed * SampleBank.SAMPLE_RATE / 1e6);
+        }
+    }
+
+    /**
+     * State of the voices at the start of a segment.
+     */
+    private static final class Segment {
+        private final long start;
+        private final int firstEvent;
+        private final MixerEngine engine;
+        private int frames;
+
+        Segment(final long start, final int firstEvent, final MixerEngine engine) {
+            this.start = start;
+            this.firstEvent = firstEvent;
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * Renders a MIDI file to a WAV file.
+     * @param midiFile the Standard MIDI File
+     * @param wavFile the WAV file, replaced if it exists
+     * @return the render report
+     * @throws IOException if a file cannot be read or written
+     * @throws InvalidMidiDataException if the MIDI file is not valid
+     */
+    public Report render(final Path midiFile, final Path wavFile) throws IOException, InvalidMidiDataException {
+        return render(MidiSystem.getSequence(midiFile.toFile()), wavFile);
+    }
+
+    /**
+     * Renders a sequence to a WAV file.
+     * @param sequence the sequence
+     * @param wavFile the WAV file, replaced if it exists
+     * @return the render report
+     * @throws IOException if the file cannot be written
+     */
+    public Report render(final Sequence sequence, final Path wavFile) throws IOException {
+        try (WavFileSink sink = WavFileSink.create(wavFile, SampleBank.FORMAT)) {
+            return render(events(sequence), sink);
+        }
+    }
+
+    /**
+     * Renders packed events into a sink, until the last voice has faded out.
+     * @param events packed events sorted by frame
+     * @param sink sink in {@link SampleBank#FORMAT}, not closed
+     * @return the render report
+     */
+    public Report render(final long[] events, final AudioSink sink) {
+        final long start = System.nanoTime();
+        final List<Segment> segments = plan(events);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "OfflineRenderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long frames = 0;
+        try {
+            // at most two segments per thread in memory, written in order
+            final List<Future<byte[]>> pending = new ArrayList<>();
+            int next = 0;
+            for (int written = 0; written < segments.size(); written++) {
+                while (next < segments.size() && pending.size() < 2 * threads) {
+                    final Segment segment = segments.get(next++);
+                    pending.add(executor.submit(() -> renderSegment(segment, events)));
+                }
+                final byte[] pcm = pending.remove(0).get();
+                sink.write(pcm, 0, pcm.length);
+                frames += pcm.length / SampleBank.FRAME_SIZE;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Render interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Render failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        sink.drain();
+        final Report report = new Report(frames, segments.size(), System.nanoTime() - start);
+        LOGGER.info(report.toString());
+        return report;
+    }
+
+    private MixerEngine newEngine() {
+        return new MixerEngine(bank, polyphony, MixerEngine.DEFAULT_PERIOD_FRAMES);
+    }
+
+    /**
+     * Moves the voices through the events without mixing, copying them at the start of every segment.
+     * @param events packed events sorted by frame
+     * @return the segments, the last one ending when the last voice has faded out, or a minute after the last event
+     */
+    private List<Segment> plan(final long[] events) {
+        final MixerEngine tracker = newEngine();
+        final List<Segment> segments = new ArrayList<>();
+        final long last = events.length > 0 ? frame(events[events.length - 1]) + MAX_TAIL_FRAMES : 0;
+        long clock = 0;
+        int e = 0;
+        boolean done = false;
+        while (!done) {
+            final MixerEngine engine = newEngine();
+            engine.copyVoices(tracker);
+            final Segment segment = new Segment(clock, e, engine);
+            segments.add(segment);
+            final long end = clock + segmentFrames;
+            while (clock < end) {
+                while (e < events.length && frame(events[e]) <= clock) {
+                    tracker.apply((int) (events[e++] & EVENT_MASK));
+                }
+                if (e == events.length && (tracker.activeVoices() == 0 || clock >= last)) {
+                    done = true;
+                    break;
+                }
+                final long next = e < events.length ? Math.min(frame(events[e]), end)
+                        : Math.min(clock + MixerEngine.DEFAULT_PERIOD_FRAMES, end);
+                final int played = tracker.advance((int) (next - clock));
+                if (e == events.length && tracker.activeVoices() == 0) {
+                    clock += played;
+                    done = true;
+                    break;
+                }
+                clock = next;
+            }
+            segment.frames = (int) (clock - segment.start);
+        }
+        if (segments.size() > 1 && segments.get(segments.size() - 1).frames == 0) {
+            segments.remove(segments.size() - 1);
+        }
+        return segments;
+    }
+
+    /**
+     * Mixes a segment from its copy of the voices.
+     * @param segment the segment
+     * @param events packed events sorted by frame
+     * @return the PCM data of the segment in {@link SampleBank#FORMAT}
+     */
+    private static byte[] renderSegment(final Segment segment, final long[] events) {
+        final MixerEngine engine = segment.engine;
+        final byte[] pcm = new byte[segment.frames * SampleBank.FRAME_SIZE];
+        final long end = segment.start + segment.frames;
+        long clock = segment.start;
+        int e = segment.firstEvent;
+        while (clock < end) {
+            while (e < events.length && frame(events[e]) <= clock) {
+                engine.apply((int) (events[e++] & EVENT_MASK));
+            }
+            final long next = e < events.length ? Math.min(frame(events[e]), end) : end;
+            while (clock < next) {
+                final int count = (int) Math.min(next - clock, engine.periodFrames());
+                engine.render(pcm, (int) (clock - segment.start) * SampleBank.FRAME_SIZE, count);
+                clock += count;
+            }
+        }
+        return pcm;
+    }
+
+    /**
+     * Renders a MIDI file to a WAV file with the installed piano samples.
+     * @param args the MIDI file and the WAV file
+     * @throws IOException if a file cannot be read or written
+     * @throws InvalidMidiDataException if the MIDI file is not valid
+     */
+    public static void main(final String[] args) throws IOException, InvalidMidiDataException {
+        if (args.length != 2) {
+            System.err.println("Usage: OfflineRenderer <in.mid> <out.wav>");
+            return;
+        }
+        final SampleBank bank = SampleBankFile.open(SampleBank.SAMPLE_FOLDER, SampleBankFile.DEFAULT_BANK_FILE);
+        new OfflineRenderer(bank).render(Path.of(args[0]), Path.of(args[1]));
+    }
+}
@@ -0,0 +1,344 @@
+package sample.audio;
+
+import sample.models.Note;
+import sample.models.NoteNames;
+import sample.models.Utilities;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * The piano samples of the 88 keys, decoded once into a single off-heap
+ * buffer of 16 bit stereo PCM in {@link #FORMAT}, so playing a key reads memory only.
+ * The buffer is either filled by {@link #load(Path)} or mapped from a
+ * bank file by {@link SampleBankFile#map(Path)}.
+ * Samples are indexed by MIDI key number; a key without sample has 0 frames.
+ */
+public final class SampleBank {
+    private static final Logger LOGGER = Logger.getLogger(SampleBank.class.getName());
+
+    /**
+     * sample rate of the bank, in frames per second.
+     */
+    public static final float SAMPLE_RATE = 44100f;
+
+    /**
+     * number of channels of the bank.
+     */
+    public static final int CHANNELS = 2;
+
+    /**
+     * number of bytes of a frame, all channels included.
+     */
+    public static final int FRAME_SIZE = CHANNELS * Short.BYTES;
+
+    /**
+     * format of the samples of the bank: signed 16 bit little endian stereo.
+     */
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, Short.SIZE, CHANNELS, true, false);
+
+    /**
+     * folder the piano samples are downloaded to.
+     */
+    public static final Path SAMPLE_FOLDER = Path.of("src", "downloads", "sounds", "piano");
+
+    /**
+     * PCM data of every sample, little endian.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * byte offset in data of the sample of each key, indexed from the lowest key.
+     */
+    private final int[] offsets;
+
+    /**
+     * number of frames of the sample of each key, indexed from the lowest key.
+     */
+    private final int[] frames;
+
+    /**
+     * first frame of the loop of the sample of each key, indexed from the lowest key.
+     */
+    private final int[] loopStarts;
+
+    /**
+     * frame after the loop of the sample of each key, equal to the loop start if the sample does not loop.
+     */
+    private final int[] loopEnds;
+
+    /**
+     * true if data is a file mapped in memory.
+     */
+    private final boolean mapped;
+
+    /**
+     * time taken to load the bank, in nanoseconds.
+     */
+    private final long loadTimeNanos;
+
+    SampleBank(final ByteBuffer data, final boolean mapped, final int[] offsets, final int[] frames,
+               final int[] loopStarts, final int[] loopEnds, final long loadTimeNanos) {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        this.mapped = mapped;
+        this.offsets = offsets;
+        this.frames = frames;
+        this.loopStarts = loopStarts;
+        this.loopEnds = loopEnds;
+        this.loadTimeNanos = loadTimeNanos;
+    }
+
+    /**
+     * Decodes every sample of the folder in parallel.
+     * @param folder folder holding the ff.&lt;note&gt;.aiff files
+     * @return the loaded bank
+     * @throws IOException if a sample cannot be read or converted to {@link #FORMAT}
+     */
+    public static SampleBank load(final Path folder) throws IOException {
+        final long start = System.nanoTime();
+        final byte[][] decoded;
+        try {
+            decoded = IntStream.range(0, Utilities.NUMBER_OF_KEYS_88).parallel()
+                    .mapToObj(index -> decode(folder.resolve(fileName(index + Note.LOWEST_KEY))))
+                    .toArray(byte[][]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return assemble(decoded, start);
+    }
+
+    /**
+     * Copies decoded samples into a single off-heap buffer.
+     * @param decoded PCM data in {@link #FORMAT} of each key, indexed from the lowest key
+     * @param start time the loading started at, from {@link System#nanoTime()}
+     * @return the bank
+     */
+    static SampleBank assemble(final byte[][] decoded, final long start) {
+        return assemble(decoded, new int[Utilities.NUMBER_OF_KEYS_88], new int[Utilities.NUMBER_OF_KEYS_88], start);
+    }
+
+    /**
+     * Copies samples into a single off-heap buffer.
+     * @param decoded PCM data in {@link #FORMAT} of each key, indexed from the lowest key
+     * @param loopStarts first frame of the loop of each key
+     * @param loopEnds frame after the loop of each key, equal to the loop start if it does not loop
+     * @param start time the loading started at, from {@link System#nanoTime()}
+     * @return the bank
+     */
+    static SampleBank assemble(final byte[][] decoded, final int[] loopStarts, final int[] loopEnds,
+                               final long start) {
+        int total = 0;
+        for (byte[] pcm : decoded) {
+            total += pcm.length;
+        }
+        final ByteBuffer data = ByteBuffer.allocateDirect(total);
+        final int[] offsets = new int[Utilities.NUMBER_OF_KEYS_88];
+        final int[] frames = new int[Utilities.NUMBER_OF_KEYS_88];
+        for (int i = 0; i < decoded.length; i++) {
+            offsets[i] = data.position();
+            frames[i] = decoded[i].length / FRAME_SIZE;
+            data.put(decoded[i]);
+        }
+        data.flip();
+        final SampleBank bank = new SampleBank(data, false, offsets, frames, loopStarts, loopEnds,
+                System.nanoTime() - start);
+        LOGGER.info(bank.memoryReport());
+        return bank;
+    }
+
+    /**
+     * @param file the AIFF file
+     * @return the PCM data in {@link #FORMAT}, empty if the file does not exist
+     */
+    private static byte[] decode(final Path file) {
+        if (!Files.exists(file)) {
+            return new byte[0];
+        }
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file.toFile())) {
+            return toBankFormat(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (UnsupportedAudioFileException e) {
+            throw new UncheckedIOException(new IOException("Unsupported sample " + file, e));
+        }
+    }
+
+    /**
+     * @param source decoded audio stream at {@link #SAMPLE_RATE}, mono or stereo
+     * @return the PCM data in {@link #FORMAT}
+     * @throws IOException if the stream cannot be read or converted
+     */
+    static byte[] toBankFormat(final AudioInputStream source) throws IOException {
+        final AudioFormat sourceFormat = source.getFormat();
+        final int channels = sourceFormat.getChannels();
+        if (channels > CHANNELS || sourceFormat.getSampleRate() != SAMPLE_RATE) {
+            throw new IOException("Unsupported sample format " + sourceFormat);
+        }
+        final AudioFormat pcmFormat = new AudioFormat(SAMPLE_RATE, Short.SIZE, channels, true, false);
+        try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+            final byte[] bytes = pcm.readAllBytes();
+            if (channels == CHANNELS) {
+                return bytes;
+            }
+            final byte[] stereo = new byte[bytes.length * 2];
+            for (int i = 0; i + 1 < bytes.length; i += Short.BYTES) {
+                stereo[2 * i] = bytes[i];
+                stereo[2 * i + 1] = bytes[i + 1];
+                stereo[2 * i + 2] = bytes[i];
+                stereo[2 * i + 3] = bytes[i + 1];
+            }
+            return stereo;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported sample format " + sourceFormat, e);
+        }
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return the name of the sample file of the key, always spelled with flats
+     */
+    public static String fileName(final int key) {
+        return "ff." + NoteNames.FLAT_MODE_NAMES[(key % Utilities.NUM_NOTE_QUALITIES + 3) % Utilities.NUM_NOTE_QUALITIES]
+                + (key / Utilities.NUM_NOTE_QUALITIES - 1) + ".aiff";
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return true if the bank has a sample for the key
+     */
+    public boolean isAvailable(final int key) {
+        return frames(key) > 0;
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return the number of frames of the sample of the key, 0 if there is none
+     */
+    public int frames(final int key) {
+        return Note.isValidKey(key) ? frames[key - Note.LOWEST_KEY] : 0;
+    }
+
+    /**
+     * @param key MIDI key number with a sample
+     * @return the first frame of the loop of the sample
+     */
+    public int loopStart(final int key) {
+        return loopStarts[key - Note.LOWEST_KEY];
+    }
+
+    /**
+     * @param key MIDI key number with a sample
+     * @return the frame after the loop of the sample, equal to {@link #loopStart(int)} if it does not loop
+     */
+    public int loopEnd(final int key) {
+        return loopEnds[key - Note.LOWEST_KEY];
+    }
+
+    /**
+     * @param key MIDI key number with a sample
+     * @param frame index of the frame
+     * @param channel index of the channel
+     * @return the 16 bit sample value
+     */
+    public short sample(final int key, final int frame, final int channel) {
+        return data.getShort(offsets[key - Note.LOWEST_KEY] + frame * FRAME_SIZE + channel * Short.BYTES);
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return a read-only little endian view of the PCM data of the key, empty if there is none
+     */
+    public ByteBuffer samples(final int key) {
+        if (!isAvailable(key)) {
+            return ByteBuffer.allocate(0);
+        }
+        final int index = key - Note.LOWEST_KEY;
+        return data.asReadOnlyBuffer().position(offsets[index]).limit(offsets[index] + frames[index] * FRAME_SIZE)
+                .slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Completes the bank with the samples of another for the keys it has none of.
+     * @param fallback bank playing the missing keys
+     * @return this bank if it has every key, the fallback if it has none, otherwise a copy of both in memory
+     */
+    public SampleBank fillMissing(final SampleBank fallback) {
+        final int available = availableSamples();
+        if (available == Utilities.NUMBER_OF_KEYS_88) {
+            return this;
+        }
+        if (available == 0) {
+            return fallback;
+        }
+        final long start = System.nanoTime();
+        final byte[][] pcm = new byte[Utilities.NUMBER_OF_KEYS_88][];
+        final int[] starts = new int[Utilities.NUMBER_OF_KEYS_88];
+        final int[] ends = new int[Utilities.NUMBER_OF_KEYS_88];
+        for (int i = 0; i < pcm.length; i++) {
+            final int key = Note.LOWEST_KEY + i;
+            final SampleBank source = isAvailable(key) ? this : fallback;
+            final ByteBuffer samples = source.samples(key);
+            pcm[i] = new byte[samples.remaining()];
+            samples.get(pcm[i]);
+            starts[i] = source.loopStart(key);
+            ends[i] = source.loopEnd(key);
+        }
+        return assemble(pcm, starts, ends, start);
+    }
+
+    /**
+     * @return the number of keys with a sample
+     */
+    public int availableSamples() {
+        int available = 0;
+        for (int count : frames) {
+            if (count > 0) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @return the size of the PCM data, in bytes
+     */
+    public long memoryFootprint() {
+        return data.capacity();
+    }
+
+    /**
+     * @return true if the PCM data lives in a file mapped in memory
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * @return the time taken to load the bank, in nanoseconds
+     */
+    public long loadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    /**
+     * @return a report of the bank size and load time
+     */
+    public String memoryReport() {
+        StringBuilder rep = new StringBuilder();
+        rep.append("SampleBank: ").append(availableSamples()).append(" samples")
+                .append("\nPCM data: ").append(memoryFootprint() / 1024).append(" KB")
+                .append(mapped ? " mapped" : data.isDirect() ? " off heap" : " on heap")
+                .append("\nLoaded in: ").append(loadTimeNanos / 1_000_000.0).append(" ms");
+        return rep.toString();
+    }
+}
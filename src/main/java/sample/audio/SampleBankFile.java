@@ -0,0 +1,250 @@
+package sample.audio;
+
+import sample.models.Note;
+import sample.models.Utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Packed binary file holding a SampleBank, mapped in memory when opened so
+ * startup does not decode anything, the PCM data stays off the Java heap and
+ * the page cache shares it between running instances.
+ * Layout, little endian:
+ * <pre>
+ * int  magic "MPSB"
+ * int  version
+ * int  sample rate, in frames per second
+ * int  number of channels
+ * int  lowest key
+ * int  number of keys
+ * long offset of the PCM data
+ * then for each key:
+ *   long offset of the sample from the start of the PCM data
+ *   int  number of frames
+ *   int  first frame of the loop
+ *   int  frame after the loop, equal to the loop start if the sample does not loop
+ * then the PCM data, 16 bit signed interleaved.
+ * </pre>
+ */
+public final class SampleBankFile {
+    private static final Logger LOGGER = Logger.getLogger(SampleBankFile.class.getName());
+
+    /**
+     * "MPSB" read as a little endian int.
+     */
+    public static final int MAGIC = 'M' | 'P' << 8 | 'S' << 16 | 'B' << 24;
+
+    /**
+     * version of the layout.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * default location of the bank file, next to the downloaded samples.
+     */
+    public static final Path DEFAULT_BANK_FILE = SampleBank.SAMPLE_FOLDER.resolveSibling("piano.bank");
+
+    /**
+     * size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * size of the index entry of a key, in bytes.
+     */
+    private static final int ENTRY_SIZE = Long.BYTES + 3 * Integer.BYTES;
+
+    private SampleBankFile() { }
+
+    /**
+     * Writes the bank to a file, replacing it atomically.
+     * @param bank the bank to write
+     * @param file the bank file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final SampleBank bank, final Path file) throws IOException {
+        final int keys = Utilities.NUMBER_OF_KEYS_88;
+        final long dataOffset = HEADER_SIZE + (long) keys * ENTRY_SIZE;
+        final ByteBuffer header = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putInt((int) SampleBank.SAMPLE_RATE).putInt(SampleBank.CHANNELS)
+                .putInt(Note.LOWEST_KEY).putInt(keys).putLong(dataOffset);
+        long offset = 0;
+        for (int key = Note.LOWEST_KEY; key <= Note.HIGHEST_KEY; key++) {
+            final int frames = bank.frames(key);
+            header.putLong(offset).putInt(frames)
+                    .putInt(frames > 0 ? bank.loopStart(key) : 0)
+                    .putInt(frames > 0 ? bank.loopEnd(key) : 0);
+            offset += (long) frames * SampleBank.FRAME_SIZE;
+        }
+        header.flip();
+
+        final Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (int key = Note.LOWEST_KEY; key <= Note.HIGHEST_KEY; key++) {
+                writeFully(channel, bank.samples(key));
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps a bank file in memory.
+     * @param file the bank file
+     * @return the bank, its PCM data backed by the file
+     * @throws IOException if the file cannot be read or is not a valid bank file
+     */
+    public static SampleBank map(final Path file) throws IOException {
+        final long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Truncated sample bank " + file);
+            }
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            final int magic = header.getInt();
+            final int version = header.getInt();
+            final int sampleRate = header.getInt();
+            final int channels = header.getInt();
+            final int lowestKey = header.getInt();
+            final int keys = header.getInt();
+            final long dataOffset = header.getLong();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a version " + VERSION + " sample bank: " + file);
+            }
+            if (sampleRate != (int) SampleBank.SAMPLE_RATE || channels != SampleBank.CHANNELS
+                    || lowestKey != Note.LOWEST_KEY || keys != Utilities.NUMBER_OF_KEYS_88
+                    || dataOffset != HEADER_SIZE + (long) keys * ENTRY_SIZE || dataOffset > size) {
+                throw new IOException("Unsupported sample bank layout: " + file);
+            }
+            final long dataSize = size - dataOffset;
+            if (dataSize > Integer.MAX_VALUE) {
+                throw new IOException("Sample bank too large: " + file);
+            }
+
+            final MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE,
+                    (long) keys * ENTRY_SIZE);
+            index.order(ByteOrder.LITTLE_ENDIAN);
+            final int[] offsets = new int[keys];
+            final int[] frames = new int[keys];
+            final int[] loopStarts = new int[keys];
+            final int[] loopEnds = new int[keys];
+            for (int i = 0; i < keys; i++) {
+                final long offset = index.getLong();
+                frames[i] = index.getInt();
+                loopStarts[i] = index.getInt();
+                loopEnds[i] = index.getInt();
+                if (frames[i] < 0 || offset < 0 || offset + (long) frames[i] * SampleBank.FRAME_SIZE > dataSize
+                        || loopStarts[i] < 0 || loopEnds[i] < loopStarts[i] || loopEnds[i] > frames[i]) {
+                    throw new IOException("Corrupt sample bank index for key " + (lowestKey + i) + ": " + file);
+                }
+                offsets[i] = (int) offset;
+            }
+
+            final MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, dataSize);
+            final SampleBank bank = new SampleBank(data, true, offsets, frames, loopStarts, loopEnds,
+                    System.nanoTime() - start);
+            LOGGER.info(bank.memoryReport());
+            return bank;
+        }
+    }
+
+    /**
+     * Maps the bank file, converting the AIFF samples into it first if it does not exist yet.
+     * @param sampleFolder folder holding the ff.&lt;note&gt;.aiff files
+     * @param file the bank file
+     * @return the mapped bank
+     * @throws IOException if the samples or the bank file cannot be read or written
+     */
+    public static SampleBank open(final Path sampleFolder, final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            convert(sampleFolder, file);
+        }
+        return map(file);
+    }
+
+    /**
+     * Opens the bank of the downloaded piano samples, converting them on first use,
+     * or the bank of the built-in synthesizer if they are not installed.
+     * @return the bank
+     * @throws IOException if the samples or the bank file cannot be read or written
+     */
+    public static SampleBank openDefault() throws IOException {
+        return openWithFallback(SampleBank.SAMPLE_FOLDER, DEFAULT_BANK_FILE);
+    }
+
+    /**
+     * Opens the bank file like {@link #open(Path, Path)}, the keys without sample
+     * played by the built-in synthesizer. A folder without any sample, left by an
+     * interrupted install for example, is not converted, so a later install is.
+     * @param sampleFolder folder holding the ff.&lt;note&gt;.aiff files
+     * @param file the bank file
+     * @return the bank, with a sample for every key
+     * @throws IOException if the samples or the bank file cannot be read or written
+     */
+    public static SampleBank openWithFallback(final Path sampleFolder, final Path file) throws IOException {
+        final SampleBank bank;
+        if (Files.exists(file)) {
+            bank = map(file);
+        } else if (!Files.isDirectory(sampleFolder)) {
+            return WavetableSynth.bank();
+        } else {
+            final SampleBank loaded = SampleBank.load(sampleFolder);
+            if (loaded.availableSamples() == 0) {
+                LOGGER.warning("No samples in " + sampleFolder + ", playing the built-in synthesizer");
+                return WavetableSynth.bank();
+            }
+            write(loaded, file);
+            LOGGER.info(String.format("Converted %d samples from %s into %s",
+                    loaded.availableSamples(), sampleFolder, file));
+            bank = map(file);
+        }
+        return bank.fillMissing(WavetableSynth.bank());
+    }
+
+    /**
+     * Converts a folder of AIFF samples into a bank file.
+     * @param sampleFolder folder holding the ff.&lt;note&gt;.aiff files
+     * @param file the bank file
+     * @throws IOException if the samples cannot be read or the bank file cannot be written
+     */
+    public static void convert(final Path sampleFolder, final Path file) throws IOException {
+        final SampleBank bank = SampleBank.load(sampleFolder);
+        write(bank, file);
+        LOGGER.info(String.format("Converted %d samples from %s into %s",
+                bank.availableSamples(), sampleFolder, file));
+    }
+
+    /**
+     * Converts the downloaded AIFF samples into a bank file.
+     * @param args optional sample folder and bank file, the default locations otherwise
+     * @throws IOException if the conversion fails
+     */
+    public static void main(final String[] args) throws IOException {
+        final Path sampleFolder = args.length > 0 ? Path.of(args[0]) : SampleBank.SAMPLE_FOLDER;
+        final Path file = args.length > 1 ? Path.of(args[1]) : DEFAULT_BANK_FILE;
+        convert(sampleFolder, file);
+    }
+}
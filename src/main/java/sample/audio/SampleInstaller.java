@@ -0,0 +1,271 @@
+package sample.audio;
+
+import sample.models.Note;
+import sample.models.Utilities;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Downloads the piano sample zip and installs it as a sample bank file, in process.
+ * An interrupted download is kept next to the zip and resumed with an HTTP range request.
+ * The download is verified against the expected checksum, or else against the
+ * MD5 ETag S3 sends for files uploaded in one part.
+ * The samples are decoded in parallel straight from the zip entries, so
+ * nothing is extracted to disk.
+ */
+public final class SampleInstaller {
+    private static final Logger LOGGER = Logger.getLogger(SampleInstaller.class.getName());
+
+    /**
+     * location of the piano sample zip.
+     */
+    public static final URI PIANO_SAMPLES_URI = URI.create("https://midip-sounds.s3.amazonaws.com/piano/piano.zip");
+
+    /**
+     * default location of the downloaded zip.
+     */
+    public static final Path DEFAULT_ZIP_FILE = SampleBank.SAMPLE_FOLDER.resolveSibling("piano.zip");
+
+    /**
+     * size of the download buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * size of the buffer of each zip entry being decoded, in bytes.
+     */
+    private static final int ENTRY_BUFFER_SIZE = 1 << 16;
+
+    private static final int TIMEOUT_MILLIS = 30_000;
+
+    private final URI source;
+    private final Path zipFile;
+
+    /**
+     * algorithm of the expected checksum, null to rely on the ETag.
+     */
+    private final String algorithm;
+
+    /**
+     * expected checksum of the zip, lower case hexadecimal.
+     */
+    private final String checksum;
+
+    /**
+     * @param source location of the zip
+     * @param zipFile where the zip is downloaded
+     */
+    public SampleInstaller(final URI source, final Path zipFile) {
+        this(source, zipFile, null, null);
+    }
+
+    /**
+     * @param source location of the zip
+     * @param zipFile where the zip is downloaded
+     * @param algorithm MessageDigest algorithm of the checksum, null to rely on the ETag
+     * @param checksum expected checksum of the zip in hexadecimal, null to rely on the ETag
+     */
+    public SampleInstaller(final URI source, final Path zipFile, final String algorithm, final String checksum) {
+        this.source = source;
+        this.zipFile = zipFile;
+        this.algorithm = checksum == null ? null : algorithm;
+        this.checksum = checksum == null ? null : checksum.toLowerCase();
+    }
+
+    /**
+     * @return an installer of the piano samples into their default location
+     */
+    public static SampleInstaller piano() {
+        return new SampleInstaller(PIANO_SAMPLES_URI, DEFAULT_ZIP_FILE);
+    }
+
+    /**
+     * Maps the bank file, downloading and converting the samples first if it does not exist yet.
+     * @param bankFile the bank file
+     * @return the mapped bank
+     * @throws IOException if the download, its verification or the conversion fails
+     */
+    public SampleBank install(final Path bankFile) throws IOException {
+        if (!Files.exists(bankFile)) {
+            if (!Files.exists(zipFile)) {
+                download();
+            }
+            SampleBankFile.write(readZip(zipFile), bankFile);
+        }
+        return SampleBankFile.map(bankFile);
+    }
+
+    /**
+     * Downloads the zip, resuming a previous partial download.
+     * @return the downloaded zip
+     * @throws IOException if the download fails or the checksum does not match
+     */
+    public Path download() throws IOException {
+        final Path partFile = zipFile.resolveSibling(zipFile.getFileName() + ".part");
+        Files.createDirectories(zipFile.toAbsolutePath().getParent());
+        final long resumeFrom = Files.exists(partFile) ? Files.size(partFile) : 0;
+
+        final HttpURLConnection connection = (HttpURLConnection) source.toURL().openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        if (resumeFrom > 0) {
+            connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+        }
+        try {
+            final int status = connection.getResponseCode();
+            final boolean resumed = status == HttpURLConnection.HTTP_PARTIAL;
+            if (status == 416 && resumeFrom > 0) {
+                LOGGER.info("Download of " + source + " was already complete");
+            } else if (status == HttpURLConnection.HTTP_OK || resumed) {
+                LOGGER.info(resumed ? "Resuming download of " + source + " from byte " + resumeFrom
+                        : "Downloading " + source);
+                try (InputStream in = connection.getInputStream();
+                     ReadableByteChannel body = Channels.newChannel(in);
+                     FileChannel out = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    if (!resumed) {
+                        out.truncate(0);
+                    }
+                    out.position(resumed ? resumeFrom : 0);
+                    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                    while (body.read(buffer) >= 0) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                        buffer.clear();
+                    }
+                }
+            } else {
+                throw new IOException("Download of " + source + " failed with HTTP status " + status);
+            }
+            verify(partFile, connection.getHeaderField("ETag"));
+        } finally {
+            connection.disconnect();
+        }
+        Files.move(partFile, zipFile, StandardCopyOption.REPLACE_EXISTING);
+        LOGGER.info("Downloaded " + Files.size(zipFile) + " bytes to " + zipFile);
+        return zipFile;
+    }
+
+    /**
+     * Checks the downloaded file, deleting it if the checksum does not match.
+     * @param file the downloaded file
+     * @param etag ETag of the last response, null if none
+     * @throws IOException if the file cannot be read or the checksum does not match
+     */
+    private void verify(final Path file, final String etag) throws IOException {
+        String expectedAlgorithm = algorithm;
+        String expected = checksum;
+        if (expected == null && etag != null) {
+            final String tag = etag.replace("\"", "").toLowerCase();
+            if (tag.matches("[0-9a-f]{32}")) {
+                expectedAlgorithm = "MD5";
+                expected = tag;
+            }
+        }
+        if (expected == null) {
+            LOGGER.warning("No checksum to verify " + file + " against");
+            return;
+        }
+        final String actual = checksum(file, expectedAlgorithm);
+        if (!actual.equals(expected)) {
+            Files.delete(file);
+            throw new IOException(expectedAlgorithm + " checksum mismatch for " + source
+                    + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * @param file the file to hash
+     * @param algorithm MessageDigest algorithm
+     * @return the checksum of the file, lower case hexadecimal
+     * @throws IOException if the file cannot be read or the algorithm is unknown
+     */
+    public static String checksum(final Path file, final String algorithm) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unknown checksum algorithm " + algorithm, e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Decodes the samples of a zip in parallel, reading the entries in place.
+     * Entries are matched on their file name, whatever folder they are in.
+     * @param zipFile the zip holding the ff.&lt;note&gt;.aiff files
+     * @return the loaded bank
+     * @throws IOException if the zip or a sample cannot be read
+     */
+    public static SampleBank readZip(final Path zipFile) throws IOException {
+        final long start = System.nanoTime();
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            final Map<String, ZipEntry> entries = new HashMap<>();
+            zip.stream()
+                    .filter(entry -> !entry.isDirectory() && !entry.getName().startsWith("__MACOSX/"))
+                    .forEach(entry -> entries.put(Path.of(entry.getName()).getFileName().toString(), entry));
+            final byte[][] decoded;
+            try {
+                decoded = IntStream.range(0, Utilities.NUMBER_OF_KEYS_88).parallel()
+                        .mapToObj(index -> decode(zip, entries.get(SampleBank.fileName(index + Note.LOWEST_KEY))))
+                        .toArray(byte[][]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return SampleBank.assemble(decoded, start);
+        }
+    }
+
+    /**
+     * @param zip the open zip
+     * @param entry the AIFF entry, null if the zip has none for the key
+     * @return the PCM data in {@link SampleBank#FORMAT}, empty if there is no entry
+     */
+    private static byte[] decode(final ZipFile zip, final ZipEntry entry) {
+        if (entry == null) {
+            return new byte[0];
+        }
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry), ENTRY_BUFFER_SIZE);
+             AudioInputStream source = AudioSystem.getAudioInputStream(in)) {
+            return SampleBank.toBankFormat(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (UnsupportedAudioFileException e) {
+            throw new UncheckedIOException(new IOException("Unsupported sample " + entry.getName(), e));
+        }
+    }
+}
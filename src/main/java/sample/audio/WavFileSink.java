@@ -0,0 +1,144 @@
+package sample.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * AudioSink writing a WAV file of 16 bit little endian PCM.
+ * Frames are buffered and appended as they come; the sizes in the header are
+ * filled in on close, so a file left by a crash has an empty header only.
+ */
+public final class WavFileSink implements AudioSink {
+    /**
+     * size of the RIFF and fmt headers plus the data chunk header, in bytes.
+     */
+    private static final int HEADER_SIZE = 44;
+
+    /**
+     * size of the write buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final AudioFormat format;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long framesWritten;
+
+    private WavFileSink(final AudioFormat format, final FileChannel channel) {
+        this.format = format;
+        this.channel = channel;
+    }
+
+    /**
+     * Creates or replaces a WAV file.
+     * @param file the WAV file
+     * @param format format of the frames, signed 16 bit little endian PCM
+     * @return the open sink
+     * @throws IOException if the file cannot be created
+     */
+    public static WavFileSink create(final Path file, final AudioFormat format) throws IOException {
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.getSampleSizeInBits() != Short.SIZE
+                || format.isBigEndian()) {
+            throw new IOException("Unsupported WAV format " + format);
+        }
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        final WavFileSink sink = new WavFileSink(format, channel);
+        try {
+            sink.writeHeader();
+            channel.position(HEADER_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return sink;
+    }
+
+    /**
+     * Writes the header at the start of the file, sized for the frames written so far.
+     * Sizes past 4 GB are saturated.
+     */
+    private void writeHeader() throws IOException {
+        final long dataSize = framesWritten * format.getFrameSize();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII))
+                .putInt((int) Math.min(dataSize + HEADER_SIZE - 8, 0xFFFFFFFFL))
+                .put("WAVEfmt ".getBytes(StandardCharsets.US_ASCII))
+                .putInt(16)
+                .putShort((short) 1)
+                .putShort((short) format.getChannels())
+                .putInt((int) format.getSampleRate())
+                .putInt((int) format.getSampleRate() * format.getFrameSize())
+                .putShort((short) format.getFrameSize())
+                .putShort((short) format.getSampleSizeInBits())
+                .put("data".getBytes(StandardCharsets.US_ASCII))
+                .putInt((int) Math.min(dataSize, 0xFFFFFFFFL - HEADER_SIZE + 8))
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    @Override
+    public AudioFormat format() {
+        return format;
+    }
+
+    @Override
+    public int write(final byte[] data, final int offset, final int length) {
+        try {
+            int position = offset;
+            while (position < offset + length) {
+                final int count = Math.min(buffer.remaining(), offset + length - position);
+                buffer.put(data, position, count);
+                position += count;
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        framesWritten += length / format.getFrameSize();
+        return length;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void drain() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    @Override
+    public void close() {
+        try (FileChannel closing = channel) {
+            flush();
+            writeHeader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
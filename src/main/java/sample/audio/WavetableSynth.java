@@ -0,0 +1,172 @@
+package sample.audio;
+
+import sample.models.Note;
+import sample.models.Utilities;
+
+import java.util.stream.IntStream;
+
+/**
+ * Built-in piano-like voice for machines without the downloaded samples.
+ * Each key is rendered once from a precomputed wavetable into a float buffer:
+ * the attack and decay of the ADSR envelope, then one sustain cycle group
+ * looped seamlessly, so the MixerEngine plays it like any other sample and
+ * its release ramp provides the release stage.
+ * Wavetables are band limited: a key uses only the harmonics below Nyquist.
+ */
+public final class WavetableSynth {
+    /**
+     * number of points of a wavetable cycle, a power of 2.
+     */
+    static final int TABLE_SIZE = 2048;
+
+    /**
+     * relative amplitude of each harmonic, fundamental first.
+     */
+    private static final float[] HARMONICS = {1f, 0.5f, 0.3f, 0.22f, 0.12f, 0.08f, 0.05f, 0.03f};
+
+    /**
+     * duration of the attack, in frames.
+     */
+    static final int ATTACK_FRAMES = 220;
+
+    /**
+     * duration of the decay to the sustain level, in frames.
+     */
+    static final int DECAY_FRAMES = 17640;
+
+    /**
+     * level of the sustain relative to the peak.
+     */
+    static final float SUSTAIN_LEVEL = 0.3f;
+
+    /**
+     * approximate length of the sustain loop, in frames.
+     */
+    private static final int LOOP_FRAMES = 4410;
+
+    /**
+     * peak amplitude of a rendered key.
+     */
+    private static final float PEAK = 0.8f * Short.MAX_VALUE;
+
+    /**
+     * frequency of each key in Hz, indexed from the lowest key.
+     */
+    private static final double[] FREQUENCIES = new double[Utilities.NUMBER_OF_KEYS_88];
+
+    /**
+     * wavetables with the first n + 1 harmonics, indexed by n.
+     */
+    private static final float[][] TABLES = new float[HARMONICS.length][TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < FREQUENCIES.length; i++) {
+            FREQUENCIES[i] = 440.0 * Math.pow(2, (i + Note.LOWEST_KEY - 69) / 12.0);
+        }
+        for (int n = 0; n < HARMONICS.length; n++) {
+            float max = 0f;
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                double value = 0;
+                for (int h = 0; h <= n; h++) {
+                    value += HARMONICS[h] * Math.sin(2 * Math.PI * (h + 1) * i / TABLE_SIZE);
+                }
+                TABLES[n][i] = (float) value;
+                max = Math.max(max, Math.abs(TABLES[n][i]));
+            }
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                TABLES[n][i] /= max;
+            }
+        }
+    }
+
+    private WavetableSynth() { }
+
+    private static final class Holder {
+        private static final SampleBank BANK = render();
+    }
+
+    /**
+     * @return the shared synthesized bank, rendered on first call
+     */
+    public static SampleBank bank() {
+        return Holder.BANK;
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return the frequency of the key in Hz
+     */
+    public static double frequency(final int key) {
+        return FREQUENCIES[key - Note.LOWEST_KEY];
+    }
+
+    /**
+     * @return a bank with every key synthesized, rendered in parallel
+     */
+    static SampleBank render() {
+        final long start = System.nanoTime();
+        final int[] loopStarts = new int[Utilities.NUMBER_OF_KEYS_88];
+        final int[] loopEnds = new int[Utilities.NUMBER_OF_KEYS_88];
+        final byte[][] pcm = IntStream.range(0, Utilities.NUMBER_OF_KEYS_88).parallel()
+                .mapToObj(index -> renderKey(index, loopStarts, loopEnds))
+                .toArray(byte[][]::new);
+        return SampleBank.assemble(pcm, loopStarts, loopEnds, start);
+    }
+
+    /**
+     * @param index index of the key from the lowest key
+     * @param loopStarts receives the first frame of the loop
+     * @param loopEnds receives the frame after the loop, the last frame
+     * @return the PCM data of the key in {@link SampleBank#FORMAT}
+     */
+    private static byte[] renderKey(final int index, final int[] loopStarts, final int[] loopEnds) {
+        final double frequency = FREQUENCIES[index];
+        // a whole number of cycles fits the loop, the pitch moving by less than a cent
+        final long cycles = Math.max(1, Math.round(LOOP_FRAMES * frequency / SampleBank.SAMPLE_RATE));
+        final int loopLength = (int) Math.round(cycles * SampleBank.SAMPLE_RATE / frequency);
+        final double increment = (double) cycles * TABLE_SIZE / loopLength;
+        final int harmonics = (int) Math.min(HARMONICS.length, SampleBank.SAMPLE_RATE / 2 / frequency);
+        final float[] table = TABLES[Math.max(harmonics, 1) - 1];
+
+        final int loopStart = ATTACK_FRAMES + DECAY_FRAMES;
+        final int length = loopStart + loopLength;
+        final float[] buffer = new float[length];
+        for (int i = 0; i < length; i++) {
+            final double phase = i * increment % TABLE_SIZE;
+            final int point = (int) phase;
+            final float fraction = (float) (phase - point);
+            final float a = table[point];
+            final float b = table[(point + 1) & (TABLE_SIZE - 1)];
+            buffer[i] = (a + (b - a) * fraction) * envelope(i);
+        }
+
+        final byte[] pcm = new byte[length * SampleBank.FRAME_SIZE];
+        for (int i = 0; i < length; i++) {
+            final int value = Math.round(buffer[i] * PEAK);
+            for (int channel = 0; channel < SampleBank.CHANNELS; channel++) {
+                pcm[i * SampleBank.FRAME_SIZE + channel * 2] = (byte) value;
+                pcm[i * SampleBank.FRAME_SIZE + channel * 2 + 1] = (byte) (value >> 8);
+            }
+        }
+        loopStarts[index] = loopStart;
+        loopEnds[index] = length;
+        return pcm;
+    }
+
+    /**
+     * @param frame frame from the start of the note
+     * @return the level of the attack, decay and sustain stages at the frame
+     */
+    static float envelope(final int frame) {
+        if (frame < ATTACK_FRAMES) {
+            return (float) frame / ATTACK_FRAMES;
+        }
+        if (frame < ATTACK_FRAMES + DECAY_FRAMES) {
+            // exponential decay scaled to land on the sustain level
+            final double t = (double) (frame - ATTACK_FRAMES) / DECAY_FRAMES;
+            final double floor = Math.exp(-5);
+            return (float) (SUSTAIN_LEVEL + (1 - SUSTAIN_LEVEL) * (Math.exp(-5 * t) - floor) / (1 - floor));
+        }
+        return SUSTAIN_LEVEL;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Provides the audio playback of the piano samples:
+ * sample installation, sample banks, the mixer engine and its outputs.
+ */
+package sample.audio;
@@ -3,5 +3,17 @@ package sample.models;
 import sample.models.exceptions.InvalidNoteException;
 
 public interface Invertable {
-    abstract Note[] invert(final int index) throws InvalidNoteException;
+    Note[] invert(final int index) throws InvalidNoteException;
+
+    /**
+     * Writes the keys of the inversion into the given buffer,
+     * without allocating or throwing.
+     * Keys falling off the keyboard are written as {@link Transposable#OFF_KEYBOARD}.
+     * Writes as many keys as {@link #invert(int)} returns Notes.
+     * @param index the index of the Note to start the inversion from
+     * @param dest buffer receiving the keys
+     * @return the number of keys that fell off the keyboard, 0 if all are valid
+     */
+    int invert(int index, int[] dest);
+
 }
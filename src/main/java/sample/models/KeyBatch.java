@@ -0,0 +1,167 @@
+package sample.models;
+
+/**
+ * Batch operations on arrays of MIDI keys, for analysing large amounts of
+ * Note events without going through Note instances.
+ * When the jdk.incubator.vector module is present (run with
+ * {@code --add-modules jdk.incubator.vector}) the operations use the Vector API,
+ * otherwise plain loops. Both paths give the same results.
+ * dest may be the same array as the source for in-place operations.
+ */
+public final class KeyBatch {
+    /**
+     * name of the Vector API module.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * system property disabling the Vector API when set to true.
+     */
+    public static final String SCALAR_PROPERTY = "sample.models.scalar";
+
+    /**
+     * whether the Vector API can be used.
+     */
+    private static final boolean VECTOR_AVAILABLE = !Boolean.getBoolean(SCALAR_PROPERTY)
+            && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+
+    /**
+     * the plain loop implementation.
+     */
+    public static final KeyBatch SCALAR = new KeyBatch(false);
+
+    /**
+     * the fastest implementation available.
+     */
+    private static final KeyBatch DEFAULT = VECTOR_AVAILABLE ? new KeyBatch(true) : SCALAR;
+
+    /**
+     * multiple of 12 added before folding so that negative keys fold like Math.floorMod.
+     */
+    static final int FOLD_BIAS = Utilities.NUM_NOTE_QUALITIES * 4096;
+
+    /**
+     * (key + FOLD_BIAS) * FOLD_MULTIPLIER >>> FOLD_SHIFT is (key + FOLD_BIAS) / 12
+     * for every key in [-FOLD_BIAS, FOLD_BIAS).
+     */
+    static final int FOLD_MULTIPLIER = 43691;
+    static final int FOLD_SHIFT = 19;
+
+    private final boolean vectorized;
+
+    private KeyBatch(final boolean vectorized) {
+        this.vectorized = vectorized;
+    }
+
+    /**
+     * @return the Vector API implementation if available, the plain one otherwise
+     */
+    public static KeyBatch get() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return whether this implementation uses the Vector API
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Transposes the keys by n half notes.
+     * @param src keys to transpose
+     * @param dest receives the transposed keys
+     * @param length number of keys
+     * @param n number of half notes, positive to transpose up
+     */
+    public void transpose(final int[] src, final int[] dest, final int length, final int n) {
+        checkLength(src, dest, length);
+        if (vectorized) {
+            VectorKeyBatch.transpose(src, dest, length, n);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            dest[i] = src[i] + n;
+        }
+    }
+
+    /**
+     * Folds the keys onto their pitch class, 0 being C,
+     * as {@code Math.floorMod(key, 12)} does.
+     * @param src keys to fold, between -49152 and 49151
+     * @param dest receives the pitch classes
+     * @param length number of keys
+     */
+    public void fold(final int[] src, final int[] dest, final int length) {
+        checkLength(src, dest, length);
+        if (vectorized) {
+            VectorKeyBatch.fold(src, dest, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            dest[i] = Math.floorMod(src[i], Utilities.NUM_NOTE_QUALITIES);
+        }
+    }
+
+    /**
+     * Clamps the keys to the 88 keys keyboard.
+     * @param src keys to clamp
+     * @param dest receives the clamped keys
+     * @param length number of keys
+     * @return the number of keys that were off the keyboard
+     */
+    public int clamp(final int[] src, final int[] dest, final int length) {
+        checkLength(src, dest, length);
+        if (vectorized) {
+            return VectorKeyBatch.clamp(src, dest, length);
+        }
+        int clamped = 0;
+        for (int i = 0; i < length; i++) {
+            final int key = src[i];
+            if (key < Note.LOWEST_KEY) {
+                dest[i] = Note.LOWEST_KEY;
+                clamped++;
+            } else if (key > Note.HIGHEST_KEY) {
+                dest[i] = Note.HIGHEST_KEY;
+                clamped++;
+            } else {
+                dest[i] = key;
+            }
+        }
+        return clamped;
+    }
+
+    /**
+     * Adds the number of keys of each pitch class to counts.
+     * Keys outside the MIDI range 0 - 127, such as {@link Transposable#OFF_KEYBOARD}, are skipped.
+     * @param keys keys to count
+     * @param length number of keys
+     * @param counts the 12 counters, indexed by pitch class, 0 being C
+     * @return the number of keys counted
+     */
+    public int pitchClassHistogram(final int[] keys, final int length, final int[] counts) {
+        if (length > keys.length || counts.length < Utilities.NUM_NOTE_QUALITIES) {
+            throw new IllegalArgumentException("Invalid histogram arguments: " + length + " keys, "
+                    + counts.length + " counters");
+        }
+        if (vectorized) {
+            return VectorKeyBatch.pitchClassHistogram(keys, length, counts);
+        }
+        int counted = 0;
+        for (int i = 0; i < length; i++) {
+            final int key = keys[i];
+            if (key >= 0 && key < PitchSet.SIZE) {
+                counts[key % Utilities.NUM_NOTE_QUALITIES]++;
+                counted++;
+            }
+        }
+        return counted;
+    }
+
+    private static void checkLength(final int[] src, final int[] dest, final int length) {
+        if (length > src.length || length > dest.length) {
+            throw new IllegalArgumentException("Invalid length " + length + " for arrays of length "
+                    + src.length + " and " + dest.length);
+        }
+    }
+}
@@ -1,29 +1,76 @@
 package sample.models;
 
-import lombok.NonNull;
 import sample.models.exceptions.InvalidNoteException;
 
 import static sample.models.NotesNamingMode.FLAT_MODE;
-import static sample.models.Utilities.NOTE_NAMES_FLAT;
-import static sample.models.Utilities.NOTE_NAMES_SHARP;
 
 /**
  * Class implementation of a piano key / note.
+ * A Note is backed by its MIDI key number; names are a view
+ * over that number in the current naming mode.
+ * The canonical instance of every key of the 88 keys keyboard
+ * is pre-built, so transposing a Note never allocates.
  */
 public final class Note {
     public static NotesNamingMode notesNamingMode = FLAT_MODE;
+
+    /**
+     * MIDI key number of the lowest key of an 88 keys keyboard (A0).
+     */
+    public static final int LOWEST_KEY = 21;
+
+    /**
+     * MIDI key number of the highest key of an 88 keys keyboard (C8).
+     */
+    public static final int HIGHEST_KEY = LOWEST_KEY + Utilities.NUMBER_OF_KEYS_88 - 1;
+
+    /**
+     * MIDI key number of the default Note (C1).
+     */
+    private static final int DEFAULT_KEY = 24;
+
+    /**
+     * offset from A to C within an octave, used to index {@link NoteNames}.
+     */
+    private static final int C_TO_A_OFFSET = 3;
+
+    /**
+     * full names of the 88 keys in flat mode, indexed by key - LOWEST_KEY.
+     */
+    private static final String[] FLAT_NAMES = new String[Utilities.NUMBER_OF_KEYS_88];
+
+    /**
+     * full names of the 88 keys in sharp mode, indexed by key - LOWEST_KEY.
+     */
+    private static final String[] SHARP_NAMES = new String[Utilities.NUMBER_OF_KEYS_88];
+
+    /**
+     * flyweight table of the canonical Note of every key, indexed by key - LOWEST_KEY.
+     */
+    private static final Note[] NOTES = new Note[Utilities.NUMBER_OF_KEYS_88];
+
+    static {
+        for (int i = 0; i < Utilities.NUMBER_OF_KEYS_88; i++) {
+            final int key = i + LOWEST_KEY;
+            final int quality = (key % Utilities.NUM_NOTE_QUALITIES + C_TO_A_OFFSET) % Utilities.NUM_NOTE_QUALITIES;
+            final int octave = key / Utilities.NUM_NOTE_QUALITIES - 1;
+            FLAT_NAMES[i] = NoteNames.FLAT_MODE_NAMES[quality] + octave;
+            SHARP_NAMES[i] = NoteNames.SHARP_MODE_NAMES[quality] + octave;
+            NOTES[i] = new Note(key);
+        }
+    }
+
     /**
-     * variable to store the full name of a Note, for example 'Db1'.
+     * MIDI key number of the Note, for example 61 for 'Db4'.
      */
-    @NonNull
-    private final String name;
+    private final int key;
 
     /**
      * default constructor.
      * Assigns Note name to "C1"
      */
     public Note() {
-        this.name = "C1";
+        this.key = DEFAULT_KEY;
     }
 
     /**
@@ -32,71 +79,112 @@ public final class Note {
      * @throws InvalidNoteException if the note name is not valid
      */
     public Note(final String noteName) throws InvalidNoteException {
-        if(!isValidNote(noteName)) {
+        final int noteKey = NoteParser.parse(noteName);
+        if (!isValidKey(noteKey)) {
             throw new InvalidNoteException("Invalid Note created: " + noteName);
         }
+        this.key = noteKey;
+    }
 
-        int noteIndex;
-        if (NOTE_NAMES_FLAT.contains(noteName)) {
-            noteIndex = NOTE_NAMES_FLAT.indexOf(noteName);
-        } else {
-            noteIndex = NOTE_NAMES_SHARP.indexOf(noteName);
-        }
+    private Note(final int key) {
+        this.key = key;
+    }
 
-        if(notesNamingMode == FLAT_MODE) {
-            name = NOTE_NAMES_FLAT.get(noteIndex);
-        } else {
-            name = NOTE_NAMES_SHARP.get(noteIndex);
+    /**
+     * @param key MIDI key number
+     * @return the canonical Note for the given key
+     * @throws InvalidNoteException if the key is outside the 88 keys keyboard
+     */
+    public static Note of(final int key) throws InvalidNoteException {
+        if (!isValidKey(key)) {
+            throw new InvalidNoteException("Invalid Note created: " + key);
         }
+        return NOTES[key - LOWEST_KEY];
     }
 
     /**
-     * Checks if the Note is valid.
      * @param noteName the full name of the Note
-     * @return true if the Note is valid, false otherwise
+     * @return the canonical Note with the given name
+     * @throws InvalidNoteException if the note name is not valid
+     */
+    public static Note of(final CharSequence noteName) throws InvalidNoteException {
+        final int noteKey = NoteParser.parse(noteName);
+        if (!isValidKey(noteKey)) {
+            throw new InvalidNoteException("Invalid Note created: " + noteName);
+        }
+        return NOTES[noteKey - LOWEST_KEY];
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return true if the key is on the 88 keys keyboard, false otherwise
      */
-    private boolean isValidNote(final String noteName) {
-        return NOTE_NAMES_FLAT.contains(noteName) || NOTE_NAMES_SHARP.contains(noteName);
+    public static boolean isValidKey(final int key) {
+        return key >= LOWEST_KEY && key <= HIGHEST_KEY;
+    }
+
+    /**
+     * @return the MIDI key number of the Note.
+     */
+    public int getKey() {
+        return this.key;
     }
 
     /**
      * @return the full name of the Note.
      */
     public String getName() {
-        return this.name;
+        return (notesNamingMode == FLAT_MODE ? FLAT_NAMES : SHARP_NAMES)[key - LOWEST_KEY];
     }
 
     /**
      * sharpens a Note @param n times.
      * @param n number of times to sharpen the Note
-     * @return a new Note n half notes above the current one
+     * @return the Note n half notes above the current one
      */
     public Note sharp(final int n) throws InvalidNoteException {
-        int index = notesNamingMode == FLAT_MODE ? NOTE_NAMES_FLAT.indexOf(this.name) : NOTE_NAMES_SHARP.indexOf(this.name);
-        if (index + n > Utilities.NUMBER_OF_KEYS_88 - 1) {
-            throw new InvalidNoteException("Invalid Note created: " + name);
+        if (!isValidKey(key + n)) {
+            throw new InvalidNoteException("Invalid Note created: " + getName());
         }
-        return new Note(notesNamingMode == FLAT_MODE ? NOTE_NAMES_FLAT.get(index + n) : NOTE_NAMES_SHARP.get(index + n));
+        return NOTES[key + n - LOWEST_KEY];
     }
 
     /**
      * flattens a Note @param n times.
      * @param n number of times to flatten the Note
-     * @return a new Note @param n notes below the current one
+     * @return the Note @param n notes below the current one
      */
     public Note flat(final int n) throws InvalidNoteException {
-        int index = notesNamingMode == FLAT_MODE ? NOTE_NAMES_FLAT.indexOf(this.name) : NOTE_NAMES_SHARP.indexOf(this.name);
-        if (index - n < 0) {
-            throw new InvalidNoteException("Invalid Note created: " + name);
+        if (!isValidKey(key - n)) {
+            throw new InvalidNoteException("Invalid Note created: " + getName());
         }
-        return new Note(notesNamingMode == FLAT_MODE ? NOTE_NAMES_FLAT.get(index - n) : NOTE_NAMES_SHARP.get(index - n));
+        return NOTES[key - n - LOWEST_KEY];
     }
 
     /**
      * @return the quality of a note
      */
     public String noteQuality() {
-        return this.getName().substring(0, this.getName().length() - 1);
+        final int quality = (key % Utilities.NUM_NOTE_QUALITIES + C_TO_A_OFFSET) % Utilities.NUM_NOTE_QUALITIES;
+        return notesNamingMode == FLAT_MODE ? NoteNames.FLAT_MODE_NAMES[quality] : NoteNames.SHARP_MODE_NAMES[quality];
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof Note && ((Note) o).key == key;
+    }
+
+    @Override
+    public int hashCode() {
+        return key;
+    }
+
+    /**
+     * @return the full name of the Note
+     */
+    @Override
+    public String toString() {
+        return getName();
     }
 
     /**
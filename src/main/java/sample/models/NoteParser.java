@@ -0,0 +1,102 @@
+package sample.models;
+
+/**
+ * Hand-written parser for Note names such as 'C4', 'Db1', 'F##3', 'Bbb2' or 'G-1'.
+ * Reads the letter, the accidentals and the octave straight from the characters
+ * into a MIDI key number, covering the full MIDI range 0 (C-1) - 127 (G9).
+ * Nothing is allocated while parsing and errors are signalled with {@link #INVALID}
+ * rather than an exception.
+ */
+public final class NoteParser {
+    /**
+     * returned when the characters are not a valid Note name.
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * lowest octave of the MIDI range.
+     */
+    private static final int LOWEST_OCTAVE = -1;
+
+    /**
+     * highest octave of the MIDI range.
+     */
+    private static final int HIGHEST_OCTAVE = 9;
+
+    /**
+     * offset of the letters A - G from C, in half notes.
+     */
+    private static final int[] LETTER_OFFSETS = {9, 11, 0, 2, 4, 5, 7};
+
+    private NoteParser() { }
+
+    /**
+     * @param name the full name of the Note
+     * @return the MIDI key number of the Note, {@link #INVALID} if the name is not valid
+     */
+    public static int parse(final CharSequence name) {
+        return name == null ? INVALID : parse(name, 0, name.length());
+    }
+
+    /**
+     * Accepted names are a letter A - G (either case), any number of
+     * accidentals ('#', 'x' for double sharp, 'b'), then the octave from -1 to 9.
+     * @param chars the characters to parse
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the MIDI key number of the Note, {@link #INVALID} if the name is not valid
+     */
+    public static int parse(final CharSequence chars, final int start, final int end) {
+        if (start >= end) {
+            return INVALID;
+        }
+        int i = start;
+        final char letter = chars.charAt(i++);
+        final int letterIndex = (letter | 0x20) - 'a';
+        if (letterIndex < 0 || letterIndex >= LETTER_OFFSETS.length) {
+            return INVALID;
+        }
+        int key = LETTER_OFFSETS[letterIndex];
+
+        for (; i < end; i++) {
+            final char c = chars.charAt(i);
+            if (c == '#') {
+                key++;
+            } else if (c == 'x') {
+                key += 2;
+            } else if (c == 'b') {
+                key--;
+            } else {
+                break;
+            }
+        }
+
+        if (i >= end) {
+            return INVALID;
+        }
+        final boolean negative = chars.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i >= end) {
+            return INVALID;
+        }
+        int octave = 0;
+        for (; i < end; i++) {
+            final int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || octave > HIGHEST_OCTAVE) {
+                return INVALID;
+            }
+            octave = octave * 10 + digit;
+        }
+        if (negative) {
+            octave = -octave;
+        }
+        if (octave < LOWEST_OCTAVE || octave > HIGHEST_OCTAVE) {
+            return INVALID;
+        }
+
+        key += (octave + 1) * Utilities.NUM_NOTE_QUALITIES;
+        return key < 0 || key >= PitchSet.SIZE ? INVALID : key;
+    }
+}
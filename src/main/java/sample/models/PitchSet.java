@@ -0,0 +1,300 @@
+package sample.models;
+
+/**
+ * Immutable set of MIDI key numbers (0 - 127) packed into two longs.
+ * Bit k of the 128 bits is set when key k is in the set, so membership,
+ * union, intersection and transposition are plain bit operations.
+ */
+public final class PitchSet {
+    /**
+     * number of MIDI key numbers.
+     */
+    public static final int SIZE = 128;
+
+    /**
+     * mask of the 12 pitch classes.
+     */
+    public static final int PITCH_CLASS_MASK = (1 << Utilities.NUM_NOTE_QUALITIES) - 1;
+
+    /**
+     * the empty PitchSet.
+     */
+    public static final PitchSet EMPTY = new PitchSet(0L, 0L);
+
+    /**
+     * keys 0 - 63.
+     */
+    private final long low;
+
+    /**
+     * keys 64 - 127.
+     */
+    private final long high;
+
+    private PitchSet(final long low, final long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * @param low bits of keys 0 - 63
+     * @param high bits of keys 64 - 127
+     * @return the PitchSet made of the given bits
+     */
+    public static PitchSet fromBits(final long low, final long high) {
+        return (low | high) == 0L ? EMPTY : new PitchSet(low, high);
+    }
+
+    /**
+     * @param keys MIDI key numbers, each in 0 - 127
+     * @return the PitchSet containing the given keys
+     */
+    public static PitchSet of(final int... keys) {
+        long low = 0L;
+        long high = 0L;
+        for (int key : keys) {
+            checkKey(key);
+            if (key < Long.SIZE) {
+                low |= 1L << key;
+            } else {
+                high |= 1L << key;
+            }
+        }
+        return fromBits(low, high);
+    }
+
+    /**
+     * @param notes the Notes to collect
+     * @return the PitchSet containing the keys of the given Notes
+     */
+    public static PitchSet of(final Note[] notes) {
+        long low = 0L;
+        long high = 0L;
+        for (Note note : notes) {
+            final int key = note.getKey();
+            if (key < Long.SIZE) {
+                low |= 1L << key;
+            } else {
+                high |= 1L << key;
+            }
+        }
+        return fromBits(low, high);
+    }
+
+    /**
+     * @param pitchClassMask 12 bit mask of pitch classes, bit 0 being C
+     * @param octaveStartKey key number of the C the mask is laid out from
+     * @return the PitchSet containing the pitch classes in the octave starting at the given key
+     */
+    public static PitchSet ofPitchClasses(final int pitchClassMask, final int octaveStartKey) {
+        return fromBits(pitchClassMask & PITCH_CLASS_MASK, 0L).transpose(octaveStartKey);
+    }
+
+    /**
+     * @param pitchClassMask 12 bit mask of pitch classes, bit 0 being C
+     * @param n number of half notes to transpose up by
+     * @return the mask with every pitch class transposed, wrapping around the octave
+     */
+    public static int rotatePitchClasses(final int pitchClassMask, final int n) {
+        final int shift = Math.floorMod(n, Utilities.NUM_NOTE_QUALITIES);
+        return (pitchClassMask << shift | pitchClassMask >>> (Utilities.NUM_NOTE_QUALITIES - shift)) & PITCH_CLASS_MASK;
+    }
+
+    private static void checkKey(final int key) {
+        if (key < 0 || key >= SIZE) {
+            throw new IllegalArgumentException("MIDI key number out of range: " + key);
+        }
+    }
+
+    /**
+     * @return bits of keys 0 - 63
+     */
+    public long low() {
+        return low;
+    }
+
+    /**
+     * @return bits of keys 64 - 127
+     */
+    public long high() {
+        return high;
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return true if the key is in the set, false otherwise
+     */
+    public boolean contains(final int key) {
+        if (key < 0 || key >= SIZE) {
+            return false;
+        }
+        return ((key < Long.SIZE ? low : high) & (1L << key)) != 0L;
+    }
+
+    /**
+     * @param other another PitchSet
+     * @return true if every key of the other set is in this one
+     */
+    public boolean containsAll(final PitchSet other) {
+        return (other.low & ~low) == 0L && (other.high & ~high) == 0L;
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return a PitchSet with the given key added
+     */
+    public PitchSet with(final int key) {
+        checkKey(key);
+        return key < Long.SIZE ? fromBits(low | 1L << key, high) : fromBits(low, high | 1L << key);
+    }
+
+    /**
+     * @param key MIDI key number
+     * @return a PitchSet with the given key removed
+     */
+    public PitchSet without(final int key) {
+        checkKey(key);
+        return key < Long.SIZE ? fromBits(low & ~(1L << key), high) : fromBits(low, high & ~(1L << key));
+    }
+
+    /**
+     * @param other another PitchSet
+     * @return the keys in either set
+     */
+    public PitchSet union(final PitchSet other) {
+        return fromBits(low | other.low, high | other.high);
+    }
+
+    /**
+     * @param other another PitchSet
+     * @return the keys in both sets
+     */
+    public PitchSet intersection(final PitchSet other) {
+        return fromBits(low & other.low, high & other.high);
+    }
+
+    /**
+     * @param other another PitchSet
+     * @return the keys of this set that are not in the other one
+     */
+    public PitchSet difference(final PitchSet other) {
+        return fromBits(low & ~other.low, high & ~other.high);
+    }
+
+    /**
+     * Shifts every key by the given number of half notes.
+     * Keys shifted outside 0 - 127 are dropped.
+     * @param n number of half notes, positive to transpose up
+     * @return the transposed PitchSet
+     */
+    public PitchSet transpose(final int n) {
+        if (n == 0) {
+            return this;
+        }
+        if (n >= SIZE || n <= -SIZE) {
+            return EMPTY;
+        }
+        if (n >= Long.SIZE) {
+            return fromBits(0L, low << (n - Long.SIZE));
+        }
+        if (n > 0) {
+            return fromBits(low << n, high << n | low >>> (Long.SIZE - n));
+        }
+        final int m = -n;
+        if (m >= Long.SIZE) {
+            return fromBits(high >>> (m - Long.SIZE), 0L);
+        }
+        return fromBits(low >>> m | high << (Long.SIZE - m), high >>> m);
+    }
+
+    /**
+     * Folds every key onto its pitch class.
+     * @return a 12 bit mask of the pitch classes in the set, bit 0 being C
+     */
+    public int pitchClasses() {
+        int mask = 0;
+        for (int offset = 0; offset < SIZE; offset += Utilities.NUM_NOTE_QUALITIES) {
+            mask |= (int) bitsAt(offset) & PITCH_CLASS_MASK;
+        }
+        return mask;
+    }
+
+    private long bitsAt(final int offset) {
+        if (offset >= Long.SIZE) {
+            return high >>> (offset - Long.SIZE);
+        }
+        return offset == 0 ? low : low >>> offset | high << (Long.SIZE - offset);
+    }
+
+    /**
+     * @return the number of keys in the set
+     */
+    public int size() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    /**
+     * @return true if the set has no keys
+     */
+    public boolean isEmpty() {
+        return (low | high) == 0L;
+    }
+
+    /**
+     * @return the lowest key in the set, -1 if the set is empty
+     */
+    public int lowest() {
+        if (low != 0L) {
+            return Long.numberOfTrailingZeros(low);
+        }
+        return high != 0L ? Long.SIZE + Long.numberOfTrailingZeros(high) : -1;
+    }
+
+    /**
+     * @return the highest key in the set, -1 if the set is empty
+     */
+    public int highest() {
+        if (high != 0L) {
+            return SIZE - 1 - Long.numberOfLeadingZeros(high);
+        }
+        return low != 0L ? Long.SIZE - 1 - Long.numberOfLeadingZeros(low) : -1;
+    }
+
+    /**
+     * @return the keys of the set in ascending order
+     */
+    public int[] keys() {
+        int[] keys = new int[size()];
+        int i = 0;
+        for (long bits = low; bits != 0L; bits &= bits - 1) {
+            keys[i++] = Long.numberOfTrailingZeros(bits);
+        }
+        for (long bits = high; bits != 0L; bits &= bits - 1) {
+            keys[i++] = Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof PitchSet && ((PitchSet) o).low == low && ((PitchSet) o).high == high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low) * 31 + Long.hashCode(high);
+    }
+
+    /**
+     * @return a String representation of the PitchSet
+     */
+    @Override
+    public String toString() {
+        StringBuilder rep = new StringBuilder("[ ");
+        for (int key : keys()) {
+            rep.append(key).append(" ");
+        }
+        rep.append("]");
+        return rep.toString();
+    }
+}
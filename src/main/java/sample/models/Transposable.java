@@ -2,29 +2,40 @@ package sample.models;
 
 import sample.models.exceptions.InvalidNoteException;
 
-import java.util.Arrays;
-
 /**
  * Class representing any musical construct
  * that can be transposed.
  */
 public abstract class Transposable {
+    /**
+     * written in place of a key that falls off the 88 keys keyboard.
+     */
+    public static final int OFF_KEYBOARD = -1;
+
     /**
      * @return the Array of Notes making the Transposable.
      */
     public abstract Note[] notes();
 
+    /**
+     * @return the keys of the Notes making the Transposable as a PitchSet.
+     */
+    public PitchSet pitchSet() {
+        return PitchSet.of(notes());
+    }
+
     /**
      * Transposes all Notes of the Transposable object up
      * by the specified amount.
      * @param n number of times to transpose
      * @return the transposed Notes
-     * @throws InvalidNoteException when an invalid Note is encounteredTran
+     * @throws InvalidNoteException when a transposed Note is off the keyboard
      */
     public Note[] transposeUp(final int n) throws InvalidNoteException {
-        Note[] newNotes = Arrays.copyOf(notes(), notes().length);
-        for (Note note: newNotes) {
-            note = note.sharp(n);
+        Note[] notes = notes();
+        Note[] newNotes = new Note[notes.length];
+        for (int i = 0; i < notes.length; i++) {
+            newNotes[i] = notes[i].sharp(n);
         }
         return newNotes;
     }
@@ -34,14 +45,73 @@ public abstract class Transposable {
      * by the specified amount.
      * @param n number of times to transpose
      * @return the transposed Notes
-     * @throws InvalidNoteException when an invalid Note is encountered
+     * @throws InvalidNoteException when a transposed Note is off the keyboard
      */
     public Note[] transposeDown(final int n) throws InvalidNoteException {
-        Note[] newNotes = Arrays.copyOf(notes(), notes().length);
-        for (Note note: newNotes) {
-            note = note.flat(n);
+        return transposeUp(-n);
+    }
+
+    /**
+     * Writes the keys of the Notes transposed by the specified amount
+     * into the given buffer, without allocating or throwing.
+     * Keys falling off the keyboard are written as {@link #OFF_KEYBOARD}.
+     * @param n number of half notes, positive to transpose up
+     * @param dest buffer receiving the keys, at least {@code notes().length} long
+     * @return the number of keys that fell off the keyboard, 0 if all are valid
+     */
+    public int transpose(final int n, final int[] dest) {
+        Note[] notes = notes();
+        int offKeyboard = 0;
+        for (int i = 0; i < notes.length; i++) {
+            final int key = notes[i].getKey() + n;
+            if (Note.isValidKey(key)) {
+                dest[i] = key;
+            } else {
+                dest[i] = OFF_KEYBOARD;
+                offKeyboard++;
+            }
         }
-        return newNotes;
+        return offKeyboard;
+    }
+
+    /**
+     * Writes the keys of notes[offset .. offset + count) rotated to start at from,
+     * the Notes wrapping around being raised an octave.
+     * Keys falling off the keyboard are written as {@link #OFF_KEYBOARD}.
+     * @param notes the Notes to rotate
+     * @param offset index of the first Note to rotate
+     * @param count number of Notes to rotate
+     * @param from index, relative to offset, of the first Note written
+     * @param dest buffer receiving the count keys
+     * @return the number of keys that fell off the keyboard, 0 if all are valid
+     */
+    protected static int rotateKeys(final Note[] notes, final int offset, final int count,
+                                    final int from, final int[] dest) {
+        int offKeyboard = 0;
+        for (int i = 0; i < count; i++) {
+            final int index = from + i;
+            final int key = index < count
+                    ? notes[offset + index].getKey()
+                    : notes[offset + index - count].getKey() + Utilities.NUM_NOTE_QUALITIES;
+            if (Note.isValidKey(key)) {
+                dest[i] = key;
+            } else {
+                dest[i] = OFF_KEYBOARD;
+                offKeyboard++;
+            }
+        }
+        return offKeyboard;
+    }
+
+    /**
+     * Transposes the keys of the Transposable into a PitchSet.
+     * Unlike {@link #transpose(int, int[])} this covers the whole MIDI range;
+     * keys shifted outside 0 - 127 are dropped.
+     * @param n number of half notes, positive to transpose up
+     * @return the transposed keys
+     */
+    public PitchSet transposePitchSet(final int n) {
+        return pitchSet().transpose(n);
     }
 
     /**
@@ -1,13 +1,11 @@
 package sample.models;
 
 import sample.AudioPlayer;
-import sample.models.exceptions.InvalidNoteException;
+import sample.audio.SampleBank;
+import sample.audio.SampleBankFile;
+import sample.audio.SampleInstaller;
 
-import java.io.BufferedInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.File;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -16,58 +14,46 @@ import java.util.List;
 import javafx.scene.control.Button;
 
 public final class Utilities {
-    private static final String SOUNDS_FOLDER_PATH = new File("").getAbsolutePath() + "/src/downloads/sounds";
-    private static final String S3_PIANO_SOUNDS_URL = "https://midip-sounds.s3.amazonaws.com/piano/piano.zip";
-
-    // author https://www.digitalocean.com/community/tutorials/java-download-file-url
+    /**
+     * Downloads the piano samples and installs them as a sample bank file,
+     * unless it already exists.
+     * @return true if the sample bank file is installed
+     */
     public static boolean downloadPianoSampleSounds() {
-
-        if (new File(SOUNDS_FOLDER_PATH + "/piano.zip").exists()) {
-            System.out.println("Sound File Zip has already been downloaded!");
-            return true;
-        }
-
         try {
-            new File(SOUNDS_FOLDER_PATH).mkdirs();
-            URL url = new URL(S3_PIANO_SOUNDS_URL);
-            System.out.println("Downloading Piano Sample Zip File from S3!");
-            BufferedInputStream bis = new BufferedInputStream(url.openStream());
-            FileOutputStream fis = new FileOutputStream(SOUNDS_FOLDER_PATH + "/piano.zip");
-            byte[] buffer = new byte[1024];
-            int count = 0;
-            while ((count = bis.read(buffer, 0, 1024)) != -1) {
-                fis.write(buffer, 0, count);
-            }
-            fis.close();
-            bis.close();
+            SampleInstaller.piano().install(SampleBankFile.DEFAULT_BANK_FILE);
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
-
-        System.out.println("Successfully downloaded Sample Zip file.");
-        return decompress(SOUNDS_FOLDER_PATH + "/piano.zip", SOUNDS_FOLDER_PATH);
     }
 
-    public static boolean decompress(String compressedFilePath, String decompressedFilePath) {
-        try {
-            new File(decompressedFilePath).mkdirs();
-            ProcessBuilder pb = new ProcessBuilder("unzip", compressedFilePath, "-d", decompressedFilePath);
-            System.out.println("Starting Decompression!");
-            Process p = pb.start();
-            p.waitFor();
-            System.out.println("Decompression Complete!");
-            return true;
-        } catch (IOException | InterruptedException e) {
-            e.printStackTrace();
-            return false;
+    /**
+     * @param notes the Notes to play
+     * @return one AudioPlayer per Note, each with its own thread and line
+     * @deprecated use a single {@link sample.audio.MixerEngine} instead
+     */
+    @Deprecated
+    public static AudioPlayer[] createAudioPlayers(final Note[] notes) {
+        AudioPlayer[] audioPlayers = new AudioPlayer[notes.length];
+        for (int i = 0; i < notes.length; i++) {
+            audioPlayers[i] = new AudioPlayer(notes[i]);
         }
+        return audioPlayers;
     }
 
-    public static AudioPlayer[] createAudioPlayers(final Note[] notes) {
+    /**
+     * @param notes the Notes to play
+     * @param sampleBank bank the samples are played from
+     * @return one AudioPlayer per Note, playing from memory
+     * @deprecated use a single {@link sample.audio.MixerEngine} instead
+     */
+    @Deprecated
+    public static AudioPlayer[] createAudioPlayers(final Note[] notes, final SampleBank sampleBank) {
         AudioPlayer[] audioPlayers = new AudioPlayer[notes.length];
         for (int i = 0; i < notes.length; i++) {
-            audioPlayers[i] = new AudioPlayer(notes[i]);
+            audioPlayers[i] = new AudioPlayer(notes[i], sampleBank);
         }
         return audioPlayers;
     }
@@ -90,34 +76,14 @@ public final class Utilities {
     /**
      * Comparator for Notes.
      */
-    public static final Comparator<Note> NOTE_COMPARATOR = new Comparator<>() {
-        @Override
-        public int compare(final Note note1, final Note note2) {
-            int note1Num = note1.getName().charAt(note1.getName().length() - 1);
-            int note2Num = note2.getName().charAt(note2.getName().length() - 1);
-            if (note1Num != note2Num) {
-                return note1Num - note2Num;
-            }
-            return NOTE_QUALITIES_FLAT.indexOf(note1.noteQuality())
-                    - NOTE_QUALITIES_FLAT.indexOf(note2.noteQuality());
-        }
-    };
+    public static final Comparator<Note> NOTE_COMPARATOR = Comparator.comparingInt(Note::getKey);
 
     /**
      * Comparator for Button representations
      * of Notes.
      */
-    public static final Comparator<Button> KEY_NOTE_COMPARATOR = (o1, o2) -> {
-        Note note1 = null;
-        Note note2 = null;
-        try {
-            note1 = new Note(o1.getTooltip().getText());
-            note2 = new Note(o2.getTooltip().getText());
-        } catch (InvalidNoteException e) {
-            e.printStackTrace();
-        }
-        return NOTE_COMPARATOR.compare(note1, note2);
-    };
+    public static final Comparator<Button> KEY_NOTE_COMPARATOR = (o1, o2) ->
+            Integer.compare(NoteParser.parse(o1.getTooltip().getText()), NoteParser.parse(o2.getTooltip().getText()));
 
     /**
      * list containing all possible Note qualities in flat mode.
@@ -155,42 +121,6 @@ public final class Utilities {
                     "G",
                     "G#"));
 
-    /**
-     * List containing the notes interval relative to the root for Major scales.
-     */
-    public static final ArrayList<Integer> MAJOR_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 2, 4, 5, 7, 9, 11, 12));
-
-    /**
-     * List containing the notes interval relative to the root for Minor scales.
-     */
-    public static final ArrayList<Integer> MINOR_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 2, 3, 5, 7, 8, 10, 12));
-
-    /**
-     * List containing the notes interval relative to the root for Mojor Pentatonic scales.
-     */
-    public static final ArrayList<Integer> MAJOR_PENTATONIC_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 2, 4, 7, 9, 12));
-
-    /**
-     * List containing the notes interval relative to the root for Minor Pentatonic scales.
-     */
-    public static final ArrayList<Integer> MINOR_PENTATONIC_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 3, 5, 7, 10, 12));
-
-    /**
-     * List containing the notes intervals relative to the root for the Whole Tone scale.
-     */
-    public static final ArrayList<Integer> WHOLE_TONE_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 2, 4, 6, 8, 10, 12));
-
-    /**
-     * List containing the notes intervals relative to the root for the Chinese scale.
-     */
-    public static final ArrayList<Integer> CHINESE_SCALE_DEGREE_INTERVALS =
-            new ArrayList<>(List.of(0, 4, 6, 7, 11, 12));
-
     /**
      * list containing all possible Note names in flat mode
      * in order.
@@ -0,0 +1,93 @@
+package sample.models;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link KeyBatch}.
+ * Only loaded when the jdk.incubator.vector module is present.
+ */
+final class VectorKeyBatch {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorKeyBatch() { }
+
+    static void transpose(final int[] src, final int[] dest, final int length, final int n) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, src, i).add(n).intoArray(dest, i);
+        }
+        for (; i < length; i++) {
+            dest[i] = src[i] + n;
+        }
+    }
+
+    static void fold(final int[] src, final int[] dest, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            fold(IntVector.fromArray(SPECIES, src, i)).intoArray(dest, i);
+        }
+        for (; i < length; i++) {
+            dest[i] = Math.floorMod(src[i], Utilities.NUM_NOTE_QUALITIES);
+        }
+    }
+
+    /**
+     * Integer division is not intrinsified, so x / 12 is computed as a multiply and shift.
+     */
+    private static IntVector fold(final IntVector keys) {
+        final IntVector biased = keys.add(KeyBatch.FOLD_BIAS);
+        final IntVector octaves = biased.mul(KeyBatch.FOLD_MULTIPLIER)
+                .lanewise(VectorOperators.LSHR, KeyBatch.FOLD_SHIFT);
+        return biased.sub(octaves.mul(Utilities.NUM_NOTE_QUALITIES));
+    }
+
+    static int clamp(final int[] src, final int[] dest, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int clamped = 0;
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            final IntVector keys = IntVector.fromArray(SPECIES, src, i);
+            clamped += keys.compare(VectorOperators.LT, Note.LOWEST_KEY)
+                    .or(keys.compare(VectorOperators.GT, Note.HIGHEST_KEY))
+                    .trueCount();
+            keys.max(Note.LOWEST_KEY).min(Note.HIGHEST_KEY).intoArray(dest, i);
+        }
+        for (; i < length; i++) {
+            final int key = src[i];
+            if (key < Note.LOWEST_KEY || key > Note.HIGHEST_KEY) {
+                clamped++;
+            }
+            dest[i] = Math.min(Math.max(key, Note.LOWEST_KEY), Note.HIGHEST_KEY);
+        }
+        return clamped;
+    }
+
+    static int pitchClassHistogram(final int[] keys, final int length, final int[] counts) {
+        final int bound = SPECIES.loopBound(length);
+        int counted = 0;
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            final IntVector vector = IntVector.fromArray(SPECIES, keys, i);
+            final VectorMask<Integer> valid = vector.compare(VectorOperators.GE, 0)
+                    .and(vector.compare(VectorOperators.LT, PitchSet.SIZE));
+            final IntVector pitchClasses = fold(vector);
+            for (int pitchClass = 0; pitchClass < Utilities.NUM_NOTE_QUALITIES; pitchClass++) {
+                counts[pitchClass] += pitchClasses.compare(VectorOperators.EQ, pitchClass).and(valid).trueCount();
+            }
+            counted += valid.trueCount();
+        }
+        for (; i < length; i++) {
+            final int key = keys[i];
+            if (key >= 0 && key < PitchSet.SIZE) {
+                counts[key % Utilities.NUM_NOTE_QUALITIES]++;
+                counted++;
+            }
+        }
+        return counted;
+    }
+}
@@ -3,30 +3,10 @@ package sample.models.chords;
 import lombok.NonNull;
 import sample.models.Invertable;
 import sample.models.Note;
+import sample.models.PitchSet;
 import sample.models.Transposable;
-import sample.models.chords.generators.Major6th;
-import sample.models.chords.generators.Minor6th;
-import sample.models.chords.generators.Suspended4th;
-import sample.models.chords.generators.Suspended2nd;
-import sample.models.chords.generators.dominants.Dominant11th;
-import sample.models.chords.generators.dominants.Dominant13th;
-import sample.models.chords.generators.dominants.Dominant7th;
-import sample.models.chords.generators.dominants.Dominant9th;
-import sample.models.chords.generators.elevenths.Major11th;
-import sample.models.chords.generators.elevenths.Minor11th;
-import sample.models.chords.generators.ninths.Major9th;
-import sample.models.chords.generators.ninths.Minor9th;
-import sample.models.chords.generators.sevenths.Major7th;
-import sample.models.chords.generators.sevenths.Minor7th;
-import sample.models.chords.generators.thirteenths.Major13th;
-import sample.models.chords.generators.thirteenths.Minor13th;
-import sample.models.chords.generators.triads.MajorTriad;
-import sample.models.chords.generators.triads.MinorTriad;
 import sample.models.exceptions.InvalidNoteException;
 
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * Class representation of a Chord.
  * A chord is essentially a combination of notes
@@ -44,6 +24,12 @@ public class Chord extends Transposable implements Invertable {
     @NonNull
     private final Note[] chordNotes;
 
+    /**
+     * keys of the Notes making the Chord.
+     */
+    @NonNull
+    private final PitchSet chordPitches;
+
     /**
      * Constructs a Chord of the provided type,
      * rooted at the given Note.
@@ -51,9 +37,10 @@ public class Chord extends Transposable implements Invertable {
      * @param root root Note of the Chord
      */
     public Chord(final ChordType chordType, final Note root)
-            throws Exception {
+            throws InvalidNoteException {
         this.type = chordType;
         this.chordNotes = generateNotes(root);
+        this.chordPitches = PitchSet.of(chordNotes);
     }
 
     /**
@@ -65,51 +52,26 @@ public class Chord extends Transposable implements Invertable {
     }
 
     /**
-     * Generates the Notes of the Chord.
+     * @return the keys of the Notes in the Chord
+     */
+    @Override
+    public PitchSet pitchSet() {
+        return chordPitches;
+    }
+
+    /**
+     * Generates the Notes of the Chord from the intervals of its type.
      * @param root root Note
      * @return the Chord Notes in array form
-     * @throws Exception when ChordType provided in not valid
+     * @throws InvalidNoteException when a Chord Note is off the keyboard
      */
     @Override
-    public Note[] generateNotes(final Note root) throws Exception {
-        if (this.type == ChordType.MAJOR_TRIAD) {
-            return MajorTriad.generateScale(root);
-        } else if (this.type == ChordType.MINOR_TRIAD) {
-            return MinorTriad.generateScale(root);
-        } else if (this.type == ChordType.MAJOR_7TH) {
-            return Major7th.generateScale(root);
-        } else if (this.type == ChordType.MINOR_7TH) {
-            return Minor7th.generateScale(root);
-        } else if (this.type == ChordType.MAJOR_9TH) {
-            return Major9th.generateScale(root);
-        } else if (this.type == ChordType.MINOR_9TH) {
-            return Minor9th.generateScale(root);
-        } else if (this.type == ChordType.DOMINANT_7TH) {
-            return Dominant7th.generateScale(root);
-        } else if (this.type == ChordType.DOMINANT_9TH) {
-            return Dominant9th.generateScale(root);
-        } else if (this.type == ChordType.MAJOR_6TH) {
-            return Major6th.generateScale(root);
-        } else if (this.type == ChordType.MINOR_6TH) {
-            return Minor6th.generateScale(root);
-        } else if (this.type == ChordType.SUSPENDED_2ND) {
-            return Suspended2nd.generateScale(root);
-        } else if (this.type == ChordType.SUSPENDED_4TH) {
-            return Suspended4th.generateScale(root);
-        } else if (this.type == ChordType.MAJOR_11TH) {
-            return Major11th.generateScale(root);
-        } else if (this.type == ChordType.MINOR_11TH) {
-            return Minor11th.generateScale(root);
-        } else if (this.type == ChordType.MAJOR_13TH) {
-            return Major13th.generateScale(root);
-        } else if (this.type == ChordType.MINOR_13TH) {
-            return Minor13th.generateScale(root);
-        } else if (this.type == ChordType.DOMINANT_11TH) {
-            return Dominant11th.generateScale(root);
-        } else if (this.type == ChordType.DOMINANT_13TH) {
-            return Dominant13th.generateScale(root);
+    public Note[] generateNotes(final Note root) throws InvalidNoteException {
+        Note[] notes = new Note[type.size()];
+        for (int i = 0; i < notes.length; i++) {
+            notes[i] = root.sharp(type.interval(i));
         }
-        throw new Exception("Could not find ChordType specified!!!");
+        return notes;
     }
 
     /**
@@ -127,27 +89,30 @@ public class Chord extends Transposable implements Invertable {
     }
 
     /**
-     *
+     * Looks the inversion up in the {@link ChordAtlas}.
      * @param index the index of the chord note to start chord from.
      * @return the chord Notes starting from the index specified
+     * @throws InvalidNoteException if an inverted Note is off the keyboard
      */
     @Override
-    public Note[] invert(int index) {
+    public Note[] invert(final int index) throws InvalidNoteException {
         if (index >= chordNotes.length) {
             return chordNotes;
         }
-        Note[] firstNotes = Arrays.copyOfRange(chordNotes, index, chordNotes.length);
-        List<Note> lastNotes = Arrays.stream(Arrays.copyOfRange(chordNotes, 0, index)).toList();
-        List<Note> sharpLastNotes = lastNotes.stream().map(note -> {
-            try {
-                return note.sharp(12);
-            } catch (InvalidNoteException e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
-        Note[] invertedNotes = new Note[chordNotes.length];
-        System.arraycopy(firstNotes, 0, invertedNotes, 0, firstNotes.length);
-        System.arraycopy(sharpLastNotes.toArray(), 0, invertedNotes, firstNotes.length, lastNotes.size());
-        return invertedNotes;
+        return ChordAtlas.get().notes(type, chordNotes[0].getKey(), index);
+    }
+
+    /**
+     * Writes the keys of the inversion into dest, without allocating.
+     * @param index the index of the chord note to start chord from.
+     * @param dest buffer receiving the keys, at least as long as the Chord
+     * @return the number of keys that fell off the keyboard, 0 if all are valid
+     */
+    @Override
+    public int invert(final int index, final int[] dest) {
+        if (index <= 0 || index >= chordNotes.length) {
+            return transpose(0, dest);
+        }
+        return rotateKeys(chordNotes, 0, chordNotes.length, index, dest);
     }
 }
@@ -0,0 +1,237 @@
+package sample.models.chords;
+
+import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.Utilities;
+import sample.models.exceptions.InvalidNoteException;
+
+/**
+ * Precomputed table of every ChordType, rooted at every key of the
+ * 88 keys keyboard, in every inversion.
+ * Each entry is stored as packed key numbers (one byte per Note) and as
+ * the two longs of its PitchSet, so looking up a Chord is an index computation.
+ * The atlas is built on first use; the JVM class initialization makes that thread safe.
+ * Entries with a Note off the keyboard are marked unavailable.
+ */
+public final class ChordAtlas {
+    /**
+     * number of ChordTypes.
+     */
+    private static final int NUM_TYPES = ChordType.values().length;
+
+    /**
+     * index of the first entry of each ChordType.
+     */
+    private final int[] entryBase = new int[NUM_TYPES];
+
+    /**
+     * index in {@link #keys} of the first key of each ChordType.
+     */
+    private final int[] keyBase = new int[NUM_TYPES];
+
+    /**
+     * key numbers of the Notes of every entry, in inversion order.
+     */
+    private final byte[] keys;
+
+    /**
+     * PitchSet bits of keys 0 - 63 of every entry, 0 for both halves if the entry is unavailable.
+     */
+    private final long[] lows;
+
+    /**
+     * PitchSet bits of keys 64 - 127 of every entry.
+     */
+    private final long[] highs;
+
+    /**
+     * number of available entries.
+     */
+    private final int availableEntries;
+
+    /**
+     * time taken to build the atlas, in nanoseconds.
+     */
+    private final long buildTimeNanos;
+
+    private static final class Holder {
+        private static final ChordAtlas INSTANCE = new ChordAtlas();
+    }
+
+    /**
+     * @return the shared ChordAtlas, built on first call
+     */
+    public static ChordAtlas get() {
+        return Holder.INSTANCE;
+    }
+
+    private ChordAtlas() {
+        final long start = System.nanoTime();
+        int entries = 0;
+        int keyCount = 0;
+        for (ChordType type : ChordType.values()) {
+            entryBase[type.ordinal()] = entries;
+            keyBase[type.ordinal()] = keyCount;
+            entries += Utilities.NUMBER_OF_KEYS_88 * type.size();
+            keyCount += Utilities.NUMBER_OF_KEYS_88 * type.size() * type.size();
+        }
+        keys = new byte[keyCount];
+        lows = new long[entries];
+        highs = new long[entries];
+
+        int available = 0;
+        for (ChordType type : ChordType.values()) {
+            final int size = type.size();
+            for (int root = 0; root < Utilities.NUMBER_OF_KEYS_88; root++) {
+                final int rootKey = root + Note.LOWEST_KEY;
+                for (int inversion = 0; inversion < size; inversion++) {
+                    final int entry = entryBase[type.ordinal()] + root * size + inversion;
+                    final int keyOffset = keyBase[type.ordinal()] + (root * size + inversion) * size;
+                    long low = 0L;
+                    long high = 0L;
+                    boolean onKeyboard = true;
+                    for (int i = 0; i < size; i++) {
+                        final int noteIndex = (inversion + i) % size;
+                        final int octave = inversion + i >= size ? Utilities.NUM_NOTE_QUALITIES : 0;
+                        final int key = rootKey + type.interval(noteIndex) + octave;
+                        onKeyboard &= Note.isValidKey(key);
+                        keys[keyOffset + i] = (byte) key;
+                        if (key < Long.SIZE) {
+                            low |= 1L << key;
+                        } else {
+                            high |= 1L << key;
+                        }
+                    }
+                    if (onKeyboard) {
+                        lows[entry] = low;
+                        highs[entry] = high;
+                        available++;
+                    }
+                }
+            }
+        }
+        availableEntries = available;
+        buildTimeNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @param type type of the Chord
+     * @param rootKey MIDI key number of the root
+     * @param inversion inversion of the Chord, 0 being root position
+     * @return the index of the entry, -1 if the root or the inversion is out of range
+     */
+    private int entry(final ChordType type, final int rootKey, final int inversion) {
+        if (!Note.isValidKey(rootKey) || inversion < 0 || inversion >= type.size()) {
+            return -1;
+        }
+        return entryBase[type.ordinal()] + (rootKey - Note.LOWEST_KEY) * type.size() + inversion;
+    }
+
+    /**
+     * @param type type of the Chord
+     * @param rootKey MIDI key number of the root
+     * @param inversion inversion of the Chord, 0 being root position
+     * @return true if every Note of the Chord is on the keyboard
+     */
+    public boolean isAvailable(final ChordType type, final int rootKey, final int inversion) {
+        final int entry = entry(type, rootKey, inversion);
+        return entry >= 0 && (lows[entry] | highs[entry]) != 0L;
+    }
+
+    /**
+     * @param type type of the Chord
+     * @param rootKey MIDI key number of the root
+     * @param inversion inversion of the Chord, 0 being root position
+     * @return the keys of the Chord, {@link PitchSet#EMPTY} if the Chord is not available
+     */
+    public PitchSet pitchSet(final ChordType type, final int rootKey, final int inversion) {
+        final int entry = entry(type, rootKey, inversion);
+        return entry < 0 ? PitchSet.EMPTY : PitchSet.fromBits(lows[entry], highs[entry]);
+    }
+
+    /**
+     * Copies the key numbers of the Chord, lowest Note of the inversion first.
+     * @param type type of the Chord
+     * @param rootKey MIDI key number of the root
+     * @param inversion inversion of the Chord, 0 being root position
+     * @param dest array receiving the keys, at least {@link ChordType#size()} long
+     * @return the number of keys copied, -1 if the Chord is not available
+     */
+    public int keys(final ChordType type, final int rootKey, final int inversion, final int[] dest) {
+        if (!isAvailable(type, rootKey, inversion)) {
+            return -1;
+        }
+        final int size = type.size();
+        final int keyOffset = keyBase[type.ordinal()] + ((rootKey - Note.LOWEST_KEY) * size + inversion) * size;
+        for (int i = 0; i < size; i++) {
+            dest[i] = keys[keyOffset + i];
+        }
+        return size;
+    }
+
+    /**
+     * @param type type of the Chord
+     * @param rootKey MIDI key number of the root
+     * @param inversion inversion of the Chord, 0 being root position
+     * @return the Notes of the Chord, lowest Note of the inversion first
+     * @throws InvalidNoteException if a Note of the Chord is off the keyboard
+     */
+    public Note[] notes(final ChordType type, final int rootKey, final int inversion) throws InvalidNoteException {
+        if (!isAvailable(type, rootKey, inversion)) {
+            throw new InvalidNoteException("Chord off the keyboard: " + type + " " + rootKey + " inversion " + inversion);
+        }
+        final int size = type.size();
+        final int keyOffset = keyBase[type.ordinal()] + ((rootKey - Note.LOWEST_KEY) * size + inversion) * size;
+        Note[] notes = new Note[size];
+        for (int i = 0; i < size; i++) {
+            notes[i] = Note.of(keys[keyOffset + i]);
+        }
+        return notes;
+    }
+
+    /**
+     * @return the number of entries, available or not
+     */
+    public int entries() {
+        return lows.length;
+    }
+
+    /**
+     * @return the number of entries with every Note on the keyboard
+     */
+    public int availableEntries() {
+        return availableEntries;
+    }
+
+    /**
+     * @return the approximate heap size of the atlas tables, in bytes
+     */
+    public long memoryFootprint() {
+        final long arrayHeader = 16;
+        return arrayHeader * 5
+                + keys.length
+                + (long) Long.BYTES * (lows.length + highs.length)
+                + (long) Integer.BYTES * (entryBase.length + keyBase.length);
+    }
+
+    /**
+     * @return the time taken to build the atlas, in nanoseconds
+     */
+    public long buildTimeNanos() {
+        return buildTimeNanos;
+    }
+
+    /**
+     * @return a report of the atlas size and build time
+     */
+    public String memoryReport() {
+        StringBuilder rep = new StringBuilder();
+        rep.append("ChordAtlas: ").append(entries()).append(" entries (")
+                .append(availableEntries()).append(" on the keyboard)")
+                .append("\nPacked keys: ").append(keys.length).append(" bytes")
+                .append("\nPitch sets: ").append((long) Long.BYTES * (lows.length + highs.length)).append(" bytes")
+                .append("\nTotal: ").append(memoryFootprint() / 1024).append(" KB")
+                .append("\nBuilt in: ").append(buildTimeNanos / 1_000_000.0).append(" ms");
+        return rep.toString();
+    }
+}
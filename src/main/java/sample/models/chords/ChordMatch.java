@@ -0,0 +1,110 @@
+package sample.models.chords;
+
+import sample.models.Note;
+import sample.models.NoteNames;
+import sample.models.Utilities;
+
+import static sample.models.NotesNamingMode.FLAT_MODE;
+
+/**
+ * Immutable result of recognizing a Chord: its type, root and inversion.
+ * Every possible match is pre-built, so recognizers hand out shared instances.
+ */
+public final class ChordMatch {
+    /**
+     * maximum number of Notes in a ChordType.
+     */
+    static final int MAX_CHORD_SIZE = 7;
+
+    /**
+     * pre-built matches indexed by (type * 12 + root) * MAX_CHORD_SIZE + inversion.
+     */
+    private static final ChordMatch[] MATCHES =
+            new ChordMatch[ChordType.values().length * Utilities.NUM_NOTE_QUALITIES * MAX_CHORD_SIZE];
+
+    static {
+        for (ChordType type : ChordType.values()) {
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                for (int inversion = 0; inversion < type.size(); inversion++) {
+                    MATCHES[index(type, root, inversion)] = new ChordMatch(type, root, inversion);
+                }
+            }
+        }
+    }
+
+    /**
+     * type of the Chord.
+     */
+    private final ChordType type;
+
+    /**
+     * pitch class of the root, 0 being C.
+     */
+    private final int rootPitchClass;
+
+    /**
+     * inversion of the Chord, 0 being root position.
+     */
+    private final int inversion;
+
+    private ChordMatch(final ChordType type, final int rootPitchClass, final int inversion) {
+        this.type = type;
+        this.rootPitchClass = rootPitchClass;
+        this.inversion = inversion;
+    }
+
+    private static int index(final ChordType type, final int rootPitchClass, final int inversion) {
+        return (type.ordinal() * Utilities.NUM_NOTE_QUALITIES + rootPitchClass) * MAX_CHORD_SIZE + inversion;
+    }
+
+    /**
+     * @param type type of the Chord
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @param inversion inversion of the Chord, 0 being root position
+     * @return the shared ChordMatch
+     */
+    public static ChordMatch of(final ChordType type, final int rootPitchClass, final int inversion) {
+        if (rootPitchClass < 0 || rootPitchClass >= Utilities.NUM_NOTE_QUALITIES
+                || inversion < 0 || inversion >= type.size()) {
+            throw new IllegalArgumentException("Invalid ChordMatch: " + type + " " + rootPitchClass + " " + inversion);
+        }
+        return MATCHES[index(type, rootPitchClass, inversion)];
+    }
+
+    /**
+     * @return the type of the Chord
+     */
+    public ChordType getType() {
+        return type;
+    }
+
+    /**
+     * @return the pitch class of the root, 0 being C
+     */
+    public int getRootPitchClass() {
+        return rootPitchClass;
+    }
+
+    /**
+     * @return the inversion of the Chord, 0 being root position
+     */
+    public int getInversion() {
+        return inversion;
+    }
+
+    /**
+     * @return the quality of the root in the current naming mode
+     */
+    public String rootName() {
+        final int quality = (rootPitchClass + 3) % Utilities.NUM_NOTE_QUALITIES;
+        return Note.notesNamingMode == FLAT_MODE ? NoteNames.FLAT_MODE_NAMES[quality] : NoteNames.SHARP_MODE_NAMES[quality];
+    }
+
+    /**
+     * @return a String representation of the ChordMatch
+     */
+    @Override
+    public String toString() {
+        return rootName() + " " + type + (inversion == 0 ? "" : " inversion " + inversion);
+    }
+}
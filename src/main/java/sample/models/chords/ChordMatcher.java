@@ -0,0 +1,161 @@
+package sample.models.chords;
+
+import sample.models.PitchSet;
+import sample.models.Utilities;
+
+/**
+ * Scores every ChordType rooted on each of the 12 pitch classes against a set
+ * of held pitch classes and returns the best interpretations.
+ * Unlike {@link ChordRecognizer} it tolerates an omitted fifth, doublings and
+ * extra passing notes. Candidates live in a dense int table and scoring is
+ * popcount arithmetic, so a query allocates nothing.
+ */
+public final class ChordMatcher {
+    /**
+     * score of each Chord Note that is held.
+     */
+    public static final int MATCHED_WEIGHT = 4;
+
+    /**
+     * penalty of each Chord Note that is not held.
+     */
+    public static final int MISSING_WEIGHT = 3;
+
+    /**
+     * penalty of a missing perfect fifth, commonly left out when playing.
+     */
+    public static final int MISSING_FIFTH_WEIGHT = 1;
+
+    /**
+     * penalty of each held Note that is not in the Chord.
+     */
+    public static final int EXTRA_WEIGHT = 2;
+
+    /**
+     * bonus when the bass is the root of the Chord.
+     */
+    public static final int ROOT_IN_BASS_BONUS = 1;
+
+    /**
+     * minimum number of Chord Notes held for a candidate to be returned.
+     */
+    private static final int MIN_MATCHED = 2;
+
+    /**
+     * pitch class of the perfect fifth above the root.
+     */
+    private static final int FIFTH = 7;
+
+    /**
+     * the ChordTypes by ordinal.
+     */
+    private static final ChordType[] TYPES = ChordType.values();
+
+    /**
+     * number of candidates, one per ChordType and root.
+     */
+    private static final int NUM_CANDIDATES = TYPES.length * Utilities.NUM_NOTE_QUALITIES;
+
+    /**
+     * pitch class mask of each candidate, indexed by type * 12 + root.
+     */
+    private static final int[] MASKS = new int[NUM_CANDIDATES];
+
+    /**
+     * pitch class mask of the perfect fifth of each candidate, 0 if the Chord has none.
+     */
+    private static final int[] FIFTHS = new int[NUM_CANDIDATES];
+
+    static {
+        for (ChordType type : TYPES) {
+            final int fifth = type.pitchClassMask() & 1 << FIFTH;
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                final int candidate = type.ordinal() * Utilities.NUM_NOTE_QUALITIES + root;
+                MASKS[candidate] = PitchSet.rotatePitchClasses(type.pitchClassMask(), root);
+                FIFTHS[candidate] = PitchSet.rotatePitchClasses(fifth, root);
+            }
+        }
+    }
+
+    private ChordMatcher() { }
+
+    /**
+     * @param pitchClassMask 12 bit mask of the held pitch classes, bit 0 being C
+     * @param bassPitchClass pitch class of the lowest held Note
+     * @param type type of the candidate Chord
+     * @param rootPitchClass pitch class of the root of the candidate Chord
+     * @return the score of the candidate, higher is better
+     */
+    public static int score(final int pitchClassMask, final int bassPitchClass,
+                            final ChordType type, final int rootPitchClass) {
+        return score(pitchClassMask, bassPitchClass, type.ordinal() * Utilities.NUM_NOTE_QUALITIES + rootPitchClass);
+    }
+
+    private static int score(final int held, final int bassPitchClass, final int candidate) {
+        final int mask = MASKS[candidate];
+        final int missing = mask & ~held;
+        final int missingFifth = missing & FIFTHS[candidate];
+        return MATCHED_WEIGHT * Integer.bitCount(held & mask)
+                - MISSING_WEIGHT * Integer.bitCount(missing & ~missingFifth)
+                - MISSING_FIFTH_WEIGHT * Integer.bitCount(missingFifth)
+                - EXTRA_WEIGHT * Integer.bitCount(held & ~mask)
+                + (candidate % Utilities.NUM_NOTE_QUALITIES == bassPitchClass ? ROOT_IN_BASS_BONUS : 0);
+    }
+
+    /**
+     * Finds the k best Chords for the held pitch classes, k being the length of dest.
+     * Ties keep the ChordType declaration order.
+     * @param pitchClassMask 12 bit mask of the held pitch classes, bit 0 being C
+     * @param bassPitchClass pitch class of the lowest held Note
+     * @param dest receives the best matches, best first
+     * @param scores receives the score of each match, at least as long as dest
+     * @return the number of matches written
+     */
+    public static int topK(final int pitchClassMask, final int bassPitchClass,
+                           final ChordMatch[] dest, final int[] scores) {
+        final int held = pitchClassMask & PitchSet.PITCH_CLASS_MASK;
+        final int k = dest.length;
+        if (k == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int candidate = 0; candidate < NUM_CANDIDATES; candidate++) {
+            if (Integer.bitCount(held & MASKS[candidate]) < MIN_MATCHED) {
+                continue;
+            }
+            final int score = score(held, bassPitchClass, candidate);
+            if (count == k && score <= scores[k - 1]) {
+                continue;
+            }
+            int i = count < k ? count++ : k - 1;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                dest[i] = dest[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            dest[i] = match(candidate, bassPitchClass);
+        }
+        return count;
+    }
+
+    /**
+     * @param keys the held keys
+     * @param dest receives the best matches, best first
+     * @param scores receives the score of each match, at least as long as dest
+     * @return the number of matches written
+     */
+    public static int topK(final PitchSet keys, final ChordMatch[] dest, final int[] scores) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        return topK(keys.pitchClasses(), keys.lowest() % Utilities.NUM_NOTE_QUALITIES, dest, scores);
+    }
+
+    private static ChordMatch match(final int candidate, final int bassPitchClass) {
+        final ChordType type = TYPES[candidate / Utilities.NUM_NOTE_QUALITIES];
+        final int root = candidate % Utilities.NUM_NOTE_QUALITIES;
+        final int bassInterval = Math.floorMod(bassPitchClass - root, Utilities.NUM_NOTE_QUALITIES);
+        return ChordMatch.of(type, root, Math.max(type.inversionOf(bassInterval), 0));
+    }
+}
@@ -0,0 +1,264 @@
+package sample.models.chords;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import sample.models.PitchSet;
+import sample.models.Utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recognizes the Chord being held from note-on / note-off events.
+ * The held keys are folded onto a 12 bit pitch class mask which indexes a
+ * 4096 rows table built from the ChordType intervals, each row holding every
+ * Chord of the mask, so each event is resolved without allocation.
+ * Events are expected from a single thread (the MIDI thread); the result is
+ * published to {@link #matchProperty()} through the given Executor,
+ * the JavaFX Application Thread by default.
+ */
+public final class ChordRecognizer {
+    /**
+     * number of pitch class masks.
+     */
+    private static final int NUM_MASKS = 1 << Utilities.NUM_NOTE_QUALITIES;
+
+    /**
+     * flag marking a packed candidate as present.
+     */
+    private static final int CANDIDATE_PRESENT = 1 << 15;
+
+    /**
+     * shift of the ChordType ordinal in a packed candidate.
+     */
+    private static final int TYPE_SHIFT = 4;
+
+    /**
+     * the ChordTypes by ordinal.
+     */
+    private static final ChordType[] TYPES = ChordType.values();
+
+    /**
+     * number of candidates stored per mask, the most Chords sharing a pitch class mask.
+     */
+    private static final int SLOTS;
+
+    /**
+     * candidates of every pitch class mask, SLOTS packed (type, root) pairs per mask
+     * in ChordType declaration order, 0 after the last one.
+     */
+    private static final int[] CANDIDATES;
+
+    static {
+        final int[] counts = new int[NUM_MASKS];
+        int slots = 0;
+        for (ChordType type : TYPES) {
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                slots = Math.max(slots, ++counts[PitchSet.rotatePitchClasses(type.pitchClassMask(), root)]);
+            }
+        }
+        SLOTS = slots;
+        CANDIDATES = new int[NUM_MASKS * slots];
+        Arrays.fill(counts, 0);
+        for (ChordType type : TYPES) {
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                final int mask = PitchSet.rotatePitchClasses(type.pitchClassMask(), root);
+                CANDIDATES[mask * slots + counts[mask]++] = CANDIDATE_PRESENT | type.ordinal() << TYPE_SHIFT | root;
+            }
+        }
+    }
+
+    /**
+     * held keys 0 - 63.
+     */
+    private long lowKeys;
+
+    /**
+     * held keys 64 - 127.
+     */
+    private long highKeys;
+
+    /**
+     * number of held keys of each pitch class.
+     */
+    private final int[] pitchClassCounts = new int[Utilities.NUM_NOTE_QUALITIES];
+
+    /**
+     * pitch classes of the held keys.
+     */
+    private int pitchClassMask;
+
+    /**
+     * the latest match, null when the held keys are not a known Chord.
+     */
+    private volatile ChordMatch match;
+
+    private final ReadOnlyObjectWrapper<ChordMatch> matchProperty = new ReadOnlyObjectWrapper<>(this, "match");
+    private final Executor publisher;
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private final Runnable publishTask = this::publish;
+
+    /**
+     * Constructs a ChordRecognizer publishing to the JavaFX Application Thread.
+     */
+    public ChordRecognizer() {
+        this(Platform::runLater);
+    }
+
+    /**
+     * @param publisher Executor on which {@link #matchProperty()} is updated
+     */
+    public ChordRecognizer(final Executor publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Looks the Chord up from its pitch classes.
+     * When several Chords share the pitch classes (C6 and Am7 for example),
+     * the one rooted on the bass is preferred.
+     * @param pitchClassMask 12 bit mask of the pitch classes, bit 0 being C
+     * @param bassPitchClass pitch class of the lowest Note
+     * @return the matching Chord, null if the pitch classes are not a known Chord
+     */
+    public static ChordMatch recognize(final int pitchClassMask, final int bassPitchClass) {
+        final int first = (pitchClassMask & PitchSet.PITCH_CLASS_MASK) * SLOTS;
+        int chosen = CANDIDATES[first];
+        if (chosen == 0) {
+            return null;
+        }
+        for (int i = first; i < first + SLOTS && CANDIDATES[i] != 0; i++) {
+            if ((CANDIDATES[i] & 0xF) == bassPitchClass) {
+                chosen = CANDIDATES[i];
+                break;
+            }
+        }
+        final ChordType type = TYPES[(chosen & ~CANDIDATE_PRESENT) >>> TYPE_SHIFT];
+        final int root = chosen & 0xF;
+        final int bassInterval = (bassPitchClass - root + Utilities.NUM_NOTE_QUALITIES) % Utilities.NUM_NOTE_QUALITIES;
+        return ChordMatch.of(type, root, Math.max(type.inversionOf(bassInterval), 0));
+    }
+
+    /**
+     * @param keys the keys to recognize
+     * @return the Chord made by the keys, null if they are not a known Chord
+     */
+    public static ChordMatch recognize(final PitchSet keys) {
+        if (keys.isEmpty()) {
+            return null;
+        }
+        return recognize(keys.pitchClasses(), keys.lowest() % Utilities.NUM_NOTE_QUALITIES);
+    }
+
+    /**
+     * @param key MIDI key number pressed
+     * @return the Chord now held, null if none
+     */
+    public ChordMatch noteOn(final int key) {
+        if (key < 0 || key >= PitchSet.SIZE) {
+            return match;
+        }
+        final long bit = 1L << key;
+        if (key < Long.SIZE) {
+            if ((lowKeys & bit) != 0L) {
+                return match;
+            }
+            lowKeys |= bit;
+        } else {
+            if ((highKeys & bit) != 0L) {
+                return match;
+            }
+            highKeys |= bit;
+        }
+        final int pitchClass = key % Utilities.NUM_NOTE_QUALITIES;
+        if (pitchClassCounts[pitchClass]++ == 0) {
+            pitchClassMask |= 1 << pitchClass;
+        }
+        return update();
+    }
+
+    /**
+     * @param key MIDI key number released
+     * @return the Chord now held, null if none
+     */
+    public ChordMatch noteOff(final int key) {
+        if (key < 0 || key >= PitchSet.SIZE) {
+            return match;
+        }
+        final long bit = 1L << key;
+        if (key < Long.SIZE) {
+            if ((lowKeys & bit) == 0L) {
+                return match;
+            }
+            lowKeys &= ~bit;
+        } else {
+            if ((highKeys & bit) == 0L) {
+                return match;
+            }
+            highKeys &= ~bit;
+        }
+        final int pitchClass = key % Utilities.NUM_NOTE_QUALITIES;
+        if (--pitchClassCounts[pitchClass] == 0) {
+            pitchClassMask &= ~(1 << pitchClass);
+        }
+        return update();
+    }
+
+    /**
+     * Releases every held key.
+     */
+    public void reset() {
+        lowKeys = 0L;
+        highKeys = 0L;
+        pitchClassMask = 0;
+        Arrays.fill(pitchClassCounts, 0);
+        update();
+    }
+
+    private ChordMatch update() {
+        final ChordMatch previous = match;
+        final ChordMatch current;
+        if (pitchClassMask == 0) {
+            current = null;
+        } else {
+            final int bass = lowKeys != 0L
+                    ? Long.numberOfTrailingZeros(lowKeys)
+                    : Long.SIZE + Long.numberOfTrailingZeros(highKeys);
+            current = recognize(pitchClassMask, bass % Utilities.NUM_NOTE_QUALITIES);
+        }
+        if (current != previous) {
+            match = current;
+            if (publishPending.compareAndSet(false, true)) {
+                publisher.execute(publishTask);
+            }
+        }
+        return current;
+    }
+
+    private void publish() {
+        publishPending.set(false);
+        matchProperty.set(match);
+    }
+
+    /**
+     * @return the Chord currently held, null if none
+     */
+    public ChordMatch getMatch() {
+        return match;
+    }
+
+    /**
+     * @return the keys currently held
+     */
+    public PitchSet heldKeys() {
+        return PitchSet.fromBits(lowKeys, highKeys);
+    }
+
+    /**
+     * @return the Chord currently held, updated on the publishing Executor
+     */
+    public ReadOnlyObjectProperty<ChordMatch> matchProperty() {
+        return matchProperty.getReadOnlyProperty();
+    }
+}
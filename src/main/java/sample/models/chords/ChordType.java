@@ -1,84 +1,163 @@
 package sample.models.chords;
 
+import java.util.Arrays;
+
 /**
  * enum for Chord types.
+ * Each type carries the intervals of its Notes relative to the root,
+ * so a new Chord quality is added as a single constant.
  */
 public enum ChordType {
     /**
      * Major Triad Chord Type.
      */
-    MAJOR_TRIAD,
+    MAJOR_TRIAD(0, 4, 7),
     /**
      * Major Suspended 2nd Chord Type
      */
-    SUSPENDED_2ND,
+    SUSPENDED_2ND(0, 2, 7),
     /**
      * Minor Suspended 4th Chord Type
      */
-    SUSPENDED_4TH,
+    SUSPENDED_4TH(0, 5, 7),
     /**
      * Minor Triad Chord Type.
      */
-    MINOR_TRIAD,
+    MINOR_TRIAD(0, 3, 7),
     /**
      * Major 6th Chord Type.
      */
-    MAJOR_6TH,
+    MAJOR_6TH(0, 4, 7, 9),
     /**
      * Minor 6th Chord Type.
      */
-    MINOR_6TH,
+    MINOR_6TH(0, 3, 7, 9),
     /**
      * Major 7th Chord Type.
      */
-    MAJOR_7TH,
+    MAJOR_7TH(0, 4, 7, 11),
     /**
      * Minor 7th Chord Type.
      */
-    MINOR_7TH,
+    MINOR_7TH(0, 3, 7, 10),
     /**
      * Major 9th Chord Type.
      */
-    MAJOR_9TH,
+    MAJOR_9TH(0, 4, 7, 11, 14),
     /**
      * Minor 9th Chord Type.
      */
-    MINOR_9TH,
+    MINOR_9TH(0, 3, 7, 10, 14),
     /**
      * Dominant 7th Chord Type.
      */
-    DOMINANT_7TH,
+    DOMINANT_7TH(0, 4, 7, 10),
     /**
      * Dominant 9th Chord Type.
      */
-    DOMINANT_9TH,
+    DOMINANT_9TH(0, 4, 7, 10, 14),
     /**
      * Dominant 11th Chord Type.
      */
-    DOMINANT_11TH,
+    DOMINANT_11TH(0, 4, 7, 10, 14, 17),
 
     /**
      * Dominant 13th Chord Type.
      */
-    DOMINANT_13TH,
+    DOMINANT_13TH(0, 4, 7, 10, 14, 17, 21),
 
     /**
      * Major 11th Chord Type.
      */
-    MAJOR_11TH,
+    MAJOR_11TH(0, 4, 7, 11, 14, 17),
 
     /**
      * Minor 11th Chord Type.
      */
-    MINOR_11TH,
+    MINOR_11TH(0, 3, 7, 10, 14, 17),
 
     /**
      * Major 13th Chord Type.
      */
-    MAJOR_13TH,
+    MAJOR_13TH(0, 4, 7, 11, 14, 17, 21),
 
     /**
      * Minor 13th Chord Type.
      */
-    MINOR_13TH
+    MINOR_13TH(0, 3, 7, 10, 14, 17, 21);
+    /**
+     * intervals of the Chord Notes relative to the root, in ascending order.
+     */
+    private final byte[] intervals;
+
+    /**
+     * bit i is set when the Chord has a Note i half notes above the root.
+     */
+    private final int intervalMask;
+
+    /**
+     * the intervals folded onto the 12 pitch classes, bit 0 being the root.
+     */
+    private final int pitchClassMask;
+
+    /**
+     * inversion having each pitch class interval in the bass, -1 if the interval is not in the Chord.
+     */
+    private final byte[] inversions = new byte[12];
+
+    ChordType(final int... intervals) {
+        this.intervals = new byte[intervals.length];
+        int mask = 0;
+        int pitchClasses = 0;
+        for (int i = 0; i < intervals.length; i++) {
+            this.intervals[i] = (byte) intervals[i];
+            mask |= 1 << intervals[i];
+            pitchClasses |= 1 << (intervals[i] % 12);
+        }
+        this.intervalMask = mask;
+        this.pitchClassMask = pitchClasses;
+        Arrays.fill(inversions, (byte) -1);
+        for (int i = intervals.length - 1; i >= 0; i--) {
+            inversions[intervals[i] % 12] = (byte) i;
+        }
+    }
+
+    /**
+     * @return the number of Notes in the Chord
+     */
+    public int size() {
+        return intervals.length;
+    }
+
+    /**
+     * @param index index of the Chord Note
+     * @return the interval between the root and the Chord Note at the given index
+     */
+    public int interval(final int index) {
+        return intervals[index];
+    }
+
+    /**
+     * @return the intervals of the Chord Notes relative to the root as a bitmask,
+     * bit i being set when the Chord has a Note i half notes above the root
+     */
+    public int intervalMask() {
+        return intervalMask;
+    }
+
+    /**
+     * @return the intervals of the Chord folded onto the 12 pitch classes,
+     * bit 0 being the root
+     */
+    public int pitchClassMask() {
+        return pitchClassMask;
+    }
+
+    /**
+     * @param bassInterval interval between the root and the bass, folded onto 0 - 11
+     * @return the inversion having that interval in the bass, -1 if the interval is not in the Chord
+     */
+    public int inversionOf(final int bassInterval) {
+        return inversions[bassInterval];
+    }
 }
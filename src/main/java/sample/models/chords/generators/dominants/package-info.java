@@ -1,4 +0,0 @@
-/**
- * Contains Chord generators for Dominant Chords.
- */
-package sample.models.chords.generators.dominants;
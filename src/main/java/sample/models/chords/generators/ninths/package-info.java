@@ -1,4 +0,0 @@
-/**
- * Contains generators for 9th Chords.
- */
-package sample.models.chords.generators.ninths;
@@ -1,4 +0,0 @@
-/**
- * contains Chord generators classes.
- */
-package sample.models.chords.generators;
@@ -1,43 +0,0 @@
-package sample.models.chords.generators.sevenths;
-
-import sample.models.Note;
-import sample.models.exceptions.InvalidNoteException;
-
-/**
- * Utility Class for generating Major 7th Chords.
- */
-public final class Major7th {
-    /**
-     * largest interval in a Major 7th Chord.
-     */
-    private static final int MAX_INTERVAL = 11;
-
-    /**
-     * interval between the root and the third.
-     */
-    private static final int ROOT_TO_THIRD = 4;
-
-    /**
-     * interval between the root Note and the fifth.
-     */
-    private static final int ROOT_TO_FIFTH = 7;
-
-    private Major7th() { };
-
-    /**
-     * Generate the Notes of the Major 7th Chord rooted
-     * at the given Note.
-     * @param root root Note of the Chord
-     * @return an array of the Notes
-     * @throws InvalidNoteException when an invalid Note is encountered
-     */
-    public static Note[] generateScale(final Note root)
-            throws InvalidNoteException {
-        return new Note[] {
-                root,
-                root.sharp(ROOT_TO_THIRD),
-                root.sharp(ROOT_TO_FIFTH),
-                root.sharp(MAX_INTERVAL)
-        };
-    }
-}
@@ -1,4 +0,0 @@
-/**
- * Contains generators for 7th Chords.
- */
-package sample.models.chords.generators.sevenths;
@@ -1,4 +0,0 @@
-/**
- * Contains generators for Triad Chords.
- */
-package sample.models.chords.generators.triads;
@@ -1,14 +1,14 @@
 /**
- * Provides generators the various chords
- * used in music.
+ * Provides the Chord class and the Chord types
+ * used in music, each type defined by its intervals.
  * Implemented chords are:
- *      Major Triad
- *      Minor Triad
- *      Major 7th
- *      Minor 7th
- *      Major 9th
- *      Minor 9th
- *      Dominant 7th
- *      Dominant 9th
+ *      Major / Minor Triad
+ *      Suspended 2nd / 4th
+ *      Major / Minor 6th
+ *      Major / Minor 7th
+ *      Major / Minor 9th
+ *      Major / Minor 11th
+ *      Major / Minor 13th
+ *      Dominant 7th / 9th / 11th / 13th
  */
 package sample.models.chords;
@@ -0,0 +1,29 @@
+package sample.models.midi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a note starting to play.
+ */
+@Name("sample.AudioStart")
+@Label("Audio Start")
+@Category({"Piano Midi Display", "Audio"})
+@Description("Note starting to play")
+@StackTrace(false)
+final class AudioStartEvent extends jdk.jfr.Event {
+    @Label("Key")
+    int key;
+
+    @Label("Source")
+    String source;
+
+    @Label("Latency")
+    @Description("Time from the note being asked for to its sink being open")
+    @Timespan(Timespan.NANOSECONDS)
+    long latencyNanos;
+}
@@ -0,0 +1,163 @@
+package sample.models.midi;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Button;
+import sample.models.Note;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Applies the MIDI events received since the last JavaFX pulse to the keyboard display.
+ * Runs on the JavaFX Application Thread; every event of the frame is decoded
+ * into the pressed keys of a MidiDecoder first, then each key whose state
+ * differs from the one displayed gets a single style update, however many
+ * events it received. Events dropped because the display lagged are logged
+ * once per overflow, from this thread rather than the MIDI thread.
+ */
+public final class KeyboardAnimator extends AnimationTimer {
+    private static final Logger LOGGER = Logger.getLogger(KeyboardAnimator.class.getName());
+
+    private static final String BUTTON_ORIGINAL_STYLE = new Button().getStyle();
+
+    private String whitePressedStyle = "-fx-background-color: blue";
+    private String whiteReleasedStyle = BUTTON_ORIGINAL_STYLE;
+    private String blackPressedStyle = "-fx-background-color: red";
+    private String blackReleasedStyle = "-fx-background-color: black";
+
+    private final MidiEventQueue queue;
+
+    /**
+     * events drained in the current frame.
+     */
+    private final long[] batch;
+
+    /**
+     * keys pressed according to the events applied so far.
+     */
+    private final MidiDecoder decoder = new MidiDecoder();
+
+    private final MidiTrace trace = MidiTrace.shared();
+
+    private final Button[] keys;
+
+    /**
+     * MIDI key number of the first Button.
+     */
+    private final int lowestKey;
+
+    /**
+     * true for the white keys, indexed like keys.
+     */
+    private final boolean[] whiteKeys;
+
+    /**
+     * keys displayed as pressed 0 - 63 and 64 - 127.
+     */
+    private long displayedLow;
+    private long displayedHigh;
+
+    /**
+     * events dropped by the queue as of the last frame, and whether that frame found new ones.
+     */
+    private long dropped;
+    private boolean overflowing;
+
+    /**
+     * @param queue events written by the MidiInputReceiver
+     * @param keyBoard the key Buttons, lowest key first
+     * @param whiteKeys the white key Buttons
+     */
+    public KeyboardAnimator(final MidiEventQueue queue, final List<Button> keyBoard, final List<Button> whiteKeys) {
+        this(queue, keyBoard, whiteKeys, Note.LOWEST_KEY);
+    }
+
+    /**
+     * @param queue events written by the MidiInputReceiver
+     * @param keyBoard the key Buttons, lowest key first
+     * @param whiteKeys the white key Buttons
+     * @param lowestKey MIDI key number of the first Button
+     */
+    public KeyboardAnimator(final MidiEventQueue queue, final List<Button> keyBoard, final List<Button> whiteKeys,
+                            final int lowestKey) {
+        this.queue = queue;
+        this.lowestKey = lowestKey;
+        this.batch = new long[queue.capacity()];
+        this.keys = keyBoard.toArray(new Button[0]);
+        this.whiteKeys = new boolean[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.whiteKeys[i] = whiteKeys.contains(keys[i]);
+        }
+    }
+
+    /**
+     * Sets the styles the keys are displayed with, used from the next change of each key.
+     * @param whitePressed style of a pressed white key
+     * @param whiteReleased style of a released white key
+     * @param blackPressed style of a pressed black key
+     * @param blackReleased style of a released black key
+     */
+    public void setStyles(final String whitePressed, final String whiteReleased,
+                          final String blackPressed, final String blackReleased) {
+        this.whitePressedStyle = whitePressed;
+        this.whiteReleasedStyle = whiteReleased;
+        this.blackPressedStyle = blackPressed;
+        this.blackReleasedStyle = blackReleased;
+    }
+
+    /**
+     * @return the state of the keys, as of the last frame
+     */
+    public MidiDecoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public void handle(final long now) {
+        final long droppedNow = queue.dropped();
+        final boolean dropping = droppedNow != dropped;
+        if (dropping && !overflowing) {
+            LOGGER.warning("Keyboard display lagging, " + droppedNow + " events dropped so far");
+        }
+        overflowing = dropping;
+        dropped = droppedNow;
+        final int count = queue.drainTo(batch);
+        if (count == 0) {
+            return;
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            final long event = batch[i];
+            decoder.decode(MidiEventQueue.status(event), MidiEventQueue.data1(event), MidiEventQueue.data2(event));
+        }
+        final long low = decoder.pressedLow();
+        final long high = decoder.pressedHigh();
+        final int changedKeys = Long.bitCount(low ^ displayedLow) + Long.bitCount(high ^ displayedHigh);
+        for (long changed = low ^ displayedLow; changed != 0; changed &= changed - 1) {
+            display(Long.numberOfTrailingZeros(changed), low);
+        }
+        for (long changed = high ^ displayedHigh; changed != 0; changed &= changed - 1) {
+            display(Long.SIZE + Long.numberOfTrailingZeros(changed), high);
+        }
+        displayedLow = low;
+        displayedHigh = high;
+        trace.keyboardApplied(count, changedKeys, start);
+    }
+
+    /**
+     * @param key MIDI key number
+     * @param pressed the pressed keys of the word holding key
+     */
+    private void display(final int key, final long pressed) {
+        final int index = key - lowestKey;
+        if (index < 0 || index >= keys.length) {
+            return;
+        }
+        final boolean down = (pressed >>> key & 1) != 0;
+        if (whiteKeys[index]) {
+            keys[index].setStyle(down ? whitePressedStyle : whiteReleasedStyle);
+        } else {
+            keys[index].setStyle(down ? blackPressedStyle : blackReleasedStyle);
+        }
+    }
+}
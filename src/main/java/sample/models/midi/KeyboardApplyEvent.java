@@ -0,0 +1,28 @@
+package sample.models.midi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of the midi events of a JavaFX pulse applied to the keyboard display.
+ */
+@Name("sample.KeyboardApply")
+@Label("Keyboard Apply")
+@Category({"Piano Midi Display", "MIDI"})
+@Description("Midi events of a JavaFX pulse applied to the keyboard display")
+@StackTrace(false)
+final class KeyboardApplyEvent extends jdk.jfr.Event {
+    @Label("Events")
+    int events;
+
+    @Label("Changed Keys")
+    int changedKeys;
+
+    @Label("Apply Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long applyNanos;
+}
@@ -0,0 +1,325 @@
+package sample.models.midi;
+
+import sample.models.PitchSet;
+
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.ShortMessage;
+import java.util.Arrays;
+
+/**
+ * Decodes MIDI channel messages into the state of the keyboard: which of the
+ * 128 keys are pressed, as two 64 bit words, with the velocity of each press,
+ * the last value of each controller and the pitch bend.
+ * A note on of velocity 0 is a note off; All Sound Off and All Notes Off
+ * release every key. Raw bytes are framed with running status; system
+ * real-time bytes may appear anywhere and are skipped, other system messages
+ * are ignored. Messages of channels outside the channel mask are ignored.
+ * Not thread safe: each thread decoding events owns its decoder.
+ */
+public final class MidiDecoder {
+    /**
+     * kinds of decoded messages.
+     */
+    public static final int IGNORED = 0;
+    public static final int NOTE_ON = 1;
+    public static final int NOTE_OFF = 2;
+    public static final int CONTROL_CHANGE = 3;
+    public static final int PITCH_BEND = 4;
+
+    /**
+     * channel mask accepting the 16 channels.
+     */
+    public static final int ALL_CHANNELS = 0xFFFF;
+
+    /**
+     * controllers releasing every key.
+     */
+    public static final int ALL_SOUND_OFF = 120;
+    public static final int ALL_NOTES_OFF = 123;
+
+    /**
+     * value of a centered pitch bend.
+     */
+    private static final int PITCH_BEND_CENTER = 8192;
+
+    /**
+     * Receives the messages decoded from raw bytes, after the state is updated.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param kind kind of the message
+         * @param status status byte
+         * @param data1 first data byte
+         * @param data2 second data byte, 0 if none
+         */
+        void onMessage(int kind, int status, int data1, int data2);
+    }
+
+    /**
+     * bit c set to accept the messages of channel c.
+     */
+    private final int channelMask;
+
+    /**
+     * pressed keys 0 - 63 and 64 - 127.
+     */
+    private long pressedLow;
+    private long pressedHigh;
+
+    /**
+     * velocity of each pressed key, 0 when released.
+     */
+    private final byte[] velocities = new byte[128];
+
+    /**
+     * last value of each controller.
+     */
+    private final byte[] controllers = new byte[128];
+
+    /**
+     * last pitch bend, -8192 - 8191.
+     */
+    private int pitchBend;
+
+    /**
+     * status of the channel message being framed, 0 if none.
+     */
+    private int runningStatus;
+
+    /**
+     * first data byte of the message being framed, -1 if none yet.
+     */
+    private int pendingData = -1;
+
+    /**
+     * Constructs a decoder of every channel.
+     */
+    public MidiDecoder() {
+        this(ALL_CHANNELS);
+    }
+
+    /**
+     * @param channelMask bit c set to accept the messages of channel c, 0 - 15
+     */
+    public MidiDecoder(final int channelMask) {
+        this.channelMask = channelMask & ALL_CHANNELS;
+    }
+
+    /**
+     * Decodes one complete channel message.
+     * @param status status byte
+     * @param data1 first data byte
+     * @param data2 second data byte, 0 if none
+     * @return the kind of the message, IGNORED for other channels or messages
+     */
+    public int decode(final int status, final int data1, final int data2) {
+        if ((status & 0x80) == 0 || (status & 0xF0) == 0xF0 || (channelMask >> (status & 0x0F) & 1) == 0) {
+            return IGNORED;
+        }
+        final int key = data1 & 0x7F;
+        final int value = data2 & 0x7F;
+        switch (status & 0xF0) {
+            case 0x90:
+                if (value > 0) {
+                    press(key, value);
+                    return NOTE_ON;
+                }
+                release(key);
+                return NOTE_OFF;
+            case 0x80:
+                release(key);
+                return NOTE_OFF;
+            case 0xB0:
+                controllers[key] = (byte) value;
+                if (key == ALL_SOUND_OFF || key == ALL_NOTES_OFF) {
+                    releaseAll();
+                }
+                return CONTROL_CHANGE;
+            case 0xE0:
+                pitchBend = (value << 7 | key) - PITCH_BEND_CENTER;
+                return PITCH_BEND;
+            default:
+                return IGNORED;
+        }
+    }
+
+    /**
+     * Decodes the channel messages of raw MIDI bytes, which may rely on the
+     * running status left by previous calls.
+     * @param bytes the bytes
+     * @param length number of bytes to decode
+     * @param listener receives every message that is not IGNORED, null if not needed
+     * @return the number of messages decoded, ignored ones included
+     */
+    public int decode(final byte[] bytes, final int length, final Listener listener) {
+        int messages = 0;
+        for (int i = 0; i < length; i++) {
+            final int b = bytes[i] & 0xFF;
+            if (b >= 0xF8) {
+                continue;
+            }
+            if (b >= 0xF0) {
+                runningStatus = 0;
+                pendingData = -1;
+                continue;
+            }
+            if (b >= 0x80) {
+                runningStatus = b;
+                pendingData = -1;
+                continue;
+            }
+            if (runningStatus == 0) {
+                continue;
+            }
+            final int data1;
+            final int data2;
+            if (dataLength(runningStatus) == 1) {
+                data1 = b;
+                data2 = 0;
+            } else if (pendingData < 0) {
+                pendingData = b;
+                continue;
+            } else {
+                data1 = pendingData;
+                data2 = b;
+                pendingData = -1;
+            }
+            final int kind = decode(runningStatus, data1, data2);
+            messages++;
+            if (kind != IGNORED && listener != null) {
+                listener.onMessage(kind, runningStatus, data1, data2);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Decodes a message received from Java Sound. The fields of a channel
+     * ShortMessage are read directly, as getMessage() copies the bytes.
+     * @param message the message
+     * @param listener receives every message that is not IGNORED, null if not needed
+     * @return the number of messages decoded, ignored ones included
+     */
+    public int decode(final MidiMessage message, final Listener listener) {
+        if (message instanceof ShortMessage shortMessage && shortMessage.getStatus() < 0xF0) {
+            final int status = shortMessage.getStatus();
+            final int data1 = shortMessage.getData1();
+            final int data2 = shortMessage.getData2();
+            final int kind = decode(status, data1, data2);
+            if (kind != IGNORED && listener != null) {
+                listener.onMessage(kind, status, data1, data2);
+            }
+            return 1;
+        }
+        return decode(message.getMessage(), message.getLength(), listener);
+    }
+
+    /**
+     * @param status status byte of a channel message
+     * @return the number of data bytes of the message
+     */
+    static int dataLength(final int status) {
+        final int command = status & 0xF0;
+        return command == 0xC0 || command == 0xD0 ? 1 : 2;
+    }
+
+    private void press(final int key, final int velocity) {
+        if (key < Long.SIZE) {
+            pressedLow |= 1L << key;
+        } else {
+            pressedHigh |= 1L << key;
+        }
+        velocities[key] = (byte) velocity;
+    }
+
+    private void release(final int key) {
+        if (key < Long.SIZE) {
+            pressedLow &= ~(1L << key);
+        } else {
+            pressedHigh &= ~(1L << key);
+        }
+        velocities[key] = 0;
+    }
+
+    private void releaseAll() {
+        for (long bits = pressedLow; bits != 0; bits &= bits - 1) {
+            velocities[Long.numberOfTrailingZeros(bits)] = 0;
+        }
+        for (long bits = pressedHigh; bits != 0; bits &= bits - 1) {
+            velocities[Long.SIZE + Long.numberOfTrailingZeros(bits)] = 0;
+        }
+        pressedLow = 0;
+        pressedHigh = 0;
+    }
+
+    /**
+     * Releases every key and forgets the controllers, the pitch bend and the running status.
+     */
+    public void reset() {
+        releaseAll();
+        Arrays.fill(controllers, (byte) 0);
+        pitchBend = 0;
+        runningStatus = 0;
+        pendingData = -1;
+    }
+
+    /**
+     * @param key MIDI key number, 0 - 127
+     * @return true if the key is pressed
+     */
+    public boolean isPressed(final int key) {
+        return ((key < Long.SIZE ? pressedLow : pressedHigh) >>> key & 1) != 0;
+    }
+
+    /**
+     * @param key MIDI key number, 0 - 127
+     * @return the velocity the key was pressed with, 0 if it is released
+     */
+    public int velocity(final int key) {
+        return velocities[key];
+    }
+
+    /**
+     * @return the pressed keys 0 - 63, bit k set for key k
+     */
+    public long pressedLow() {
+        return pressedLow;
+    }
+
+    /**
+     * @return the pressed keys 64 - 127, bit k set for key 64 + k
+     */
+    public long pressedHigh() {
+        return pressedHigh;
+    }
+
+    /**
+     * @return the number of pressed keys
+     */
+    public int pressedCount() {
+        return Long.bitCount(pressedLow) + Long.bitCount(pressedHigh);
+    }
+
+    /**
+     * @return the pressed keys
+     */
+    public PitchSet pressedKeys() {
+        return PitchSet.fromBits(pressedLow, pressedHigh);
+    }
+
+    /**
+     * @param controller controller number, 0 - 127
+     * @return the last value of the controller
+     */
+    public int controller(final int controller) {
+        return controllers[controller];
+    }
+
+    /**
+     * @return the last pitch bend, -8192 - 8191, 0 centered
+     */
+    public int pitchBend() {
+        return pitchBend;
+    }
+}
@@ -0,0 +1,154 @@
+package sample.models.midi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of packed MIDI events, written by one thread and read by one other.
+ * The producer, the Java Sound MIDI thread, never blocks nor allocates: when
+ * the ring is full the event is dropped and counted. The consumer drains every
+ * pending event at once, typically once per JavaFX pulse.
+ * An event packs its time-stamp in microseconds above the status and data bytes:
+ * timeStamp &lt;&lt; 24 | status &lt;&lt; 16 | data1 &lt;&lt; 8 | data2.
+ */
+public final class MidiEventQueue {
+    /**
+     * default number of events held, about a second of a dense glissando.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final long[] events;
+    private final int mask;
+
+    /**
+     * index of the next event written, only advanced by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * index of the next event read, only advanced by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * last head seen by the producer, to read the shared head only when the ring looks full.
+     */
+    private long cachedHead;
+
+    private volatile long dropped;
+
+    /**
+     * Constructs a queue of {@link #DEFAULT_CAPACITY} events.
+     */
+    public MidiEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of events held, a power of 2
+     */
+    public MidiEventQueue(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of 2: " + capacity);
+        }
+        this.events = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param status status byte
+     * @param data1 first data byte
+     * @param data2 second data byte, 0 if none
+     * @param timeStamp time-stamp in microseconds, -1 if unknown
+     * @return the packed event
+     */
+    public static long pack(final int status, final int data1, final int data2, final long timeStamp) {
+        return Math.max(timeStamp, 0) << 24 | (status & 0xFF) << 16 | (data1 & 0xFF) << 8 | data2 & 0xFF;
+    }
+
+    /**
+     * @param event packed event
+     * @return the status byte
+     */
+    public static int status(final long event) {
+        return (int) (event >>> 16) & 0xFF;
+    }
+
+    /**
+     * @param event packed event
+     * @return the first data byte
+     */
+    public static int data1(final long event) {
+        return (int) (event >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param event packed event
+     * @return the second data byte
+     */
+    public static int data2(final long event) {
+        return (int) event & 0xFF;
+    }
+
+    /**
+     * @param event packed event
+     * @return the time-stamp in microseconds, 0 if unknown
+     */
+    public static long timeStamp(final long event) {
+        return event >>> 24;
+    }
+
+    /**
+     * Adds an event; called by the producer thread only.
+     * @param event packed event
+     * @return false if the ring was full and the event dropped
+     */
+    public boolean offer(final long event) {
+        final long t = tail.getPlain();
+        if (t - cachedHead > mask) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+        events[(int) t & mask] = event;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the pending events; called by the consumer thread only.
+     * @param dest receives the events, oldest first
+     * @return the number of events written, at most the length of dest
+     */
+    public int drainTo(final long[] dest) {
+        final long h = head.getPlain();
+        final int count = (int) Math.min(tail.getAcquire() - h, dest.length);
+        for (int i = 0; i < count; i++) {
+            dest[i] = events[(int) (h + i) & mask];
+        }
+        head.setRelease(h + count);
+        return count;
+    }
+
+    /**
+     * @return the number of pending events, a snapshot when called concurrently
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return the number of events held
+     */
+    public int capacity() {
+        return events.length;
+    }
+
+    /**
+     * @return the number of events dropped because the ring was full
+     */
+    public long dropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,162 @@
+package sample.models.midi;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.Receiver;
+import javax.sound.midi.ShortMessage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a Standard MIDI File in real time to Receivers, typically the
+ * MidiInputReceiver of a keyboard view and a MixerReceiver, like a midi device would.
+ * A clock thread of maximum priority streams the events from a MidiFileStream
+ * and sends each one when due: it parks until shortly before, then spins on
+ * System.nanoTime() for the rest, so events leave within microseconds of
+ * their time. A late thread catches up without skipping events.
+ * A single ShortMessage is reused for every event: receivers must not keep it.
+ */
+public final class MidiFilePlayer implements AutoCloseable {
+    /**
+     * time before an event from which the clock thread spins instead of parking, in nanoseconds.
+     */
+    static final long SPIN_NANOS = 250_000;
+
+    private final MidiFileStream stream;
+    private final Receiver[] receivers;
+    private final ShortMessage message = new ShortMessage();
+    private final Thread clock;
+
+    private volatile boolean playing;
+    private volatile long positionMicros;
+    private volatile IOException error;
+
+    /**
+     * @param file the Standard MIDI File
+     * @param receivers receive the channel messages of the file in turn, on the clock thread
+     * @throws IOException if the file cannot be read or is not a Standard MIDI File of format 0 or 1
+     */
+    public MidiFilePlayer(final Path file, final Receiver... receivers) throws IOException {
+        this.stream = MidiFileStream.open(file);
+        this.receivers = receivers.clone();
+        this.clock = new Thread(this::play, "MIDI file player " + file.getFileName());
+        this.clock.setDaemon(true);
+        this.clock.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    /**
+     * Starts playing from the start of the file.
+     */
+    public void start() {
+        playing = true;
+        clock.start();
+    }
+
+    private void play() {
+        final long start = System.nanoTime();
+        try {
+            for (long event = stream.next(); event != MidiFileStream.END && playing; event = stream.next()) {
+                final long micros = MidiEventQueue.timeStamp(event);
+                waitUntil(start + micros * 1000);
+                if (!playing) {
+                    break;
+                }
+                message.setMessage(MidiEventQueue.status(event), MidiEventQueue.data1(event), MidiEventQueue.data2(event));
+                send(micros);
+                positionMicros = micros;
+            }
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+            MidiTrace.shared().error("Playing the MIDI file failed", e.getCause());
+        } catch (InvalidMidiDataException e) {
+            // channel messages of the stream are always valid
+            throw new IllegalStateException(e);
+        } finally {
+            allNotesOff();
+            playing = false;
+        }
+    }
+
+    /**
+     * @param micros time-stamp of the message, in microseconds from the start of the file
+     */
+    private void send(final long micros) {
+        for (Receiver receiver : receivers) {
+            receiver.send(message, micros);
+        }
+    }
+
+    /**
+     * Parks then spins until the time, or until stopped.
+     * @param due time to wait for, from System.nanoTime()
+     */
+    private void waitUntil(final long due) {
+        for (long remaining = due - System.nanoTime(); remaining > 0 && playing; remaining = due - System.nanoTime()) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Releases the keys held by the file on every channel.
+     */
+    private void allNotesOff() {
+        for (int channel = 0; channel < 16; channel++) {
+            try {
+                message.setMessage(ShortMessage.CONTROL_CHANGE, channel, MidiDecoder.ALL_NOTES_OFF, 0);
+                send(positionMicros);
+            } catch (InvalidMidiDataException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * @return true until the end of the file or until stopped
+     */
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * @return the time of the last event sent, in microseconds from the start of the file
+     */
+    public long positionMicros() {
+        return positionMicros;
+    }
+
+    /**
+     * @return the error that stopped the playback, null if none
+     */
+    public IOException error() {
+        return error;
+    }
+
+    /**
+     * Waits for the end of the file.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        clock.join();
+    }
+
+    /**
+     * Stops playing, releasing the keys held, and waits for the clock thread to end.
+     */
+    @Override
+    public void close() {
+        playing = false;
+        LockSupport.unpark(clock);
+        if (clock.isAlive() && Thread.currentThread() != clock) {
+            try {
+                clock.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package sample.models.midi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the channel messages of a Standard MIDI File of format 0 or 1 in time order.
+ * The file is memory mapped and opening it only reads the chunk headers;
+ * each track is decoded lazily, one event ahead, and the tracks are merged
+ * through a binary heap of longs, so a large orchestral file starts playing
+ * at once and streaming allocates nothing.
+ * Events are packed like in the MidiEventQueue, their time-stamp in
+ * microseconds from the start following the tempo changes; simultaneous
+ * events come in track order. System exclusive and meta events other than
+ * tempo are skipped.
+ * Not thread safe: a stream is read by one thread.
+ */
+public final class MidiFileStream {
+    /**
+     * returned by next() after the last event.
+     */
+    public static final long END = -1L;
+
+    private static final int HEADER_MAGIC = 0x4D546864;
+    private static final int TRACK_MAGIC = 0x4D54726B;
+    private static final int CHUNK_HEADER_SIZE = 8;
+    private static final int META = 0xFF;
+    private static final int TEMPO = 0x51;
+    private static final int END_OF_TRACK = 0x2F;
+
+    /**
+     * event of a TrackCursor holding a tempo change.
+     */
+    private static final int TEMPO_EVENT = -1;
+
+    /**
+     * bits of the track index in a heap entry, below the tick.
+     */
+    private static final int TRACK_BITS = 16;
+
+    private final Path file;
+    private final int format;
+    private final int division;
+    private final TrackCursor[] tracks;
+
+    /**
+     * tick &lt;&lt; TRACK_BITS | track of the tracks with events left, the smallest first.
+     */
+    private final long[] heap;
+    private int heapSize;
+
+    /**
+     * track of the event last returned, still at the top of the heap, -1 if none.
+     * It moves on at the next call only, so an error surfaces with the event it is in.
+     */
+    private int returnedTrack = -1;
+
+    /**
+     * tick and microseconds of the last tempo change, and the tempo since.
+     */
+    private long tempoTick;
+    private double tempoMicros;
+    private long tempo = StandardMidiFile.DEFAULT_TEMPO;
+
+    /**
+     * ticks per second of an SMPTE division, 0 for ticks per quarter note.
+     */
+    private final double ticksPerSecond;
+
+    private MidiFileStream(final Path file, final int format, final int division, final TrackCursor[] tracks) {
+        this.file = file;
+        this.format = format;
+        this.division = division;
+        this.tracks = tracks;
+        this.heap = new long[tracks.length];
+        // SMPTE divisions are minus the frames per second, then ticks per frame; -29 is 29.97
+        final int fps = -(division >> 8);
+        this.ticksPerSecond = division >= 0 ? 0 : (fps == 29 ? 29.97 : fps) * (division & 0xFF);
+        for (int t = 0; t < tracks.length; t++) {
+            if (advance(t)) {
+                heap[heapSize++] = tracks[t].tick << TRACK_BITS | t;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Maps a file and locates its tracks.
+     * @param file the file
+     * @return the stream, positioned before the first event
+     * @throws IOException if the file cannot be read or is not a Standard MIDI File of format 0 or 1
+     */
+    public static MidiFileStream open(final Path file) throws IOException {
+        final MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            final int headerLength;
+            if (data.getInt() != HEADER_MAGIC || (headerLength = data.getInt()) < 6) {
+                throw new IOException(file + " is not a Standard MIDI File");
+            }
+            final int format = data.getShort();
+            final int trackCount = data.getShort() & 0xFFFF;
+            final int division = data.getShort();
+            if (format != StandardMidiFile.SINGLE_TRACK && format != StandardMidiFile.MULTI_TRACK) {
+                throw new IOException("Unsupported format " + format + " of " + file);
+            }
+            data.position(CHUNK_HEADER_SIZE + headerLength);
+
+            final TrackCursor[] tracks = new TrackCursor[trackCount];
+            int found = 0;
+            while (found < trackCount && data.remaining() >= CHUNK_HEADER_SIZE) {
+                final int type = data.getInt();
+                final int length = data.getInt();
+                if (type == TRACK_MAGIC) {
+                    tracks[found++] = new TrackCursor(data.slice(data.position(), length));
+                }
+                data.position(data.position() + length);
+            }
+            if (found < trackCount) {
+                throw new IOException("Missing " + (trackCount - found) + " tracks in " + file);
+            }
+            return new MidiFileStream(file, format, division, tracks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt Standard MIDI File " + file, e);
+        }
+    }
+
+    /**
+     * @return SINGLE_TRACK or MULTI_TRACK
+     */
+    public int format() {
+        return format;
+    }
+
+    /**
+     * @return the number of tracks
+     */
+    public int trackCount() {
+        return tracks.length;
+    }
+
+    /**
+     * Decodes the next channel message, applying the tempo changes met on the way.
+     * @return the packed event, or END after the last one
+     * @throws UncheckedIOException if a track is truncated or corrupt
+     */
+    public long next() {
+        if (returnedTrack >= 0) {
+            final int t = returnedTrack;
+            returnedTrack = -1;
+            moveOn(t);
+        }
+        while (heapSize > 0) {
+            final int t = (int) heap[0] & (1 << TRACK_BITS) - 1;
+            final TrackCursor track = tracks[t];
+            final long tick = track.tick;
+            if (track.event == TEMPO_EVENT) {
+                if (ticksPerSecond == 0) {
+                    tempoMicros += (tick - tempoTick) * (double) tempo / division;
+                    tempoTick = tick;
+                    tempo = track.tempo;
+                }
+                moveOn(t);
+                continue;
+            }
+            returnedTrack = t;
+            final double micros = ticksPerSecond == 0
+                    ? tempoMicros + (tick - tempoTick) * (double) tempo / division
+                    : tick * 1e6 / ticksPerSecond;
+            return Math.round(micros) << 24 | track.event;
+        }
+        return END;
+    }
+
+    /**
+     * Decodes the next event of the track at the top of the heap, and sifts it down.
+     * @param t index of the track
+     */
+    private void moveOn(final int t) {
+        if (advance(t)) {
+            heap[0] = tracks[t].tick << TRACK_BITS | t;
+        } else {
+            heap[0] = heap[--heapSize];
+        }
+        siftDown(0);
+    }
+
+    /**
+     * @param t index of the track
+     * @return false if the track has no event left
+     */
+    private boolean advance(final int t) {
+        try {
+            return tracks[t].advance();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Truncated or corrupt track " + t + " of " + file, e));
+        }
+    }
+
+    private void siftDown(final int start) {
+        int i = start;
+        final long entry = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= entry) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+    }
+
+    /**
+     * Decodes the events of a track one at a time.
+     */
+    private static final class TrackCursor {
+        private final ByteBuffer data;
+        private int runningStatus;
+
+        /**
+         * tick of the current event.
+         */
+        private long tick;
+
+        /**
+         * current event, status &lt;&lt; 16 | data1 &lt;&lt; 8 | data2, or TEMPO_EVENT.
+         */
+        private int event;
+
+        /**
+         * tempo of the current event if it is a tempo change.
+         */
+        private int tempo;
+
+        TrackCursor(final ByteBuffer data) {
+            this.data = data;
+        }
+
+        /**
+         * Moves to the next channel message or tempo change.
+         * @return false at the end of the track
+         */
+        boolean advance() {
+            while (data.hasRemaining()) {
+                tick += getVariableLength(data);
+                int status = data.get(data.position()) & 0xFF;
+                if (status >= 0x80) {
+                    data.get();
+                } else if (runningStatus != 0) {
+                    status = runningStatus;
+                } else {
+                    throw new IllegalArgumentException("Data byte without status");
+                }
+                if (status == META) {
+                    final int type = data.get() & 0xFF;
+                    final int length = getVariableLength(data);
+                    final int position = data.position();
+                    data.position(position + length);
+                    if (type == END_OF_TRACK) {
+                        return false;
+                    }
+                    if (type == TEMPO && length == 3) {
+                        tempo = (data.get(position) & 0xFF) << 16 | (data.get(position + 1) & 0xFF) << 8
+                                | data.get(position + 2) & 0xFF;
+                        event = TEMPO_EVENT;
+                        return true;
+                    }
+                } else if (status >= 0xF0) {
+                    final int length = getVariableLength(data);
+                    data.position(data.position() + length);
+                    runningStatus = 0;
+                } else {
+                    runningStatus = status;
+                    final int data1 = data.get() & 0x7F;
+                    final int data2 = MidiDecoder.dataLength(status) == 2 ? data.get() & 0x7F : 0;
+                    event = status << 16 | data1 << 8 | data2;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param buffer buffer positioned at a variable length quantity
+     * @return the quantity
+     */
+    private static int getVariableLength(final ByteBuffer buffer) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            final int b = buffer.get() & 0xFF;
+            value = value << 7 | b & 0x7F;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Variable length quantity longer than 4 bytes");
+    }
+}
@@ -1,6 +1,9 @@
 package sample.models.midi;
 
 import javafx.scene.control.Button;
+import sample.models.Note;
+import sample.models.chords.ChordRecognizer;
+import sample.models.scales.KeyDetector;
 
 import javax.sound.midi.MidiDevice;
 import javax.sound.midi.MidiSystem;
@@ -8,56 +11,120 @@ import javax.sound.midi.MidiMessage;
 import javax.sound.midi.MidiUnavailableException;
 import javax.sound.midi.Receiver;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
  * Class to handle midi events.
+ * Runs on the Java Sound MIDI thread: messages are decoded by a MidiDecoder,
+ * and the note, controller and pitch bend events are packed into a lock-free
+ * queue, from which the KeyboardAnimator updates the keyboard display once
+ * per JavaFX pulse.
  */
 public final class MidiInputReceiver implements Receiver {
     public static final Logger LOGGER = Logger.getLogger(MidiInputReceiver.class.getName());
-    private static final String BUTTON_ORIGINAL_STYLE = new Button().getStyle();
 
     /**
      * name of the receiver.
      */
     private final String name;
 
-    private final LinkedList<Button> whiteKeys;
-    private final LinkedList<Button> keyBoard;
+    /**
+     * decoder of the messages received, keeping the keys held on the midi device.
+     */
+    private final MidiDecoder decoder;
+
+    /**
+     * forwards the decoded messages, allocated once.
+     */
+    private final MidiDecoder.Listener listener = this::onMessage;
+
+    /**
+     * time-stamp of the message being decoded.
+     */
+    private long timeStamp;
+
+    /**
+     * records the messages received, instead of logging each one.
+     */
+    private final MidiTrace trace = MidiTrace.shared();
+
+    /**
+     * records the messages received while started.
+     */
+    private final MidiRecorder recorder = new MidiRecorder();
+
+    /**
+     * events waiting for the keyboard display.
+     */
+    private final MidiEventQueue displayQueue = new MidiEventQueue();
+
+    /**
+     * applies the queued events to the keyboard display.
+     */
+    private final KeyboardAnimator keyboardAnimator;
+
+    /**
+     * recognizer of the Chord being held on the midi device.
+     */
+    private final ChordRecognizer chordRecognizer = new ChordRecognizer();
 
     /**
-     * Construct a receiver with the String argument as name.
+     * detector of the key being played on the midi device.
+     */
+    private final KeyDetector keyDetector = new KeyDetector();
+
+    /**
+     * Construct a receiver with the String argument as name,
+     * and starts updating the keyboard display on every JavaFX pulse.
      * @param receiverName name of receiver
      */
     public MidiInputReceiver(final String receiverName, LinkedList<Button> keyBoard, final LinkedList<Button> whiteKeys, LinkedList<Button> blackKeys) {
+        this(receiverName, keyBoard, whiteKeys, Note.LOWEST_KEY, MidiDecoder.ALL_CHANNELS);
+    }
+
+    /**
+     * Construct a receiver listening to some channels only, for a keyboard of any range.
+     * @param receiverName name of receiver
+     * @param keyBoard the key Buttons, lowest key first
+     * @param whiteKeys the white key Buttons
+     * @param lowestKey MIDI key number of the first Button
+     * @param channelMask bit c set to accept the messages of channel c, 0 - 15
+     */
+    public MidiInputReceiver(final String receiverName, final List<Button> keyBoard, final List<Button> whiteKeys,
+                             final int lowestKey, final int channelMask) {
         this.name = receiverName;
-        this.whiteKeys = whiteKeys;
-        this.keyBoard = keyBoard;
+        this.decoder = new MidiDecoder(channelMask);
+        this.keyboardAnimator = new KeyboardAnimator(displayQueue, keyBoard, whiteKeys, lowestKey);
+        this.keyboardAnimator.start();
     }
 
     /**
-     * Index of the last key pressed
-     * as captured from a physical midi device.
+     * @return the recognizer of the Chord being held on the midi device
      */
-    private int lastKeyPressedIndex = 0;
+    public ChordRecognizer getChordRecognizer() {
+        return chordRecognizer;
+    }
 
-    private void keyPressedReleased(final int key) {
-        Button button = keyBoard.get(key);
-        final boolean isWhiteKey = whiteKeys.contains(button);
-        if (button.getStyle().contains("blue")
-                || button.getStyle().contains("red")) {
-            if (isWhiteKey) {
-                button.setStyle(BUTTON_ORIGINAL_STYLE);
-            } else {
-                button.setStyle("-fx-background-color: black");
-            }
-        } else {
-            if (isWhiteKey) {
-                button.setStyle("-fx-background-color: blue");
-            } else {
-                button.setStyle("-fx-background-color: red");
-            }
-        }
+    /**
+     * @return the detector of the key being played on the midi device
+     */
+    public KeyDetector getKeyDetector() {
+        return keyDetector;
+    }
+
+    /**
+     * @return the animator of the keyboard display
+     */
+    public KeyboardAnimator getKeyboardAnimator() {
+        return keyboardAnimator;
+    }
+
+    /**
+     * @return the recorder of the messages received, to be started to record a performance
+     */
+    public MidiRecorder getRecorder() {
+        return recorder;
     }
 
     /**
@@ -66,22 +133,30 @@ public final class MidiInputReceiver implements Receiver {
      */
     @Override
     public void send(final MidiMessage msg, final long timeStamp) {
-        byte[] aMsg = msg.getMessage();
-        if ((lastKeyPressedIndex == 127 && aMsg[2] == 0)
-                || aMsg[2] == 127) {
-            lastKeyPressedIndex = aMsg[2];
-            return;
+        this.timeStamp = timeStamp;
+        decoder.decode(msg, listener);
+    }
+
+    private void onMessage(final int kind, final int status, final int data1, final int data2) {
+        if (kind == MidiDecoder.NOTE_ON) {
+            chordRecognizer.noteOn(data1);
+            keyDetector.noteOn(data1);
+        } else if (kind == MidiDecoder.NOTE_OFF) {
+            chordRecognizer.noteOff(data1);
+        } else if (kind == MidiDecoder.CONTROL_CHANGE
+                && (data1 == MidiDecoder.ALL_SOUND_OFF || data1 == MidiDecoder.ALL_NOTES_OFF)) {
+            chordRecognizer.reset();
         }
-        LOGGER.info("Message: " + aMsg[0] + ", " + aMsg[1] + ", " + aMsg[2]);
-        if (aMsg[1] - 21 < 0) {
-            return;
+        trace.midiReceived(status, data1, data2, timeStamp);
+        recorder.record(status, data1, data2, timeStamp);
+        if (!displayQueue.offer(MidiEventQueue.pack(status, data1, data2, timeStamp))) {
+            trace.eventDropped(displayQueue.dropped());
         }
-        keyPressedReleased(aMsg[1] - 21);
-        lastKeyPressedIndex = aMsg[2];
     }
 
     @Override
     public void close() {
+        keyboardAnimator.stop();
         closeAllTransmitters();
     }
 
@@ -0,0 +1,30 @@
+package sample.models.midi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a channel message received from the midi device.
+ */
+@Name("sample.MidiReceive")
+@Label("MIDI Receive")
+@Category({"Piano Midi Display", "MIDI"})
+@Description("Channel message received from the midi device")
+@StackTrace(false)
+final class MidiReceiveEvent extends jdk.jfr.Event {
+    @Label("Status")
+    int status;
+
+    @Label("Data 1")
+    int data1;
+
+    @Label("Data 2")
+    int data2;
+
+    @Label("Device Time-Stamp")
+    @Description("Time-stamp of the device in microseconds, -1 if unknown")
+    long deviceTimeStamp;
+}
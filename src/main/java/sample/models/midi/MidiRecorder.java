@@ -0,0 +1,178 @@
+package sample.models.midi;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Records the channel messages received from the midi device.
+ * Each event is a long packed like in the MidiEventQueue, its time-stamp in
+ * microseconds from the first event, appended to an array that doubles when
+ * full: an hour of dense playing takes a few MB and recording allocates
+ * nothing between two doublings.
+ * Events are recorded by one thread, the Java Sound MIDI thread; other
+ * threads may read the recording meanwhile and see the events recorded so far.
+ * Recordings are saved and loaded as Standard MIDI Files.
+ */
+public final class MidiRecorder {
+    /**
+     * initial number of events held.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 14;
+
+    /**
+     * events recorded, published after the count to the readers.
+     */
+    private volatile long[] events;
+
+    private volatile int count;
+
+    private volatile boolean recording;
+
+    /**
+     * time-stamp of the first event, in microseconds of the time base of the events.
+     */
+    private long origin;
+
+    /**
+     * time-stamp of the last event recorded, from the first event.
+     */
+    private long last;
+
+    /**
+     * Constructs a recorder, not recording.
+     */
+    public MidiRecorder() {
+        this.events = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param events packed events, sorted by time-stamp
+     */
+    private MidiRecorder(final long[] events) {
+        this.events = events;
+        this.count = events.length;
+        this.last = events.length > 0 ? MidiEventQueue.timeStamp(events[events.length - 1]) : 0;
+    }
+
+    /**
+     * Loads a recording, or any Standard MIDI File.
+     * @param file the file
+     * @return a recorder holding the channel messages of the file, not recording
+     * @throws IOException if the file cannot be read or is not a Standard MIDI File
+     */
+    public static MidiRecorder load(final Path file) throws IOException {
+        return new MidiRecorder(StandardMidiFile.read(file));
+    }
+
+    /**
+     * Forgets the events recorded and starts recording.
+     */
+    public void start() {
+        count = 0;
+        last = 0;
+        recording = true;
+    }
+
+    /**
+     * Stops recording, keeping the events recorded.
+     */
+    public void stop() {
+        recording = false;
+    }
+
+    /**
+     * @return true while recording
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records a channel message if recording; called by the recording thread only.
+     * @param status status byte
+     * @param data1 first data byte
+     * @param data2 second data byte, 0 if none
+     * @param timeStamp time-stamp of the device in microseconds, -1 if unknown to use the system clock
+     */
+    public void record(final int status, final int data1, final int data2, final long timeStamp) {
+        if (!recording) {
+            return;
+        }
+        final long micros = timeStamp >= 0 ? timeStamp : System.nanoTime() / 1000;
+        final int n = count;
+        if (n == 0) {
+            origin = micros;
+        }
+        // a device resetting its clock does not move back in time
+        last = Math.max(last, micros - origin);
+        long[] array = events;
+        if (n == array.length) {
+            array = Arrays.copyOf(array, n * 2);
+            events = array;
+        }
+        array[n] = MidiEventQueue.pack(status, data1, data2, last);
+        count = n + 1;
+    }
+
+    /**
+     * @return the number of events recorded
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the duration of the recording in microseconds, up to the last event
+     */
+    public long durationMicros() {
+        final int n = count;
+        return n > 0 ? MidiEventQueue.timeStamp(events[n - 1]) : 0;
+    }
+
+    /**
+     * @return a copy of the events recorded, packed like in the MidiEventQueue
+     */
+    public long[] events() {
+        final int n = count;
+        return Arrays.copyOf(events, n);
+    }
+
+    /**
+     * Saves the events recorded as a Standard MIDI File.
+     * @param file the file, created or replaced
+     * @param format StandardMidiFile.SINGLE_TRACK or StandardMidiFile.MULTI_TRACK, a track per channel
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file, final int format) throws IOException {
+        final int n = count;
+        StandardMidiFile.write(file, events, n, format);
+    }
+
+    /**
+     * @return a single track sequence of the events recorded, to be rendered by the OfflineRenderer
+     * @throws InvalidMidiDataException never with recorded events
+     */
+    public Sequence toSequence() throws InvalidMidiDataException {
+        final int n = count;
+        final long[] recorded = events;
+        final Sequence sequence = new Sequence(Sequence.PPQ, StandardMidiFile.RESOLUTION);
+        final Track track = sequence.createTrack();
+        final int tempo = StandardMidiFile.DEFAULT_TEMPO;
+        track.add(new MidiEvent(new MetaMessage(0x51, new byte[] {(byte) (tempo >> 16), (byte) (tempo >> 8), (byte) tempo}, 3), 0));
+        final long microsPerTick = tempo / StandardMidiFile.RESOLUTION;
+        for (int i = 0; i < n; i++) {
+            final long event = recorded[i];
+            final ShortMessage message = new ShortMessage(MidiEventQueue.status(event),
+                    MidiEventQueue.data1(event) & 0x7F, MidiEventQueue.data2(event) & 0x7F);
+            track.add(new MidiEvent(message, (MidiEventQueue.timeStamp(event) + microsPerTick / 2) / microsPerTick));
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,222 @@
+package sample.models.midi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Low overhead trace of the MIDI to display and sound pipeline.
+ * Every record is two longs written into a preallocated ring, so recording
+ * never allocates nor locks: the time in nanoseconds, then the type and two
+ * values. The ring keeps the latest records and is dumped as text on demand,
+ * or to the log when an error is recorded.
+ * Each record is also committed as a JFR event when a Flight Recording is
+ * running: sample.MidiReceive, sample.KeyboardApply and sample.AudioStart.
+ * Records are written by any thread; a dump taken while threads record may
+ * show a record being overwritten.
+ */
+public final class MidiTrace {
+    private static final Logger LOGGER = Logger.getLogger(MidiTrace.class.getName());
+
+    /**
+     * default number of records kept.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * types of records.
+     */
+    public static final int MIDI_RECEIVE = 1;
+    public static final int KEYBOARD_APPLY = 2;
+    public static final int AUDIO_START = 3;
+    public static final int EVENT_DROPPED = 4;
+    public static final int ERROR = 5;
+
+    private static final String[] TYPE_NAMES = {"?", "midi-receive", "keyboard-apply", "audio-start", "event-dropped", "error"};
+
+    /**
+     * sources of the sound of an audio start.
+     */
+    public static final int SOURCE_BANK = 0;
+    public static final int SOURCE_SYNTH = 1;
+    public static final int SOURCE_FILE = 2;
+
+    private static final String[] SOURCE_NAMES = {"bank", "synth", "file"};
+
+    /**
+     * two longs per record.
+     */
+    private final long[] records;
+    private final int mask;
+
+    /**
+     * number of records ever written.
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * @param capacity number of records kept, a power of 2
+     */
+    public MidiTrace(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of 2: " + capacity);
+        }
+        this.records = new long[capacity * 2];
+        this.mask = capacity - 1;
+    }
+
+    private static final class Holder {
+        private static final MidiTrace SHARED = new MidiTrace(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @return the trace shared by the application
+     */
+    public static MidiTrace shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * @param type type of the record
+     * @param a first value, 24 bits
+     * @param b second value, 32 bits
+     */
+    private void record(final int type, final int a, final long b) {
+        final int slot = ((int) written.getAndIncrement() & mask) * 2;
+        records[slot] = System.nanoTime();
+        records[slot + 1] = (long) type << 56 | (long) (a & 0xFFFFFF) << 32 | b & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Records a channel message received from the midi device.
+     * @param status status byte
+     * @param data1 first data byte
+     * @param data2 second data byte
+     * @param timeStamp time-stamp of the device in microseconds, -1 if unknown, kept modulo 2^32 in the ring
+     */
+    public void midiReceived(final int status, final int data1, final int data2, final long timeStamp) {
+        record(MIDI_RECEIVE, (status & 0xFF) << 16 | (data1 & 0xFF) << 8 | data2 & 0xFF, timeStamp);
+        final MidiReceiveEvent event = new MidiReceiveEvent();
+        if (event.isEnabled()) {
+            event.status = status & 0xFF;
+            event.data1 = data1 & 0xFF;
+            event.data2 = data2 & 0xFF;
+            event.deviceTimeStamp = timeStamp;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the events of a frame applied to the keyboard display.
+     * @param events number of events applied
+     * @param changedKeys number of keys restyled
+     * @param startNanos System.nanoTime() when applying started
+     */
+    public void keyboardApplied(final int events, final int changedKeys, final long startNanos) {
+        final long end = System.nanoTime();
+        record(KEYBOARD_APPLY, events, (long) changedKeys << 24 | Math.min(end - startNanos, 0xFFFFFF));
+        final KeyboardApplyEvent event = new KeyboardApplyEvent();
+        if (event.isEnabled()) {
+            event.events = events;
+            event.changedKeys = changedKeys;
+            event.applyNanos = end - startNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the start of a note being played.
+     * @param key MIDI key number
+     * @param source SOURCE_BANK, SOURCE_SYNTH or SOURCE_FILE
+     * @param startNanos System.nanoTime() when the note was asked for
+     */
+    public void audioStarted(final int key, final int source, final long startNanos) {
+        final long latency = System.nanoTime() - startNanos;
+        record(AUDIO_START, key << 8 | source, Math.min(latency, 0xFFFFFFFFL));
+        final AudioStartEvent event = new AudioStartEvent();
+        if (event.isEnabled()) {
+            event.key = key;
+            event.source = SOURCE_NAMES[source];
+            event.latencyNanos = latency;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records events dropped because the keyboard display lagged.
+     * @param dropped number of events dropped so far
+     */
+    public void eventDropped(final long dropped) {
+        record(EVENT_DROPPED, 0, dropped);
+    }
+
+    /**
+     * Records an error, then logs the dump of the trace leading to it.
+     * @param context what was being done
+     * @param error the error
+     */
+    public void error(final String context, final Throwable error) {
+        record(ERROR, 0, 0);
+        LOGGER.log(Level.WARNING, context + ", trace:" + System.lineSeparator() + dump(), error);
+    }
+
+    /**
+     * @return the number of records ever written
+     */
+    public long recordCount() {
+        return written.get();
+    }
+
+    /**
+     * @return the records kept, oldest first, one per line
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        dump(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Writes the records kept, oldest first, one per line.
+     * The time of a record is in microseconds before the last one.
+     * @param out receives the text
+     */
+    public void dump(final Appendable out) {
+        final long end = written.get();
+        final long start = Math.max(0, end - (mask + 1));
+        final long last = end > 0 ? records[(int) ((end - 1) & mask) * 2] : 0;
+        try {
+            for (long i = start; i < end; i++) {
+                final int slot = (int) (i & mask) * 2;
+                final long time = records[slot];
+                final long word = records[slot + 1];
+                final int type = (int) (word >>> 56);
+                final int a = (int) (word >>> 32) & 0xFFFFFF;
+                final long b = word & 0xFFFFFFFFL;
+                out.append(String.format("%10.1f us %-14s ", (time - last) / 1e3, TYPE_NAMES[type < TYPE_NAMES.length ? type : 0]));
+                switch (type) {
+                    case MIDI_RECEIVE:
+                        out.append(String.format("%02X %d %d at %d us", a >>> 16, a >>> 8 & 0xFF, a & 0xFF, (int) b));
+                        break;
+                    case KEYBOARD_APPLY:
+                        out.append(String.format("%d events, %d keys in %d ns", a, b >>> 24, b & 0xFFFFFF));
+                        break;
+                    case AUDIO_START:
+                        out.append(String.format("key %d from %s after %d ns", a >>> 8,
+                                SOURCE_NAMES[Math.min(a & 0xFF, SOURCE_NAMES.length - 1)], b));
+                        break;
+                    case EVENT_DROPPED:
+                        out.append(String.format("%d dropped", b));
+                        break;
+                    default:
+                        break;
+                }
+                out.append(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package sample.models.midi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes Standard MIDI Files of channel messages packed like in
+ * the MidiEventQueue, their time-stamp in microseconds from the start:
+ * timeStamp &lt;&lt; 24 | status &lt;&lt; 16 | data1 &lt;&lt; 8 | data2.
+ * Files are written at 1000 ticks per quarter note and 120 beats per minute,
+ * a tick every 500 microseconds.
+ * Files are read through a MidiFileStream.
+ */
+public final class StandardMidiFile {
+    /**
+     * format of a file with a single track.
+     */
+    public static final int SINGLE_TRACK = 0;
+
+    /**
+     * format of a file with a tempo track then a track per channel.
+     */
+    public static final int MULTI_TRACK = 1;
+
+    /**
+     * ticks per quarter note of the files written.
+     */
+    public static final int RESOLUTION = 1000;
+
+    /**
+     * tempo of the files written, and of files without tempo event, in microseconds per quarter note.
+     */
+    public static final int DEFAULT_TEMPO = 500_000;
+
+    /**
+     * microseconds per tick of the files written.
+     */
+    private static final int MICROS_PER_TICK = DEFAULT_TEMPO / RESOLUTION;
+
+    private static final int HEADER_SIZE = 14;
+    private static final int CHUNK_HEADER_SIZE = 8;
+    private static final int META = 0xFF;
+    private static final int TEMPO = 0x51;
+    private static final int END_OF_TRACK = 0x2F;
+
+    private StandardMidiFile() { }
+
+    /**
+     * Creates or replaces a Standard MIDI File.
+     * @param file the file
+     * @param events packed channel messages, sorted by time-stamp
+     * @param count number of events to write
+     * @param format SINGLE_TRACK or MULTI_TRACK
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Path file, final long[] events, final int count, final int format) throws IOException {
+        if (format != SINGLE_TRACK && format != MULTI_TRACK) {
+            throw new IllegalArgumentException("Unsupported format " + format);
+        }
+        final List<ByteBuffer> tracks = new ArrayList<>();
+        if (format == SINGLE_TRACK) {
+            tracks.add(encodeTrack(events, count, -1, true));
+        } else {
+            tracks.add(encodeTrack(events, 0, -1, true));
+            int channels = 0;
+            for (int i = 0; i < count; i++) {
+                channels |= 1 << (MidiEventQueue.status(events[i]) & 0x0F);
+            }
+            for (int channel = 0; channel < 16; channel++) {
+                if ((channels >> channel & 1) != 0) {
+                    tracks.add(encodeTrack(events, count, channel, false));
+                }
+            }
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put("MThd".getBytes(StandardCharsets.US_ASCII))
+                .putInt(6)
+                .putShort((short) format)
+                .putShort((short) tracks.size())
+                .putShort((short) RESOLUTION)
+                .flip();
+        final ByteBuffer[] buffers = new ByteBuffer[tracks.size() + 1];
+        buffers[0] = header;
+        for (int i = 0; i < tracks.size(); i++) {
+            buffers[i + 1] = tracks.get(i);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * @param events packed channel messages, sorted by time-stamp
+     * @param count number of events
+     * @param channel channel of the events encoded, -1 for every channel
+     * @param tempo true to start with the tempo
+     * @return the track chunk, ready to be written
+     */
+    private static ByteBuffer encodeTrack(final long[] events, final int count, final int channel, final boolean tempo) {
+        // a delta of at most 4 bytes and 3 bytes of message per event
+        ByteBuffer track = ByteBuffer.allocate(CHUNK_HEADER_SIZE + 7 + count * 7 + 4);
+        track.put("MTrk".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+        if (tempo) {
+            track.put((byte) 0).put((byte) META).put((byte) TEMPO).put((byte) 3)
+                    .put((byte) (DEFAULT_TEMPO >> 16)).put((byte) (DEFAULT_TEMPO >> 8)).put((byte) DEFAULT_TEMPO);
+        }
+        long lastTick = 0;
+        for (int i = 0; i < count; i++) {
+            final int status = MidiEventQueue.status(events[i]);
+            if (status < 0x80 || status >= 0xF0 || channel >= 0 && (status & 0x0F) != channel) {
+                continue;
+            }
+            final long tick = Math.max(lastTick, (MidiEventQueue.timeStamp(events[i]) + MICROS_PER_TICK / 2) / MICROS_PER_TICK);
+            putVariableLength(track, tick - lastTick);
+            lastTick = tick;
+            track.put((byte) status).put((byte) (MidiEventQueue.data1(events[i]) & 0x7F));
+            if (MidiDecoder.dataLength(status) == 2) {
+                track.put((byte) (MidiEventQueue.data2(events[i]) & 0x7F));
+            }
+        }
+        track.put((byte) 0).put((byte) META).put((byte) END_OF_TRACK).put((byte) 0);
+        track.putInt(4, track.position() - CHUNK_HEADER_SIZE);
+        return track.flip();
+    }
+
+    /**
+     * @param buffer receives the quantity, 1 to 4 bytes
+     * @param value quantity, less than 2^28
+     */
+    private static void putVariableLength(final ByteBuffer buffer, final long value) {
+        final int quantity = (int) Math.min(value, 0x0FFFFFFF);
+        for (int shift = 21; shift > 0; shift -= 7) {
+            if (quantity >>> shift != 0) {
+                buffer.put((byte) (0x80 | quantity >>> shift & 0x7F));
+            }
+        }
+        buffer.put((byte) (quantity & 0x7F));
+    }
+
+    /**
+     * Reads the channel messages of a Standard MIDI File of format 0 or 1.
+     * @param file the file
+     * @return the events sorted by time-stamp, simultaneous ones in track order
+     * @throws IOException if the file cannot be read or is not a Standard MIDI File
+     */
+    public static long[] read(final Path file) throws IOException {
+        final MidiFileStream stream = MidiFileStream.open(file);
+        long[] events = new long[1024];
+        int count = 0;
+        try {
+            for (long event = stream.next(); event != MidiFileStream.END; event = stream.next()) {
+                if (count == events.length) {
+                    events = Arrays.copyOf(events, count * 2);
+                }
+                events[count++] = event;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return Arrays.copyOf(events, count);
+    }
+}
@@ -0,0 +1,293 @@
+package sample.models.scales;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import sample.models.Utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Detects the key being played from note-on events.
+ * Notes are accumulated in a pitch class histogram where older notes decay
+ * exponentially, and the histogram is correlated against every ScaleType
+ * rooted on each of the 12 pitch classes: Krumhansl-Kessler profiles for
+ * the Major and Minor Scales, the Scale intervals for the others.
+ * Decay is applied lazily by growing the weight of new notes, and the
+ * correlations are updated from the single bin that changed, so a note
+ * costs one multiply-add per candidate whatever the history length.
+ * Events are expected from a single thread (the MIDI thread); the result is
+ * published to {@link #matchProperty()} through the given Executor,
+ * the JavaFX Application Thread by default.
+ */
+public final class KeyDetector {
+    /**
+     * Krumhansl-Kessler major key profile, from the tonic.
+     */
+    private static final double[] MAJOR_PROFILE = {
+            6.35, 2.23, 3.48, 2.33, 4.38, 4.09, 2.52, 5.19, 2.39, 3.66, 2.29, 2.88
+    };
+
+    /**
+     * Krumhansl-Kessler minor key profile, from the tonic.
+     */
+    private static final double[] MINOR_PROFILE = {
+            6.33, 2.68, 3.52, 5.38, 2.60, 3.53, 2.54, 4.75, 3.98, 2.69, 3.34, 3.17
+    };
+
+    /**
+     * default number of notes after which a note counts half.
+     */
+    public static final int DEFAULT_HALF_LIFE = 32;
+
+    /**
+     * minimum number of distinct pitch classes played before a key is reported.
+     */
+    private static final int MIN_PITCH_CLASSES = 3;
+
+    /**
+     * weight of a new note past which the histogram is rescaled.
+     */
+    private static final double RESCALE_THRESHOLD = 1e12;
+
+    /**
+     * ScaleTypes with a profile; the Chromatic Scale has no tonal center and is left out.
+     */
+    private static final ScaleType[] TYPES = Arrays.stream(ScaleType.values())
+            .filter(type -> type != ScaleType.CHROMATIC_SCALE)
+            .toArray(ScaleType[]::new);
+
+    /**
+     * number of candidates, one per ScaleType and root.
+     */
+    private static final int NUM_CANDIDATES = TYPES.length * Utilities.NUM_NOTE_QUALITIES;
+
+    /**
+     * centered and normalized profile value of each pitch class for each candidate,
+     * indexed by pitchClass * NUM_CANDIDATES + candidate.
+     */
+    private static final double[] WEIGHTS = new double[Utilities.NUM_NOTE_QUALITIES * NUM_CANDIDATES];
+
+    static {
+        for (int t = 0; t < TYPES.length; t++) {
+            final double[] profile = profile(TYPES[t]);
+            double mean = 0;
+            for (double value : profile) {
+                mean += value / profile.length;
+            }
+            double norm = 0;
+            for (double value : profile) {
+                norm += (value - mean) * (value - mean);
+            }
+            norm = Math.sqrt(norm);
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                final int candidate = t * Utilities.NUM_NOTE_QUALITIES + root;
+                for (int interval = 0; interval < Utilities.NUM_NOTE_QUALITIES; interval++) {
+                    final int pitchClass = (root + interval) % Utilities.NUM_NOTE_QUALITIES;
+                    WEIGHTS[pitchClass * NUM_CANDIDATES + candidate] = (profile[interval] - mean) / norm;
+                }
+            }
+        }
+    }
+
+    private static double[] profile(final ScaleType type) {
+        switch (type) {
+            case MAJOR_SCALE -> {
+                return MAJOR_PROFILE;
+            }
+            case MINOR_SCALE -> {
+                return MINOR_PROFILE;
+            }
+            default -> {
+                double[] profile = new double[Utilities.NUM_NOTE_QUALITIES];
+                for (int interval = 0; interval < profile.length; interval++) {
+                    profile[interval] = (type.pitchClassMask() >>> interval) & 1;
+                }
+                return profile;
+            }
+        }
+    }
+
+    /**
+     * factor by which the weight of new notes grows at each note.
+     */
+    private final double growth;
+
+    /**
+     * weight of the next note.
+     */
+    private double weight = 1;
+
+    /**
+     * decayed number of notes of each pitch class, scaled by the current weight.
+     */
+    private final double[] histogram = new double[Utilities.NUM_NOTE_QUALITIES];
+
+    /**
+     * sum of the histogram.
+     */
+    private double sum;
+
+    /**
+     * sum of the squares of the histogram.
+     */
+    private double sumOfSquares;
+
+    /**
+     * dot product of the histogram with the weights of each candidate.
+     */
+    private final double[] dots = new double[NUM_CANDIDATES];
+
+    /**
+     * pitch classes played since the last reset.
+     */
+    private int playedPitchClasses;
+
+    /**
+     * the latest match, null until enough notes were played.
+     */
+    private volatile KeyMatch match;
+
+    /**
+     * correlation of the histogram with the latest match, between -1 and 1.
+     */
+    private volatile double correlation;
+
+    private final ReadOnlyObjectWrapper<KeyMatch> matchProperty = new ReadOnlyObjectWrapper<>(this, "match");
+    private final Executor publisher;
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private final Runnable publishTask = this::publish;
+
+    /**
+     * Constructs a KeyDetector publishing to the JavaFX Application Thread.
+     */
+    public KeyDetector() {
+        this(DEFAULT_HALF_LIFE, Platform::runLater);
+    }
+
+    /**
+     * @param halfLife number of notes after which a note counts half
+     * @param publisher Executor on which {@link #matchProperty()} is updated
+     */
+    public KeyDetector(final int halfLife, final Executor publisher) {
+        if (halfLife <= 0) {
+            throw new IllegalArgumentException("Invalid half life: " + halfLife);
+        }
+        this.growth = Math.pow(2, 1.0 / halfLife);
+        this.publisher = publisher;
+    }
+
+    /**
+     * @param key MIDI key number pressed
+     * @return the key now detected, null if not enough notes were played
+     */
+    public KeyMatch noteOn(final int key) {
+        if (key < 0) {
+            return match;
+        }
+        final int pitchClass = key % Utilities.NUM_NOTE_QUALITIES;
+        final double w = weight;
+        final double previous = histogram[pitchClass];
+        histogram[pitchClass] = previous + w;
+        sum += w;
+        sumOfSquares += w * (2 * previous + w);
+        final int base = pitchClass * NUM_CANDIDATES;
+        for (int candidate = 0; candidate < NUM_CANDIDATES; candidate++) {
+            dots[candidate] += w * WEIGHTS[base + candidate];
+        }
+        playedPitchClasses |= 1 << pitchClass;
+        weight = w * growth;
+        if (weight > RESCALE_THRESHOLD) {
+            rescale();
+        }
+        return update();
+    }
+
+    /**
+     * Divides the histogram by the current weight and recomputes the
+     * correlations from it, which also discards accumulated rounding errors.
+     */
+    private void rescale() {
+        sum = 0;
+        sumOfSquares = 0;
+        Arrays.fill(dots, 0);
+        for (int pitchClass = 0; pitchClass < Utilities.NUM_NOTE_QUALITIES; pitchClass++) {
+            final double value = histogram[pitchClass] / weight;
+            histogram[pitchClass] = value;
+            sum += value;
+            sumOfSquares += value * value;
+            final int base = pitchClass * NUM_CANDIDATES;
+            for (int candidate = 0; candidate < NUM_CANDIDATES; candidate++) {
+                dots[candidate] += value * WEIGHTS[base + candidate];
+            }
+        }
+        weight = 1;
+    }
+
+    /**
+     * Forgets every note played.
+     */
+    public void reset() {
+        weight = 1;
+        sum = 0;
+        sumOfSquares = 0;
+        playedPitchClasses = 0;
+        Arrays.fill(histogram, 0);
+        Arrays.fill(dots, 0);
+        update();
+    }
+
+    private KeyMatch update() {
+        final KeyMatch previous = match;
+        KeyMatch current = null;
+        double best = 0;
+        if (Integer.bitCount(playedPitchClasses) >= MIN_PITCH_CLASSES) {
+            int bestCandidate = 0;
+            for (int candidate = 1; candidate < NUM_CANDIDATES; candidate++) {
+                if (dots[candidate] > dots[bestCandidate]) {
+                    bestCandidate = candidate;
+                }
+            }
+            final double deviation = Math.sqrt(Math.max(sumOfSquares - sum * sum / Utilities.NUM_NOTE_QUALITIES, 0));
+            best = deviation == 0 ? 0 : dots[bestCandidate] / deviation;
+            current = KeyMatch.of(TYPES[bestCandidate / Utilities.NUM_NOTE_QUALITIES],
+                    bestCandidate % Utilities.NUM_NOTE_QUALITIES);
+        }
+        correlation = best;
+        if (current != previous) {
+            match = current;
+            if (publishPending.compareAndSet(false, true)) {
+                publisher.execute(publishTask);
+            }
+        }
+        return current;
+    }
+
+    private void publish() {
+        publishPending.set(false);
+        matchProperty.set(match);
+    }
+
+    /**
+     * @return the key currently detected, null if not enough notes were played
+     */
+    public KeyMatch getMatch() {
+        return match;
+    }
+
+    /**
+     * @return the correlation between the played notes and the detected key, between -1 and 1
+     */
+    public double getCorrelation() {
+        return correlation;
+    }
+
+    /**
+     * @return the key currently detected, updated on the publishing Executor
+     */
+    public ReadOnlyObjectProperty<KeyMatch> matchProperty() {
+        return matchProperty.getReadOnlyProperty();
+    }
+}
@@ -0,0 +1,83 @@
+package sample.models.scales;
+
+import sample.models.Note;
+import sample.models.NoteNames;
+import sample.models.Utilities;
+
+import static sample.models.NotesNamingMode.FLAT_MODE;
+
+/**
+ * Immutable result of detecting a key: the ScaleType and its root.
+ * Every possible match is pre-built, so detectors hand out shared instances.
+ */
+public final class KeyMatch {
+    /**
+     * pre-built matches indexed by type * 12 + root.
+     */
+    private static final KeyMatch[] MATCHES = new KeyMatch[ScaleType.values().length * Utilities.NUM_NOTE_QUALITIES];
+
+    static {
+        for (ScaleType type : ScaleType.values()) {
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                MATCHES[type.ordinal() * Utilities.NUM_NOTE_QUALITIES + root] = new KeyMatch(type, root);
+            }
+        }
+    }
+
+    /**
+     * type of the Scale.
+     */
+    private final ScaleType type;
+
+    /**
+     * pitch class of the root, 0 being C.
+     */
+    private final int rootPitchClass;
+
+    private KeyMatch(final ScaleType type, final int rootPitchClass) {
+        this.type = type;
+        this.rootPitchClass = rootPitchClass;
+    }
+
+    /**
+     * @param type type of the Scale
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @return the shared KeyMatch
+     */
+    public static KeyMatch of(final ScaleType type, final int rootPitchClass) {
+        if (rootPitchClass < 0 || rootPitchClass >= Utilities.NUM_NOTE_QUALITIES) {
+            throw new IllegalArgumentException("Invalid KeyMatch: " + type + " " + rootPitchClass);
+        }
+        return MATCHES[type.ordinal() * Utilities.NUM_NOTE_QUALITIES + rootPitchClass];
+    }
+
+    /**
+     * @return the type of the Scale
+     */
+    public ScaleType getType() {
+        return type;
+    }
+
+    /**
+     * @return the pitch class of the root, 0 being C
+     */
+    public int getRootPitchClass() {
+        return rootPitchClass;
+    }
+
+    /**
+     * @return the quality of the root in the current naming mode
+     */
+    public String rootName() {
+        final int quality = (rootPitchClass + 3) % Utilities.NUM_NOTE_QUALITIES;
+        return Note.notesNamingMode == FLAT_MODE ? NoteNames.FLAT_MODE_NAMES[quality] : NoteNames.SHARP_MODE_NAMES[quality];
+    }
+
+    /**
+     * @return a String representation of the KeyMatch
+     */
+    @Override
+    public String toString() {
+        return rootName() + " " + type;
+    }
+}
@@ -1,71 +1,146 @@
 package sample.models.scales;
 
-import javafx.util.Pair;
 import sample.models.Note;
+import sample.models.NoteNames;
 import sample.models.NotesNamingMode;
 import sample.models.Utilities;
-import sample.models.exceptions.InvalidNoteException;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
- * A class representing the Key Signature of a scale.
+ * Key Signatures of the Major Scales, in both naming modes.
  * Find info on key signatures here: https://en.wikipedia.org/wiki/Key_signature
+ * The naming mode decides how a black key root is spelled (Db or C#) and so
+ * whether its signature uses flats or sharps; white key roots always use
+ * their usual signature. Accidentals follow the circle of fifths: F# major
+ * has E#, and signatures past 7 sharps or flats use double sharps ("x")
+ * or double flats ("bb").
+ * The tables are built on first use.
  */
 public final class KeySignatureStore {
     /**
-     * The list of sharps or flats in the key signature.
+     * letters of the sharps of a signature, in order.
      */
-    public static final List<Pair<String, String[]>> accidentals;
+    private static final String[] SHARP_LETTERS = {"F", "C", "G", "D", "A", "E", "B"};
 
-    static {
-        try {
-            accidentals = generateAccidentals();
-        } catch (InvalidNoteException e) {
-            throw new RuntimeException(e);
+    /**
+     * letters of the flats of a signature, in order.
+     */
+    private static final String[] FLAT_LETTERS = {"B", "E", "A", "D", "G", "C", "F"};
+
+    /**
+     * number of letters in a signature.
+     */
+    private static final int NUM_LETTERS = 7;
+
+    /**
+     * number of half notes in a perfect fifth.
+     */
+    private static final int FIFTH = 7;
+
+    /**
+     * offset of C in the NoteNames arrays.
+     */
+    private static final int C_TO_A_OFFSET = 3;
+
+    private KeySignatureStore() { }
+
+    private static final class Tables {
+        /**
+         * signed number of accidentals, sharps positive and flats negative,
+         * indexed by mode * 12 + root pitch class.
+         */
+        private static final byte[] FIFTHS = new byte[NotesNamingMode.values().length * Utilities.NUM_NOTE_QUALITIES];
+
+        /**
+         * accidentals of each signature, indexed like FIFTHS.
+         */
+        private static final List<List<String>> ACCIDENTALS;
+
+        static {
+            List<List<String>> accidentals = new ArrayList<>(FIFTHS.length);
+            for (NotesNamingMode mode : NotesNamingMode.values()) {
+                for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                    final int fifths = computeFifths(root, mode);
+                    FIFTHS[index(root, mode)] = (byte) fifths;
+                    accidentals.add(spell(fifths));
+                }
+            }
+            ACCIDENTALS = List.copyOf(accidentals);
         }
     }
 
-    private static List<Pair<String, String[]>> generateAccidentals() throws InvalidNoteException {
-        List<Pair<String, String[]>> accidentals = new ArrayList<>();
-
-        List<Note> scaleRoots = (Note.notesNamingMode == NotesNamingMode.FLAT_MODE
-                ? Utilities.NOTE_QUALITIES_FLAT : Utilities.NOTE_QUALITIES_SHARP)
-                .subList(0, Utilities.NOTE_QUALITIES_FLAT.size())
-                .stream().map(noteName -> {
-            try {
-                return new Note(noteName + "1");
-            } catch (InvalidNoteException e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
+    private static int index(final int rootPitchClass, final NotesNamingMode mode) {
+        if (rootPitchClass < 0 || rootPitchClass >= Utilities.NUM_NOTE_QUALITIES) {
+            throw new IllegalArgumentException("Invalid root pitch class: " + rootPitchClass);
+        }
+        return mode.ordinal() * Utilities.NUM_NOTE_QUALITIES + rootPitchClass;
+    }
 
-        List<Scale> scales = scaleRoots.stream().map(note -> {
-            try {
-                return new Scale(ScaleType.MAJOR_SCALE, note);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
-
-        for(Scale scale : scales) {
-            Note[] uniqueNotes = Arrays.copyOfRange(scale.notes(), 0, scale.notes().length - 1);
-            String[] scaleAccidentals = Arrays.stream(uniqueNotes)
-                    .filter(note -> note.getName().length() > 2)
-                    .map(Note::noteQuality).toArray(String[]::new);
-            accidentals.add(new Pair<>(scale.notes()[0].noteQuality(), scaleAccidentals));
+    /**
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @param mode naming mode of the root
+     * @return the signed number of accidentals, sharps positive and flats negative
+     */
+    private static int computeFifths(final int rootPitchClass, final NotesNamingMode mode) {
+        final int sharps = rootPitchClass * FIFTH % Utilities.NUM_NOTE_QUALITIES;
+        final boolean blackKey = NoteNames.FLAT_MODE_NAMES[(rootPitchClass + C_TO_A_OFFSET) % Utilities.NUM_NOTE_QUALITIES]
+                .length() > 1;
+        if (blackKey) {
+            return mode == NotesNamingMode.SHARP_MODE ? sharps : sharps - Utilities.NUM_NOTE_QUALITIES;
+        }
+        return sharps > NUM_LETTERS ? sharps - Utilities.NUM_NOTE_QUALITIES : sharps;
+    }
+
+    private static List<String> spell(final int fifths) {
+        final int count = Math.abs(fifths);
+        final String[] letters = fifths > 0 ? SHARP_LETTERS : FLAT_LETTERS;
+        final String single = fifths > 0 ? "#" : "b";
+        final String doubled = fifths > 0 ? "x" : "bb";
+        List<String> accidentals = new ArrayList<>(NUM_LETTERS);
+        for (int i = 0; i < Math.min(count, NUM_LETTERS); i++) {
+            accidentals.add(letters[i] + (i < count - NUM_LETTERS ? doubled : single));
         }
+        return List.copyOf(accidentals);
+    }
 
-        return accidentals;
+    /**
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @param mode naming mode of the root
+     * @return the signed number of accidentals of the Major Scale, sharps positive and flats negative
+     */
+    public static int fifths(final int rootPitchClass, final NotesNamingMode mode) {
+        return Tables.FIFTHS[index(rootPitchClass, mode)];
     }
 
+    /**
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @param mode naming mode of the root
+     * @return the accidentals of the Major Scale, in signature order
+     */
+    public static List<String> accidentals(final int rootPitchClass, final NotesNamingMode mode) {
+        return Tables.ACCIDENTALS.get(index(rootPitchClass, mode));
+    }
+
+    /**
+     * @param rootPitchClass pitch class of the root, 0 being C
+     * @return the accidentals of the Major Scale in the current naming mode, in signature order
+     */
+    public static List<String> accidentals(final int rootPitchClass) {
+        return accidentals(rootPitchClass, Note.notesNamingMode);
+    }
+
+    /**
+     * @return the Key Signatures of every Major Scale in the current naming mode
+     */
     public static String printKeySignatures() {
+        final NotesNamingMode mode = Note.notesNamingMode;
+        final String[] names = mode == NotesNamingMode.FLAT_MODE ? NoteNames.FLAT_MODE_NAMES : NoteNames.SHARP_MODE_NAMES;
         StringBuilder rep = new StringBuilder();
-        for (Pair<String, String[]> keySignature : accidentals) {
-            rep.append(keySignature.getKey()).append(": [ ");
-            for (String accidental : keySignature.getValue()) {
+        for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+            rep.append(names[(root + C_TO_A_OFFSET) % Utilities.NUM_NOTE_QUALITIES]).append(": [ ");
+            for (String accidental : accidentals(root, mode)) {
                 rep.append(accidental).append(" ");
             }
             rep.append("]\n");
@@ -2,13 +2,10 @@ package sample.models.scales;
 
 import sample.models.Invertable;
 import sample.models.Note;
+import sample.models.PitchSet;
 import sample.models.Transposable;
-import sample.models.Utilities;
 import sample.models.exceptions.InvalidNoteException;
 
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * Class representation of a Scale.
  */
@@ -23,16 +20,22 @@ public class Scale extends Transposable implements Invertable {
      */
     private final Note[] scaleNotes;
 
+    /**
+     * keys of the Notes making the Scale.
+     */
+    private final PitchSet scalePitches;
+
     /**
      * Constructs a Scale of the provided type,
      * rooted at the given Note.
      * @param scaleType type of the Scale
      * @param root root Note of the Scale
-     * @throws Exception when invalid ScaleType in encountered.
+     * @throws InvalidNoteException when a Scale Note is off the keyboard
      */
-    public Scale(final ScaleType scaleType, final Note root) throws Exception {
+    public Scale(final ScaleType scaleType, final Note root) throws InvalidNoteException {
         this.type = scaleType;
         this.scaleNotes = this.generateNotes(root);
+        this.scalePitches = PitchSet.of(scaleNotes);
     }
 
     /**
@@ -43,6 +46,14 @@ public class Scale extends Transposable implements Invertable {
         return scaleNotes;
     }
 
+    /**
+     * @return the keys of the Notes making the Scale.
+     */
+    @Override
+    public PitchSet pitchSet() {
+        return scalePitches;
+    }
+
     /**
      * @return the type of the Scale.
      */
@@ -51,37 +62,14 @@ public class Scale extends Transposable implements Invertable {
     }
 
     /**
-     * Generates the Notes of the Scale rooted at the given Note.
+     * Looks the Notes of the Scale rooted at the given Note up in the {@link ScaleAtlas}.
      * @param root root Note
      * @return the Scale Notes in array form
-     * @throws Exception when ScaleType provided in not valid
+     * @throws InvalidNoteException when a Scale Note is off the keyboard
      */
     @Override
-    public Note[] generateNotes(final Note root) throws Exception {
-        switch (type) {
-            case MAJOR_SCALE -> {
-                return MajorScale.generateScale(root);
-            }
-            case MINOR_SCALE -> {
-                return MinorScale.generateScale(root);
-            }
-            case MAJOR_PENTATONIC -> {
-                return MajorPentatonicScale.generateScale(root);
-            }
-            case MINOR_PENTATONIC -> {
-                return MinorPentatonicScale.generateScale(root);
-            }
-            case WHOLE_TONE -> {
-                return WholeToneScale.generateScale(root);
-            }
-            case CHINESE_SCALE -> {
-                return ChineseScale.generateScale(root);
-            }
-            case CHROMATIC_SCALE -> {
-                return ChromaticScale.generateScale(root);
-            }
-            default -> throw new Exception("Chord type is unrecognized or not yet implemented!");
-        }
+    public Note[] generateNotes(final Note root) throws InvalidNoteException {
+        return ScaleAtlas.get().notes(type, root.getKey(), ScaleMode.IONIAN);
     }
 
     /**
@@ -95,77 +83,93 @@ public class Scale extends Transposable implements Invertable {
     /**
      * @return the Notes of the Scale Dorian Mode
      */
-    public Note[] generateDorianMode() {
+    public Note[] generateDorianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.DORIAN);
     }
 
     /**
      * @return the Notes of the Scale Phrygian Mode
      */
-    public Note[] generatePhrygianMode() {
+    public Note[] generatePhrygianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.PHRYGIAN);
     }
 
     /**
      * @return the Notes of the Scale Lydian Mode
      */
-    public Note[] generateLydianMode() {
+    public Note[] generateLydianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.LYDYAN);
     }
 
     /**
      * @return the Notes of the Scale Mixolydian Mode
      */
-    public Note[] generateMixolydianMode() {
+    public Note[] generateMixolydianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.MIXOLYDIAN);
     }
 
     /**
      * @return the Notes of the Scale Aeolian Mode
      */
-    public Note[] generateAeolianMode() {
+    public Note[] generateAeolianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.AEOLIAN);
     }
 
     /**
      * @return the Notes of the Scale Locrian Mode
      */
-    public Note[] generateLocrianMode() {
+    public Note[] generateLocrianMode() throws InvalidNoteException {
         return generateMode(ScaleMode.LOCRIAN);
     }
 
     /**
      * @param mode mode of the scale
      * @return the Scale Notes with the given Mode
+     * @throws InvalidNoteException if a Note of the Mode is off the keyboard
      */
-    private Note[] generateMode(final ScaleMode mode) {
+    public Note[] generateMode(final ScaleMode mode) throws InvalidNoteException {
         return invert(mode.getValue());
     }
 
     /**
-     *
+     * Modes are looked up in the {@link ScaleAtlas}; later indices of the Chromatic Scale are computed.
      * @param index the index of the scale note to start mode from.
      * @return the Scale Notes starting from the index specified
+     * @throws InvalidNoteException if an inverted Note is off the keyboard
      */
     @Override
-    public Note[] invert(final int index) {
-        if (index >= scaleNotes.length) {
+    public Note[] invert(final int index) throws InvalidNoteException {
+        if (index <= 0 || index >= scaleNotes.length) {
             return scaleNotes;
         }
-        Note[] uniqueNotes = Arrays.copyOfRange(scaleNotes, 1, scaleNotes.length);
-        Note[] firstNotes = Arrays.copyOfRange(uniqueNotes, index - 1, uniqueNotes.length);
-        List<Note> lastNotes = Arrays.stream(Arrays.copyOfRange(uniqueNotes, 0, index - 1)).toList();
-        List<Note> sharpLastNotes = lastNotes.stream().map(note -> {
-            try {
-                return note.sharp(Utilities.NUM_NOTE_QUALITIES);
-            } catch (InvalidNoteException e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
-        Note[] invertedNotes = new Note[uniqueNotes.length];
-        System.arraycopy(firstNotes, 0, invertedNotes, 0, firstNotes.length);
-        System.arraycopy(sharpLastNotes.toArray(), 0, invertedNotes, firstNotes.length, lastNotes.size());
-        return invertedNotes;
+        final ScaleMode mode = ScaleAtlas.mode(index);
+        if (mode != null) {
+            return ScaleAtlas.get().notes(type, scaleNotes[0].getKey(), mode);
+        }
+        int[] keys = new int[scaleNotes.length - 1];
+        if (invert(index, keys) > 0) {
+            throw new InvalidNoteException("Scale inversion off the keyboard: " + this + " " + index);
+        }
+        Note[] notes = new Note[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            notes[i] = Note.of(keys[i]);
+        }
+        return notes;
+    }
+
+    /**
+     * Writes the keys of the mode starting at index into dest, without allocating.
+     * As with {@link #invert(int)}, the octave is left out for indices 1 to length - 1.
+     * @param index the index of the scale note to start mode from.
+     * @param dest buffer receiving the keys, at least as long as the Scale
+     * @return the number of keys that fell off the keyboard, 0 if all are valid
+     */
+    @Override
+    public int invert(final int index, final int[] dest) {
+        if (index <= 0 || index >= scaleNotes.length) {
+            return transpose(0, dest);
+        }
+        return rotateKeys(scaleNotes, 1, scaleNotes.length - 1, index - 1, dest);
     }
 
     /**
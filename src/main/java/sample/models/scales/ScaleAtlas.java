@@ -0,0 +1,207 @@
+package sample.models.scales;
+
+import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.Utilities;
+import sample.models.exceptions.InvalidNoteException;
+
+/**
+ * Precomputed table of every ScaleType, rooted at every key of the
+ * 88 keys keyboard, in every ScaleMode.
+ * Each entry is stored as packed key numbers (one byte per Note) and as
+ * the two longs of its PitchSet, so generating a Mode is an index computation.
+ * Entries with a Note off the keyboard are marked unavailable.
+ */
+public final class ScaleAtlas {
+    /**
+     * the ScaleModes by value.
+     */
+    private static final ScaleMode[] MODES = ScaleMode.values();
+
+    /**
+     * number of entries per ScaleType and root.
+     */
+    private static final int NUM_MODES = MODES.length;
+
+    /**
+     * index of the first entry of each ScaleType.
+     */
+    private final int[] entryBase = new int[ScaleType.values().length];
+
+    /**
+     * index in {@link #keys} of the first key of each ScaleType.
+     */
+    private final int[] keyBase = new int[ScaleType.values().length];
+
+    /**
+     * key numbers of the Notes of every entry, {@link ScaleType#size()} bytes per entry.
+     */
+    private final byte[] keys;
+
+    /**
+     * PitchSet bits of keys 0 - 63 of every entry, 0 for both halves if the entry is unavailable.
+     */
+    private final long[] lows;
+
+    /**
+     * PitchSet bits of keys 64 - 127 of every entry.
+     */
+    private final long[] highs;
+
+    private static final class Holder {
+        private static final ScaleAtlas INSTANCE = new ScaleAtlas();
+    }
+
+    /**
+     * @return the shared ScaleAtlas, built on first call
+     */
+    public static ScaleAtlas get() {
+        return Holder.INSTANCE;
+    }
+
+    private ScaleAtlas() {
+        int entries = 0;
+        int keyCount = 0;
+        for (ScaleType type : ScaleType.values()) {
+            entryBase[type.ordinal()] = entries;
+            keyBase[type.ordinal()] = keyCount;
+            entries += Utilities.NUMBER_OF_KEYS_88 * NUM_MODES;
+            keyCount += Utilities.NUMBER_OF_KEYS_88 * NUM_MODES * type.size();
+        }
+        keys = new byte[keyCount];
+        lows = new long[entries];
+        highs = new long[entries];
+
+        for (ScaleType type : ScaleType.values()) {
+            final int size = type.size();
+            final int uniqueNotes = size - 1;
+            for (int root = 0; root < Utilities.NUMBER_OF_KEYS_88; root++) {
+                final int rootKey = root + Note.LOWEST_KEY;
+                for (ScaleMode mode : MODES) {
+                    final int entry = entryBase[type.ordinal()] + root * NUM_MODES + mode.getValue();
+                    final int keyOffset = keyBase[type.ordinal()] + (root * NUM_MODES + mode.getValue()) * size;
+                    final int length = type.size(mode);
+                    long low = 0L;
+                    long high = 0L;
+                    boolean onKeyboard = true;
+                    for (int i = 0; i < length; i++) {
+                        final int interval;
+                        if (length == size) {
+                            interval = type.interval(i);
+                        } else {
+                            final int index = mode.getValue() - 1 + i;
+                            interval = index < uniqueNotes
+                                    ? type.interval(index + 1)
+                                    : type.interval(index - uniqueNotes + 1) + Utilities.NUM_NOTE_QUALITIES;
+                        }
+                        final int key = rootKey + interval;
+                        onKeyboard &= Note.isValidKey(key);
+                        keys[keyOffset + i] = (byte) key;
+                        if (key < Long.SIZE) {
+                            low |= 1L << key;
+                        } else {
+                            high |= 1L << key;
+                        }
+                    }
+                    if (onKeyboard) {
+                        lows[entry] = low;
+                        highs[entry] = high;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param type type of the Scale
+     * @param rootKey MIDI key number of the root
+     * @param mode mode of the Scale
+     * @return the index of the entry, -1 if the root is off the keyboard
+     */
+    private int entry(final ScaleType type, final int rootKey, final ScaleMode mode) {
+        if (!Note.isValidKey(rootKey)) {
+            return -1;
+        }
+        return entryBase[type.ordinal()] + (rootKey - Note.LOWEST_KEY) * NUM_MODES + mode.getValue();
+    }
+
+    private int keyOffset(final ScaleType type, final int rootKey, final ScaleMode mode) {
+        return keyBase[type.ordinal()] + ((rootKey - Note.LOWEST_KEY) * NUM_MODES + mode.getValue()) * type.size();
+    }
+
+    /**
+     * @param type type of the Scale
+     * @param rootKey MIDI key number of the root
+     * @param mode mode of the Scale
+     * @return true if every Note of the Mode is on the keyboard
+     */
+    public boolean isAvailable(final ScaleType type, final int rootKey, final ScaleMode mode) {
+        final int entry = entry(type, rootKey, mode);
+        return entry >= 0 && (lows[entry] | highs[entry]) != 0L;
+    }
+
+    /**
+     * @param type type of the Scale
+     * @param rootKey MIDI key number of the root
+     * @param mode mode of the Scale
+     * @return the keys of the Mode, {@link PitchSet#EMPTY} if the Mode is not available
+     */
+    public PitchSet pitchSet(final ScaleType type, final int rootKey, final ScaleMode mode) {
+        final int entry = entry(type, rootKey, mode);
+        return entry < 0 ? PitchSet.EMPTY : PitchSet.fromBits(lows[entry], highs[entry]);
+    }
+
+    /**
+     * Copies the key numbers of the Mode, lowest Note first.
+     * @param type type of the Scale
+     * @param rootKey MIDI key number of the root
+     * @param mode mode of the Scale
+     * @param dest array receiving the keys, at least {@link ScaleType#size()} long
+     * @return the number of keys copied, -1 if the Mode is not available
+     */
+    public int keys(final ScaleType type, final int rootKey, final ScaleMode mode, final int[] dest) {
+        if (!isAvailable(type, rootKey, mode)) {
+            return -1;
+        }
+        final int length = type.size(mode);
+        final int keyOffset = keyOffset(type, rootKey, mode);
+        for (int i = 0; i < length; i++) {
+            dest[i] = keys[keyOffset + i];
+        }
+        return length;
+    }
+
+    /**
+     * @param type type of the Scale
+     * @param rootKey MIDI key number of the root
+     * @param mode mode of the Scale
+     * @return the Notes of the Mode, lowest Note first
+     * @throws InvalidNoteException if a Note of the Mode is off the keyboard
+     */
+    public Note[] notes(final ScaleType type, final int rootKey, final ScaleMode mode) throws InvalidNoteException {
+        if (!isAvailable(type, rootKey, mode)) {
+            throw new InvalidNoteException("Scale off the keyboard: " + type + " " + rootKey + " " + mode);
+        }
+        final int keyOffset = keyOffset(type, rootKey, mode);
+        Note[] notes = new Note[type.size(mode)];
+        for (int i = 0; i < notes.length; i++) {
+            notes[i] = Note.of(keys[keyOffset + i]);
+        }
+        return notes;
+    }
+
+    /**
+     * @param index index of the Scale Note to start the Mode from
+     * @return the ScaleMode starting from that Note, null if there is none
+     */
+    static ScaleMode mode(final int index) {
+        return index >= 0 && index < NUM_MODES ? MODES[index] : null;
+    }
+
+    /**
+     * @return the number of entries, available or not
+     */
+    public int entries() {
+        return lows.length;
+    }
+}
@@ -0,0 +1,163 @@
+package sample.models.scales;
+
+import sample.models.PitchSet;
+import sample.models.Utilities;
+
+import java.util.Arrays;
+
+/**
+ * Reverse index from a set of pitch classes to the Scales containing them.
+ * For each of the 4096 pitch class masks, every ScaleType rooted on each of
+ * the 12 pitch classes is ranked by the number of the pitch classes falling
+ * outside the Scale, so a query copies a prefix of a precomputed row.
+ */
+public final class ScaleIndex {
+    /**
+     * number of pitch class masks.
+     */
+    private static final int NUM_MASKS = 1 << Utilities.NUM_NOTE_QUALITIES;
+
+    /**
+     * the ScaleTypes by ordinal.
+     */
+    private static final ScaleType[] TYPES = ScaleType.values();
+
+    /**
+     * number of candidates, one per ScaleType and root.
+     */
+    private static final int NUM_CANDIDATES = TYPES.length * Utilities.NUM_NOTE_QUALITIES;
+
+    /**
+     * number of possible counts of notes outside a Scale, 0 - 12.
+     */
+    private static final int NUM_OUTSIDE = Utilities.NUM_NOTE_QUALITIES + 1;
+
+    /**
+     * pitch class mask of each candidate, indexed by type * 12 + root.
+     */
+    private static final int[] MASKS = new int[NUM_CANDIDATES];
+
+    static {
+        for (ScaleType type : TYPES) {
+            for (int root = 0; root < Utilities.NUM_NOTE_QUALITIES; root++) {
+                MASKS[type.ordinal() * Utilities.NUM_NOTE_QUALITIES + root] =
+                        PitchSet.rotatePitchClasses(type.pitchClassMask(), root);
+            }
+        }
+    }
+
+    /**
+     * candidates of every mask, NUM_CANDIDATES per mask, fewest notes outside first.
+     */
+    private final byte[] ranked = new byte[NUM_MASKS * NUM_CANDIDATES];
+
+    /**
+     * number of candidates of every mask having at most k notes outside,
+     * indexed by mask * NUM_OUTSIDE + k.
+     */
+    private final byte[] limits = new byte[NUM_MASKS * NUM_OUTSIDE];
+
+    private static final class Holder {
+        private static final ScaleIndex INSTANCE = new ScaleIndex();
+    }
+
+    /**
+     * @return the shared ScaleIndex, built on first call
+     */
+    public static ScaleIndex get() {
+        return Holder.INSTANCE;
+    }
+
+    private ScaleIndex() {
+        final int[] counts = new int[NUM_OUTSIDE];
+        for (int mask = 0; mask < NUM_MASKS; mask++) {
+            Arrays.fill(counts, 0);
+            for (int candidate = 0; candidate < NUM_CANDIDATES; candidate++) {
+                counts[Integer.bitCount(mask & ~MASKS[candidate])]++;
+            }
+            int total = 0;
+            for (int k = 0; k < NUM_OUTSIDE; k++) {
+                final int count = counts[k];
+                counts[k] = total;
+                total += count;
+                limits[mask * NUM_OUTSIDE + k] = (byte) total;
+            }
+            final int row = mask * NUM_CANDIDATES;
+            for (int candidate = 0; candidate < NUM_CANDIDATES; candidate++) {
+                ranked[row + counts[Integer.bitCount(mask & ~MASKS[candidate])]++] = (byte) candidate;
+            }
+        }
+    }
+
+    /**
+     * @param pitchClassMask 12 bit mask of the pitch classes, bit 0 being C
+     * @param scale the Scale
+     * @return the number of the pitch classes that are not in the Scale
+     */
+    public static int notesOutside(final int pitchClassMask, final KeyMatch scale) {
+        final int candidate = scale.getType().ordinal() * Utilities.NUM_NOTE_QUALITIES + scale.getRootPitchClass();
+        return Integer.bitCount(pitchClassMask & PitchSet.PITCH_CLASS_MASK & ~MASKS[candidate]);
+    }
+
+    /**
+     * @param pitchClassMask 12 bit mask of the pitch classes, bit 0 being C
+     * @param maxOutside maximum number of pitch classes outside the Scale
+     * @return the number of Scales with at most maxOutside of the pitch classes outside them
+     */
+    public int count(final int pitchClassMask, final int maxOutside) {
+        if (maxOutside < 0) {
+            return 0;
+        }
+        final int mask = pitchClassMask & PitchSet.PITCH_CLASS_MASK;
+        return limits[mask * NUM_OUTSIDE + Math.min(maxOutside, Utilities.NUM_NOTE_QUALITIES)];
+    }
+
+    /**
+     * Finds the Scales with at most maxOutside of the pitch classes outside them,
+     * fewest outside first; ties keep the ScaleType declaration order, then the root order.
+     * @param pitchClassMask 12 bit mask of the pitch classes, bit 0 being C
+     * @param maxOutside maximum number of pitch classes outside the Scale
+     * @param dest receives the Scales
+     * @param outside receives the number of pitch classes outside each Scale, null if not needed
+     * @return the number of Scales written, at most the length of dest
+     */
+    public int query(final int pitchClassMask, final int maxOutside, final KeyMatch[] dest, final int[] outside) {
+        final int mask = pitchClassMask & PitchSet.PITCH_CLASS_MASK;
+        final int count = Math.min(count(mask, maxOutside), dest.length);
+        final int row = mask * NUM_CANDIDATES;
+        for (int i = 0; i < count; i++) {
+            final int candidate = ranked[row + i];
+            dest[i] = KeyMatch.of(TYPES[candidate / Utilities.NUM_NOTE_QUALITIES],
+                    candidate % Utilities.NUM_NOTE_QUALITIES);
+            if (outside != null) {
+                outside[i] = Integer.bitCount(mask & ~MASKS[candidate]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param pitchClassMask 12 bit mask of the pitch classes, bit 0 being C
+     * @param dest receives the Scales containing every pitch class
+     * @return the number of Scales written, at most the length of dest
+     */
+    public int containing(final int pitchClassMask, final KeyMatch[] dest) {
+        return query(pitchClassMask, 0, dest, null);
+    }
+
+    /**
+     * @param keys the keys to look up
+     * @param dest receives the Scales containing the pitch class of every key
+     * @return the number of Scales written, at most the length of dest
+     */
+    public int containing(final PitchSet keys, final KeyMatch[] dest) {
+        return containing(keys.pitchClasses(), dest);
+    }
+
+    /**
+     * @return the number of Scales in the index
+     */
+    public static int candidates() {
+        return NUM_CANDIDATES;
+    }
+}
@@ -2,34 +2,106 @@ package sample.models.scales;
 
 /**
  * enum for Scale types.
+ * Each type carries the intervals of its Notes relative to the root,
+ * so a new Scale is added as a single constant.
  */
 public enum ScaleType {
     /**
      * Scale type for Major Scales.
      */
-    MAJOR_SCALE,
+    MAJOR_SCALE(0, 2, 4, 5, 7, 9, 11, 12),
     /**
      * Scale type for Minor Scales.
      */
-    MINOR_SCALE,
+    MINOR_SCALE(0, 2, 3, 5, 7, 8, 10, 12),
     /**
      * Scale type for Major Pentatonic Scales.
      */
-    MAJOR_PENTATONIC,
+    MAJOR_PENTATONIC(0, 2, 4, 7, 9, 12),
     /**
      * Scale type for Minor Pentatonic Scales.
      */
-    MINOR_PENTATONIC,
+    MINOR_PENTATONIC(0, 3, 5, 7, 10, 12),
     /**
      * Scale type for Whole Tone Scales.
      */
-    WHOLE_TONE,
+    WHOLE_TONE(0, 2, 4, 6, 8, 10, 12),
     /**
      * Scale type for Chinese Scales.
      */
-    CHINESE_SCALE,
+    CHINESE_SCALE(0, 4, 6, 7, 11, 12),
     /**
      * Scale type for Chromatic Scales.
      */
-    CHROMATIC_SCALE
+    CHROMATIC_SCALE(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+    /**
+     * intervals between the root and each Note of the Scale, in half notes.
+     */
+    private final byte[] intervals;
+
+    /**
+     * bit i is set when the Scale has a Note i half notes above the root.
+     */
+    private final int intervalMask;
+
+    /**
+     * the intervals folded onto the 12 pitch classes, bit 0 being the root.
+     */
+    private final int pitchClassMask;
+
+    ScaleType(final int... intervals) {
+        this.intervals = new byte[intervals.length];
+        int mask = 0;
+        int pitchClasses = 0;
+        for (int i = 0; i < intervals.length; i++) {
+            this.intervals[i] = (byte) intervals[i];
+            mask |= 1 << intervals[i];
+            pitchClasses |= 1 << (intervals[i] % 12);
+        }
+        this.intervalMask = mask;
+        this.pitchClassMask = pitchClasses;
+    }
+
+    /**
+     * @return the number of Notes in the Scale
+     */
+    public int size() {
+        return intervals.length;
+    }
+
+    /**
+     * @param index index of the Scale Note
+     * @return the interval between the root and the Scale Note at the given index
+     */
+    public int interval(final int index) {
+        return intervals[index];
+    }
+
+    /**
+     * @return the intervals of the Scale Notes relative to the root as a bitmask,
+     * bit i being set when the Scale has a Note i half notes above the root
+     */
+    public int intervalMask() {
+        return intervalMask;
+    }
+
+    /**
+     * @return the intervals of the Scale folded onto the 12 pitch classes,
+     * bit 0 being the root
+     */
+    public int pitchClassMask() {
+        return pitchClassMask;
+    }
+
+    /**
+     * The Ionian Mode, and any Mode past the last Note, is the Scale itself;
+     * the other Modes leave the octave out.
+     * @param mode mode of the Scale
+     * @return the number of Notes in the given Mode of the Scale
+     */
+    public int size(final ScaleMode mode) {
+        final int index = mode.getValue();
+        return index == 0 || index >= intervals.length ? intervals.length : intervals.length - 1;
+    }
 }
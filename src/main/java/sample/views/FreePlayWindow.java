@@ -18,10 +18,12 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import sample.models.FillerButton;
 import sample.models.Note;
+import sample.models.NoteParser;
 import sample.models.Utilities;
 import sample.models.exceptions.InvalidNoteException;
 
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -72,13 +74,14 @@ public final class FreePlayWindow extends Application {
     private final MenuItem keyboard76 = new MenuItem("76 Keys");
     private final MenuItem keyboard61 = new MenuItem("61 Keys (NEEDS WORK)");
     private final MenuItem keyboard49 = new MenuItem("49 Keys (NEEDS WORK)");
+    private final MidiFilePlayback midiFilePlayback = new MidiFilePlayback();
 
     private void switchNotesNamingMode() {
 
         for (Button button: keyBoard) {
             String existingTooltip = button.getTooltip().getText();
             try {
-                button.setTooltip(new Tooltip(new Note(existingTooltip).getName()));
+                button.setTooltip(new Tooltip(Note.of(existingTooltip).getName()));
             } catch (InvalidNoteException e) {
                 throw new RuntimeException(e);
             }
@@ -185,6 +188,7 @@ public final class FreePlayWindow extends Application {
     }
 
     private void resizeKeyboard(final int numKeys) {
+        midiFilePlayback.stop();
         FreePlayWindow.numKeys = numKeys;
         blackKeyPane.getChildren().clear();
         whiteKeyPane.getChildren().clear();
@@ -252,7 +256,13 @@ public final class FreePlayWindow extends Application {
         return contextMenu;
     }
 
+    private void playMidiFile(final Stage stage) {
+        midiFilePlayback.choose(stage, Arrays.asList(keyBoard).subList(0, numKeys), whiteKeys,
+                NoteParser.parse(numKeysToStartKey.get(numKeys)));
+    }
+
     private void switchToMainWindow(final Stage stage) {
+        midiFilePlayback.close();
         Main mainWindow = new Main();
         try {
             mainWindow.start(new Stage());
@@ -283,6 +293,14 @@ public final class FreePlayWindow extends Application {
         keyboard88.setOnAction(e -> resizeKeyboard(88));
         menu.getMenus().add(keyboardSize);
 
+        Menu midiFile = new Menu("MIDI File");
+        MenuItem playMidiFile = new MenuItem("Play...");
+        MenuItem stopMidiFile = new MenuItem("Stop");
+        playMidiFile.setOnAction(e -> playMidiFile(freePlay));
+        stopMidiFile.setOnAction(e -> midiFilePlayback.stop());
+        midiFile.getItems().addAll(playMidiFile, stopMidiFile);
+        menu.getMenus().add(midiFile);
+
         root.setStyle("-fx-background-color: #E6BF83");
 
         whiteKeyPane.setPickOnBounds(false);
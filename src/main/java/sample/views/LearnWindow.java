@@ -26,13 +26,16 @@ import javafx.stage.Stage;
 import sample.models.Utilities;
 import sample.models.FillerButton;
 import sample.models.Note;
-import sample.models.chords.Chord;
+import sample.models.NoteParser;
+import sample.models.PitchSet;
+import sample.models.chords.ChordAtlas;
 import sample.models.chords.ChordType;
 import sample.models.exceptions.InvalidNoteException;
+import sample.models.midi.MidiInputReceiver;
+import sample.models.scales.KeyDetector;
 import sample.models.scales.Scale;
 import sample.models.scales.ScaleType;
 
-import static com.sun.org.apache.xml.internal.utils.LocaleUtility.EMPTY_STRING;
 import static sample.models.NotesNamingMode.FLAT_MODE;
 
 import java.util.ArrayList;
@@ -58,6 +61,7 @@ import static sample.views.Styles.blackKeysPressedCSs;
 public class LearnWindow extends Application {
     private static final Logger logger = Logger.getLogger(LearnWindow.class.getName());
     private static final int NUMBER_OF_KEYS = 36;
+    private static final String FIRST_KEY = "C3";
     private static final List<String> keyColors = List.of("green", "blue", "red", "orange", "purple", "pink", "brown", "gray", "black");
 
     //Chord Buttons
@@ -123,6 +127,7 @@ public class LearnWindow extends Application {
     private final GridPane keyPane = new GridPane();
 
     private final CommonMenu menu = new CommonMenu(false);
+    private final MidiFilePlayback midiFilePlayback = new MidiFilePlayback();
 
     private void drawSelectionButtons() {
         bottom.setStyle("-fx-background-color: darkgray;");
@@ -227,7 +232,7 @@ public class LearnWindow extends Application {
     }
 
     private void drawKeyboard() {
-        int start = Utilities.NOTE_NAMES_FLAT.indexOf("C3");
+        int start = Utilities.NOTE_NAMES_FLAT.indexOf(FIRST_KEY);
         ArrayList<Integer> blackIndex = new ArrayList<>();
         blackIndex.add(1);
         blackIndex.add(4);
@@ -340,26 +345,21 @@ public class LearnWindow extends Application {
                     while(!Objects.requireNonNull(root).noteQuality().equals(keyBox.getValue())){
                         root = root.sharp(1);
                     }
-                    Chord chord = new Chord(buttonChordTypeMap.get(button), root);
-                    Note[] chordNotes = inversionNameToNumber.get(inversionBox.getValue()) == 0 ?
-                            chord.notes()
-                            :
-                            chord.invert(inversionNameToNumber.get(inversionBox.getValue()));
-                    ArrayList<String> chordNotesNames = new ArrayList<>();
-                    for (Note chordNote : chordNotes) {
-                        chordNotesNames.add(chordNote.getName());
-                    }
+                    final ChordType chordType = buttonChordTypeMap.get(button);
+                    final int inversion = inversionNameToNumber.get(inversionBox.getValue()) < chordType.size()
+                            ? inversionNameToNumber.get(inversionBox.getValue()) : 0;
+                    Note[] chordNotes = ChordAtlas.get().notes(chordType, root.getKey(), inversion);
+                    PitchSet chordPitches = ChordAtlas.get().pitchSet(chordType, root.getKey(), inversion);
 
                     for(Button button1: keyBoard){
-                        String buttonNoteQuality = button1.getTooltip().getText()
-                                .substring(0, button1.getTooltip().getText().length() -1);
+                        final int buttonKey = NoteParser.parse(button1.getTooltip().getText());
                         button1.setText("");
                         button1.setAlignment(Pos.BOTTOM_CENTER);
                         if(blackKeys.contains(button1))
                             button1.setFont(new Font("aerials", 8));
-                        if(chordNotesNames.contains(button1.getTooltip().getText())) {
-                            final int nodeIndex = chordNotesNames.indexOf(button1.getTooltip().getText());
-                            colorButton(button1, root.noteQuality().equals(buttonNoteQuality), nodeIndex);
+                        if(chordPitches.contains(buttonKey)) {
+                            final int nodeIndex = indexOfKey(chordNotes, buttonKey);
+                            colorButton(button1, (buttonKey - root.getKey()) % 12 == 0, nodeIndex);
                             showButtonNoteName(button1);
                         }
                     }
@@ -388,21 +388,17 @@ public class LearnWindow extends Application {
                     }
                     Scale scale = new Scale(buttonScaleTypeMap.get(button), root);
                     Note[] scaleNotes = scale.notes();
+                    PitchSet scalePitches = scale.pitchSet();
 
-                    ArrayList<String> scaleNotesNames = new ArrayList<>();
-                    for (Note scaleNote : scaleNotes) {
-                        scaleNotesNames.add(scaleNote.getName());
-                    }
-                    logger.info(scaleNotesNames.toString());
+                    logger.info(scale.toString());
                     for(Button button1: keyBoard){
                         button1.setText("");
-                        String buttonNoteQuality = button1.getTooltip().getText()
-                                .substring(0, button1.getTooltip().getText().length() - 1);
+                        final int buttonKey = NoteParser.parse(button1.getTooltip().getText());
                         button1.setAlignment(Pos.BOTTOM_CENTER);
                         if(blackKeys.contains(button1))
                             button1.setFont(new Font("aerials", 8));
-                        if(scaleNotesNames.contains(button1.getTooltip().getText())){
-                            colorButton(button1, root.noteQuality().equals(buttonNoteQuality), scaleNotesNames.indexOf(button1.getTooltip().getText()));
+                        if(scalePitches.contains(buttonKey)){
+                            colorButton(button1, (buttonKey - root.getKey()) % 12 == 0, indexOfKey(scaleNotes, buttonKey));
                             showButtonNoteName(button1);
                         }
                     }
@@ -415,6 +411,15 @@ public class LearnWindow extends Application {
         }
     }
 
+    private static int indexOfKey(final Note[] notes, final int key) {
+        for (int i = 0; i < notes.length; i++) {
+            if (notes[i].getKey() == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private void colorButton(final Button button, final boolean isRoot, final int noteIndex){
         if (isRoot) {
             button.setStyle(button.getStyle() + "-fx-background-color: " + keyColors.get(0) + ";");
@@ -429,6 +434,18 @@ public class LearnWindow extends Application {
         addActionsToSelectionButtons();
     }
 
+    /**
+     * Selects the key detected from the notes being played in the key box.
+     * @param detector the KeyDetector fed by the midi device or the MIDI file played
+     */
+    public void followKey(final KeyDetector detector) {
+        detector.matchProperty().addListener((observable, oldMatch, newMatch) -> {
+            if (newMatch != null && keyBox.getItems().contains(newMatch.rootName())) {
+                keyBox.setValue(newMatch.rootName());
+            }
+        });
+    }
+
     private void switchNoteNamingMode() {
         if (Note.notesNamingMode == FLAT_MODE) {
             keyBox.getItems().clear();
@@ -442,7 +459,7 @@ public class LearnWindow extends Application {
         for (Button button : keyBoard) {
             try {
                 String existingTooltip = button.getTooltip().getText();
-                button.setTooltip(new Tooltip(new Note(existingTooltip).getName()));
+                button.setTooltip(new Tooltip(Note.of(existingTooltip).getName()));
             } catch (InvalidNoteException e) {
                 throw new RuntimeException(e);
             }
@@ -465,6 +482,7 @@ public class LearnWindow extends Application {
         MenuItem sharpItem = new MenuItem(menu.sharpModeItem.getText());
         MenuItem homeButton = new MenuItem("Home");
         homeButton.setOnAction(event -> {
+            midiFilePlayback.close();
             Main mainWindow = new Main();
             Stage mainStage = new Stage();
             try {
@@ -486,10 +504,23 @@ public class LearnWindow extends Application {
         final MenuItem resetItem = new MenuItem("Reset");
         resetItem.setOnAction(event -> resetButtons());
 
+        final MenuItem playMidiFileItem = new MenuItem("Play MIDI File...");
+        playMidiFileItem.setOnAction(event -> {
+            final MidiInputReceiver receiver =
+                    midiFilePlayback.choose(stage, keyBoard, whiteKeys, NoteParser.parse(FIRST_KEY));
+            if (receiver != null) {
+                followKey(receiver.getKeyDetector());
+            }
+        });
+        final MenuItem stopMidiFileItem = new MenuItem("Stop MIDI File");
+        stopMidiFileItem.setOnAction(event -> midiFilePlayback.stop());
+
         contextMenu.getItems().add(0, preferenceMenu);
         contextMenu.getItems().add(1, exitItem);
         contextMenu.getItems().add(2, homeButton);
         contextMenu.getItems().add(3, resetItem);
+        contextMenu.getItems().add(4, playMidiFileItem);
+        contextMenu.getItems().add(5, stopMidiFileItem);
 
         return contextMenu;
     }
@@ -502,6 +533,7 @@ public class LearnWindow extends Application {
     public void start(final Stage learnStage) {
         draw();
         learnStage.setOnCloseRequest(windowEvent -> {
+            midiFilePlayback.close();
             Stage newStage = new Stage();
             Main newWindow = new Main();
 
@@ -556,14 +588,14 @@ public class LearnWindow extends Application {
 
     private void resetWhiteKeys() {
         for(Button button: whiteKeys){
-            button.setText(EMPTY_STRING);
+            button.setText("");
             button.setStyle(whiteKeysReleasedCss);
         }
     }
 
     private void resetBlackKeys() {
         for(Button button: blackKeys) {
-            button.setText(EMPTY_STRING);
+            button.setText("");
             button.setStyle(blackKeysReleasedCss);
         }
     }
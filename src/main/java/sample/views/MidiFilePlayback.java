@@ -0,0 +1,183 @@
+package sample.views;
+
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import sample.audio.MixerEngine;
+import sample.audio.MixerReceiver;
+import sample.audio.SampleBankFile;
+import sample.models.midi.MidiDecoder;
+import sample.models.midi.MidiFilePlayer;
+import sample.models.midi.MidiInputReceiver;
+
+import javax.sound.sampled.LineUnavailableException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static sample.views.Styles.blackKeysPressedCSs;
+import static sample.views.Styles.blackKeysReleasedCss;
+import static sample.views.Styles.whiteKeysPressedCss;
+import static sample.views.Styles.whiteKeysReleasedCss;
+
+/**
+ * Plays MIDI files on the keyboard of a window and through the speakers.
+ * The events of the file go through a MidiInputReceiver like live input,
+ * and through a MixerReceiver; the percussion channel is left out.
+ * The samples are opened on a thread of their own the first time, as converting
+ * them can take seconds, and the first file starts once they are ready.
+ */
+final class MidiFilePlayback {
+    private static final Logger LOGGER = Logger.getLogger(MidiFilePlayback.class.getName());
+
+    /**
+     * every channel but the percussion one.
+     */
+    private static final int CHANNELS = MidiDecoder.ALL_CHANNELS & ~(1 << 9);
+
+    private MidiInputReceiver receiver;
+    private MidiFilePlayer player;
+
+    /**
+     * plays the notes, started on first use, null if no audio line is available.
+     */
+    private MixerEngine mixer;
+    private boolean mixerOpened = false;
+
+    /**
+     * thread opening the mixer, null if none.
+     */
+    private Thread mixerLoader;
+
+    /**
+     * starts the file chosen while the mixer was being opened, null if none.
+     */
+    private Runnable whenMixerOpened;
+
+    /**
+     * Asks for a MIDI file and plays it, stopping the file being played.
+     * @param stage owner of the file chooser
+     * @param keyBoard the key Buttons, lowest key first
+     * @param whiteKeys the white key Buttons
+     * @param lowestKey MIDI key number of the first Button
+     * @return the receiver the file is played to, null if no file was chosen
+     */
+    MidiInputReceiver choose(final Stage stage, final List<Button> keyBoard, final List<Button> whiteKeys, final int lowestKey) {
+        final FileChooser chooser = new FileChooser();
+        chooser.setTitle("Play MIDI File");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("MIDI Files", "*.mid", "*.midi"));
+        final File file = chooser.showOpenDialog(stage);
+        if (file == null) {
+            return null;
+        }
+        stop();
+        receiver = new MidiInputReceiver(file.getName(), keyBoard, whiteKeys, lowestKey, CHANNELS);
+        receiver.getKeyboardAnimator().setStyles(whiteKeysPressedCss, whiteKeysReleasedCss,
+                blackKeysPressedCSs, blackKeysReleasedCss);
+        if (mixerOpened) {
+            play(file.toPath());
+        } else {
+            whenMixerOpened = () -> play(file.toPath());
+            if (mixerLoader == null) {
+                mixerLoader = new Thread(this::openMixer, "Sample bank loader");
+                mixerLoader.setDaemon(true);
+                mixerLoader.start();
+            }
+        }
+        return receiver;
+    }
+
+    /**
+     * @param file the MIDI file, played to the receiver and the mixer if any
+     */
+    private void play(final Path file) {
+        try {
+            player = mixer == null
+                    ? new MidiFilePlayer(file, receiver)
+                    : new MidiFilePlayer(file, receiver, new MixerReceiver(mixer, CHANNELS));
+            player.start();
+        } catch (IOException e) {
+            LOGGER.warning("Cannot play " + file + ": " + e.getMessage());
+            stop();
+        }
+    }
+
+    /**
+     * Opens and starts the mixer; called on the mixer loader thread.
+     */
+    private void openMixer() {
+        final Thread loader = Thread.currentThread();
+        try {
+            final MixerEngine engine = new MixerEngine(SampleBankFile.openDefault());
+            engine.start();
+            Platform.runLater(() -> mixerOpened(loader, engine, null));
+        } catch (LineUnavailableException e) {
+            LOGGER.info("No audio line, playing MIDI files without sound. " + e.getMessage());
+            Platform.runLater(() -> mixerOpened(loader, null, null));
+        } catch (IOException e) {
+            Platform.runLater(() -> mixerOpened(loader, null, e));
+        }
+    }
+
+    /**
+     * Keeps the mixer opened and starts the file waiting for it; called on the JavaFX Application Thread.
+     * @param loader thread that opened the mixer
+     * @param engine the started mixer, null if no audio line is available
+     * @param error why the samples could not be opened, null if they were
+     */
+    private void mixerOpened(final Thread loader, final MixerEngine engine, final IOException error) {
+        if (loader != mixerLoader) {
+            // closed while opening
+            if (engine != null) {
+                engine.close();
+            }
+            return;
+        }
+        mixerLoader = null;
+        if (error != null) {
+            // play without sound this time, and try again with the next file
+            LOGGER.warning("Cannot open the piano samples, playing without sound: " + error.getMessage());
+        } else {
+            mixer = engine;
+            mixerOpened = true;
+        }
+        final Runnable waiting = whenMixerOpened;
+        whenMixerOpened = null;
+        if (waiting != null) {
+            waiting.run();
+        }
+    }
+
+    /**
+     * Stops the file being played, if any, releasing its keys; called on the JavaFX Application Thread.
+     */
+    void stop() {
+        whenMixerOpened = null;
+        if (player != null) {
+            player.close();
+            player = null;
+        }
+        if (receiver != null) {
+            // display the keys released by the player before letting the keyboard go
+            receiver.getKeyboardAnimator().handle(System.nanoTime());
+            receiver.getKeyboardAnimator().stop();
+            receiver = null;
+        }
+    }
+
+    /**
+     * Stops the file being played and the sound.
+     */
+    void close() {
+        stop();
+        if (mixer != null) {
+            mixer.close();
+            mixer = null;
+        }
+        mixerOpened = false;
+        mixerLoader = null;
+    }
+}
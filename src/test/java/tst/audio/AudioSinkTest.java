@@ -0,0 +1,81 @@
+package tst.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.MixerEngine;
+import sample.audio.NullSink;
+import sample.audio.SampleBank;
+import sample.audio.WavFileSink;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AudioSinkTest {
+
+    @Test
+    void nullSinkTest() {
+        NullSink sink = new NullSink(SampleBank.FORMAT);
+        assertEquals(16, sink.write(new byte[32], 8, 16));
+        sink.write(new byte[8], 0, 8);
+        assertEquals(6, sink.framesWritten());
+    }
+
+    @Test
+    void wavFileSinkTest(@TempDir final Path folder) throws IOException, UnsupportedAudioFileException {
+        Path file = folder.resolve("out.wav");
+        byte[] frames = new byte[100_000 * SampleBank.FRAME_SIZE];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = (byte) (i * 7);
+        }
+        try (WavFileSink sink = WavFileSink.create(file, SampleBank.FORMAT)) {
+            sink.write(frames, 0, 40);
+            sink.write(frames, 40, frames.length - 40);
+            assertEquals(100_000, sink.framesWritten());
+        }
+
+        AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(file.toFile());
+        assertEquals(AudioFileFormat.Type.WAVE, fileFormat.getType());
+        assertEquals(100_000, fileFormat.getFrameLength());
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(file.toFile())) {
+            assertTrue(stream.getFormat().matches(SampleBank.FORMAT));
+            assertArrayEquals(frames, stream.readAllBytes());
+        }
+    }
+
+    @Test
+    void wavFileSinkRejectsFormatTest(@TempDir final Path folder) {
+        AudioFormat bigEndian = new AudioFormat(SampleBank.SAMPLE_RATE, 16, 2, true, true);
+        assertThrows(IOException.class, () -> WavFileSink.create(folder.resolve("out.wav"), bigEndian));
+    }
+
+    @Test
+    void headlessMixerTest(@TempDir final Path folder) throws IOException, InterruptedException {
+        short[] samples = new short[1000];
+        Arrays.fill(samples, (short) 100);
+        SampleBankTest.writeSample(folder, 60, 1, samples);
+        SampleBank bank = SampleBank.load(folder);
+
+        NullSink sink = new NullSink(SampleBank.FORMAT);
+        try (MixerEngine engine = new MixerEngine(bank, 4, 64)) {
+            engine.start(sink);
+            engine.noteOn(60, 127);
+            while (sink.framesWritten() < 10_000) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(0, sink.framesWritten() % 64);
+        assertThrows(IllegalArgumentException.class,
+                () -> new MixerEngine(bank).start(new NullSink(new AudioFormat(22050f, 16, 2, true, false))));
+    }
+}
@@ -0,0 +1,98 @@
+package tst.audio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.MixerEngine;
+import sample.audio.SampleBank;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MixerEngineTest {
+    private static final int SAMPLE_FRAMES = 10000;
+
+    private static SampleBank bank;
+
+    @BeforeAll
+    static void loadBank(@TempDir final Path folder) throws IOException {
+        for (int key = 60; key <= 64; key++) {
+            short[] samples = new short[SAMPLE_FRAMES];
+            Arrays.fill(samples, (short) (1000 * (key - 59)));
+            SampleBankTest.writeSample(folder, key, 1, samples);
+        }
+        bank = SampleBank.load(folder);
+    }
+
+    private static short left(final byte[] period, final int frame) {
+        return (short) (period[frame * 4] & 0xFF | period[frame * 4 + 1] << 8);
+    }
+
+    @Test
+    void mixTest() {
+        MixerEngine engine = new MixerEngine(bank, 4, 64);
+        byte[] period = new byte[64 * SampleBank.FRAME_SIZE];
+        assertEquals(64, engine.render(period, 64));
+        assertEquals(0, left(period, 0));
+
+        engine.noteOn(60, 127);
+        engine.noteOn(61, 127);
+        engine.noteOn(50, 127);
+        engine.render(period, 64);
+        assertEquals(2, engine.activeVoices());
+        assertEquals(1500, left(period, 0));
+        assertEquals(1500, left(period, 63));
+    }
+
+    @Test
+    void voiceStealingTest() {
+        MixerEngine engine = new MixerEngine(bank, 2, 64);
+        byte[] period = new byte[64 * SampleBank.FRAME_SIZE];
+        engine.noteOn(60, 127);
+        engine.render(period, 64);
+        engine.noteOn(61, 127);
+        engine.render(period, 64);
+        engine.noteOn(62, 127);
+        engine.render(period, 64);
+        assertEquals(2, engine.activeVoices());
+        assertEquals(2500, left(period, 0));
+
+        engine.noteOn(62, 127);
+        engine.render(period, 64);
+        assertEquals(2, engine.activeVoices());
+    }
+
+    @Test
+    void releaseTest() {
+        MixerEngine engine = new MixerEngine(bank, 4, 256);
+        byte[] period = new byte[256 * SampleBank.FRAME_SIZE];
+        engine.noteOn(64, 127);
+        engine.render(period, 256);
+        engine.noteOff(64);
+        engine.render(period, 256);
+        assertEquals(1, engine.activeVoices());
+        assertEquals(2500, left(period, 0), 1);
+        for (int i = 0; i < 20; i++) {
+            engine.render(period, 256);
+        }
+        assertEquals(0, engine.activeVoices());
+        assertEquals(0, left(period, 255));
+    }
+
+    @Test
+    void sampleEndTest() {
+        MixerEngine engine = new MixerEngine(bank, 4, 512);
+        byte[] period = new byte[512 * SampleBank.FRAME_SIZE];
+        engine.noteOn(60, 64);
+        for (int i = 0; i < SAMPLE_FRAMES / 512; i++) {
+            engine.render(period, 512);
+        }
+        assertEquals(1, engine.activeVoices());
+        engine.render(period, 512);
+        assertEquals(0, engine.activeVoices());
+        assertEquals(0, left(period, 511));
+    }
+}
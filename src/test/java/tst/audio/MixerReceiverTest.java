@@ -0,0 +1,56 @@
+package tst.audio;
+
+import org.junit.jupiter.api.Test;
+import sample.audio.MixerEngine;
+import sample.audio.MixerReceiver;
+import sample.audio.SampleBank;
+import sample.audio.WavetableSynth;
+import sample.models.midi.MidiDecoder;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.ShortMessage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MixerReceiverTest {
+    private static final int PERIOD = 256;
+
+    /**
+     * frames of a release, with a margin.
+     */
+    private static final int RELEASE = 2 * 4410;
+
+    /**
+     * Renders longer than a release, a period at a time.
+     */
+    private static int render(final MixerEngine engine) {
+        byte[] period = new byte[PERIOD * SampleBank.FRAME_SIZE];
+        for (int frames = 0; frames < RELEASE; frames += PERIOD) {
+            engine.render(period, PERIOD);
+        }
+        return engine.activeVoices();
+    }
+
+    @Test
+    void sustainTest() throws InvalidMidiDataException {
+        MixerEngine engine = new MixerEngine(WavetableSynth.bank(), 8, PERIOD);
+        MixerReceiver receiver = new MixerReceiver(engine, MidiDecoder.ALL_CHANNELS & ~(1 << 9));
+        receiver.send(new ShortMessage(ShortMessage.NOTE_ON, 0, 60, 100), -1);
+        receiver.send(new ShortMessage(ShortMessage.NOTE_ON, 9, 36, 100), -1);
+        assertEquals(1, render(engine));
+
+        receiver.send(new ShortMessage(ShortMessage.CONTROL_CHANGE, 0, 64, 127), -1);
+        receiver.send(new ShortMessage(ShortMessage.NOTE_OFF, 0, 60, 0), -1);
+        receiver.send(new ShortMessage(ShortMessage.NOTE_ON, 0, 64, 100), -1);
+        receiver.send(new ShortMessage(ShortMessage.NOTE_ON, 0, 64, 0), -1);
+        receiver.send(new ShortMessage(ShortMessage.NOTE_ON, 0, 67, 100), -1);
+        assertEquals(3, render(engine));
+
+        // 60 and 64 are released with the pedal, 67 is still held
+        receiver.send(new ShortMessage(ShortMessage.CONTROL_CHANGE, 0, 64, 0), -1);
+        assertEquals(1, render(engine));
+
+        receiver.send(new ShortMessage(ShortMessage.CONTROL_CHANGE, 0, 123, 0), -1);
+        assertEquals(0, render(engine));
+    }
+}
@@ -0,0 +1,161 @@
+package tst.audio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.AudioSink;
+import sample.audio.OfflineRenderer;
+import sample.audio.SampleBank;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineRendererTest {
+    private static final int SAMPLE_FRAMES = 20000;
+
+    private static SampleBank bank;
+
+    @BeforeAll
+    static void loadBank(@TempDir final Path folder) throws IOException {
+        for (int key = 60; key <= 67; key++) {
+            short[] samples = new short[SAMPLE_FRAMES];
+            for (int i = 0; i < SAMPLE_FRAMES; i++) {
+                samples[i] = (short) ((i * key) % 4000 - 2000);
+            }
+            SampleBankTest.writeSample(folder, key, 1, samples);
+        }
+        bank = SampleBank.load(folder);
+    }
+
+    /**
+     * Sink keeping every frame in memory.
+     */
+    private static final class CaptureSink implements AudioSink {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public AudioFormat format() {
+            return SampleBank.FORMAT;
+        }
+
+        @Override
+        public int write(final byte[] data, final int offset, final int length) {
+            bytes.write(data, offset, length);
+            return length;
+        }
+
+        @Override
+        public void drain() { }
+
+        @Override
+        public long framesWritten() {
+            return bytes.size() / SampleBank.FRAME_SIZE;
+        }
+
+        @Override
+        public void close() { }
+    }
+
+    private static long event(final long frame, final int command, final int key, final int velocity) {
+        return frame << 24 | (command == ShortMessage.NOTE_ON ? 1 : 2) << 16 | key << 8 | velocity;
+    }
+
+    private static ShortMessage message(final int command, final int channel, final int data1, final int data2)
+            throws InvalidMidiDataException {
+        return new ShortMessage(command, channel, data1, data2);
+    }
+
+    @Test
+    void segmentsMatchSequentialRenderTest() {
+        long[] events = new long[30];
+        for (int i = 0; i < 15; i++) {
+            int key = 60 + i % 8;
+            events[2 * i] = event(i * 3001L, ShortMessage.NOTE_ON, key, 40 + i * 5);
+            events[2 * i + 1] = event(i * 3001L + 7000 + i * 13, ShortMessage.NOTE_OFF, key, 0);
+        }
+        Arrays.sort(events);
+
+        CaptureSink sequential = new CaptureSink();
+        OfflineRenderer.Report single = new OfflineRenderer(bank, 4, Integer.MAX_VALUE, 1).render(events, sequential);
+        assertEquals(1, single.segments());
+
+        CaptureSink parallel = new CaptureSink();
+        OfflineRenderer.Report report = new OfflineRenderer(bank, 4, 1000, 4).render(events, parallel);
+        assertTrue(report.segments() > 40);
+        assertEquals(single.frames(), report.frames());
+        assertArrayEquals(sequential.bytes.toByteArray(), parallel.bytes.toByteArray());
+        assertTrue(report.realTimeFactor() > 0);
+
+        // the last note is released at its off event and fades out
+        long lastOff = 14 * 3001L + 7000 + 14 * 13;
+        assertEquals(lastOff + 4410, report.frames(), 1);
+    }
+
+    @Test
+    void noteStartsOnItsFrameTest() {
+        CaptureSink sink = new CaptureSink();
+        new OfflineRenderer(bank, 4, 100, 2).render(new long[] {event(250, ShortMessage.NOTE_ON, 61, 127)}, sink);
+        byte[] pcm = sink.bytes.toByteArray();
+        assertEquals(250 + SAMPLE_FRAMES, pcm.length / SampleBank.FRAME_SIZE);
+        assertEquals(0, pcm[249 * 4] | pcm[249 * 4 + 1]);
+        assertEquals(-1000, (short) (pcm[250 * 4] & 0xFF | pcm[250 * 4 + 1] << 8));
+    }
+
+    @Test
+    void sequenceEventsTest() throws InvalidMidiDataException {
+        Sequence sequence = new Sequence(Sequence.PPQ, 480);
+        Track track = sequence.createTrack();
+        // 120 bpm for one beat, then 60 bpm
+        track.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x07, (byte) 0xA1, 0x20}, 3), 0));
+        track.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x0F, 0x42, 0x40}, 3), 480));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_ON, 0, 60, 100), 0));
+        track.add(new MidiEvent(message(ShortMessage.CONTROL_CHANGE, 0, 64, 127), 240));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_OFF, 0, 60, 0), 480));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_ON, 9, 36, 100), 480));
+        track.add(new MidiEvent(message(ShortMessage.CONTROL_CHANGE, 0, 64, 0), 960));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_ON, 0, 62, 90), 960));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_ON, 0, 62, 0), 1200));
+
+        long[] events = OfflineRenderer.events(sequence);
+        assertEquals(4, events.length);
+        assertEquals(event(0, ShortMessage.NOTE_ON, 60, 100), events[0]);
+        assertEquals(event(66150, ShortMessage.NOTE_OFF, 60, 0), events[1]);
+        assertEquals(event(66150, ShortMessage.NOTE_ON, 62, 90), events[2]);
+        assertEquals(event(88200, ShortMessage.NOTE_OFF, 62, 0), events[3]);
+    }
+
+    @Test
+    void renderToWavTest(@TempDir final Path folder) throws InvalidMidiDataException, IOException,
+            UnsupportedAudioFileException {
+        Sequence sequence = new Sequence(Sequence.PPQ, 96);
+        Track track = sequence.createTrack();
+        track.add(new MidiEvent(message(ShortMessage.NOTE_ON, 0, 64, 100), 0));
+        track.add(new MidiEvent(message(ShortMessage.NOTE_OFF, 0, 64, 0), 48));
+        Path midiFile = folder.resolve("in.mid");
+        MidiSystem.write(sequence, 0, midiFile.toFile());
+
+        Path wavFile = folder.resolve("out.wav");
+        OfflineRenderer.Report report = new OfflineRenderer(bank).render(midiFile, wavFile);
+        AudioFileFormat format = AudioSystem.getAudioFileFormat(wavFile.toFile());
+        assertEquals(report.frames(), format.getFrameLength());
+        // released a quarter second in, then faded out
+        assertEquals(11025 + 4410, report.frames(), 1);
+    }
+}
@@ -0,0 +1,91 @@
+package tst.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.SampleBank;
+import sample.audio.SampleBankFile;
+import sample.audio.WavetableSynth;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleBankFileTest {
+
+    @Test
+    void roundTripTest(@TempDir final Path folder) throws IOException {
+        SampleBankTest.writeSample(folder, 60, 2, (short) 1, (short) -1, (short) 1000, (short) -1000);
+        SampleBankTest.writeSample(folder, 108, 1, (short) 5, (short) -7, (short) 9);
+        Path file = folder.resolve("piano.bank");
+
+        SampleBank loaded = SampleBank.load(folder);
+        assertFalse(loaded.isMapped());
+        SampleBankFile.write(loaded, file);
+
+        SampleBank mapped = SampleBankFile.map(file);
+        assertTrue(mapped.isMapped());
+        assertEquals(2, mapped.availableSamples());
+        assertEquals(loaded.memoryFootprint(), mapped.memoryFootprint());
+        for (int key = 21; key <= 108; key++) {
+            assertEquals(loaded.frames(key), mapped.frames(key));
+            assertEquals(loaded.samples(key), mapped.samples(key));
+        }
+        assertEquals(-1000, mapped.sample(60, 1, 1));
+        assertEquals(9, mapped.sample(108, 2, 0));
+        assertEquals(mapped.loopStart(60), mapped.loopEnd(60));
+    }
+
+    @Test
+    void openConvertsOnceTest(@TempDir final Path folder) throws IOException {
+        SampleBankTest.writeSample(folder, 21, 1, (short) 3);
+        Path file = folder.resolve("cache").resolve("piano.bank");
+
+        SampleBank bank = SampleBankFile.open(folder, file);
+        assertTrue(Files.exists(file));
+        assertTrue(bank.isMapped());
+        assertEquals(3, bank.sample(21, 0, 1));
+
+        Files.delete(folder.resolve(SampleBank.fileName(21)));
+        assertEquals(3, SampleBankFile.open(folder, file).sample(21, 0, 0));
+    }
+
+    @Test
+    void emptyFolderTest(@TempDir final Path folder) throws IOException {
+        Path file = folder.resolve("piano.bank");
+        assertSame(WavetableSynth.bank(), SampleBankFile.openWithFallback(folder, file));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void partialFolderTest(@TempDir final Path folder) throws IOException {
+        SampleBankTest.writeSample(folder, 21, 1, (short) 3);
+        Path file = folder.resolve("piano.bank");
+        SampleBank bank = SampleBankFile.openWithFallback(folder, file);
+        assertTrue(Files.exists(file));
+        assertEquals(88, bank.availableSamples());
+        assertEquals(3, bank.sample(21, 0, 0));
+        assertEquals(WavetableSynth.bank().frames(60), bank.frames(60));
+        assertEquals(WavetableSynth.bank().loopEnd(60), bank.loopEnd(60));
+    }
+
+    @Test
+    void rejectsInvalidFileTest(@TempDir final Path folder) throws IOException {
+        Path file = folder.resolve("piano.bank");
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> SampleBankFile.map(file));
+
+        SampleBankFile.write(SampleBank.load(folder), file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 0x12345678);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> SampleBankFile.map(file));
+    }
+}
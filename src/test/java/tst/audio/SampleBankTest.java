@@ -0,0 +1,72 @@
+package tst.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.SampleBank;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleBankTest {
+
+    /**
+     * Writes a big endian AIFF file of the given 16 bit samples.
+     */
+    static void writeSample(final Path folder, final int key, final int channels, final short... samples)
+            throws IOException {
+        AudioFormat format = new AudioFormat(SampleBank.SAMPLE_RATE, 16, channels, true, true);
+        byte[] bytes = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            bytes[2 * i] = (byte) (samples[i] >> 8);
+            bytes[2 * i + 1] = (byte) samples[i];
+        }
+        AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(bytes), format,
+                samples.length / channels);
+        AudioSystem.write(stream, AudioFileFormat.Type.AIFF, folder.resolve(SampleBank.fileName(key)).toFile());
+    }
+
+    @Test
+    void fileNameTest() {
+        assertEquals("ff.A0.aiff", SampleBank.fileName(21));
+        assertEquals("ff.C4.aiff", SampleBank.fileName(60));
+        assertEquals("ff.Db4.aiff", SampleBank.fileName(61));
+        assertEquals("ff.C8.aiff", SampleBank.fileName(108));
+    }
+
+    @Test
+    void loadTest(@TempDir final Path folder) throws IOException {
+        writeSample(folder, 60, 2, (short) 1, (short) -1, (short) 1000, (short) -1000, (short) 32767, (short) -32768);
+        writeSample(folder, 21, 1, (short) 5, (short) -7);
+
+        SampleBank bank = SampleBank.load(folder);
+        assertEquals(2, bank.availableSamples());
+        assertTrue(bank.isAvailable(60));
+        assertFalse(bank.isAvailable(61));
+        assertFalse(bank.isAvailable(0));
+
+        assertEquals(3, bank.frames(60));
+        assertEquals(1000, bank.sample(60, 1, 0));
+        assertEquals(-32768, bank.sample(60, 2, 1));
+
+        assertEquals(2, bank.frames(21));
+        assertEquals(-7, bank.sample(21, 1, 0));
+        assertEquals(-7, bank.sample(21, 1, 1));
+
+        ByteBuffer samples = bank.samples(60);
+        assertEquals(3 * SampleBank.FRAME_SIZE, samples.remaining());
+        assertEquals(-1, samples.getShort(2));
+        assertEquals(0, bank.samples(61).remaining());
+        assertEquals(5 * SampleBank.FRAME_SIZE, bank.memoryFootprint());
+        assertTrue(bank.loadTimeNanos() > 0);
+    }
+}
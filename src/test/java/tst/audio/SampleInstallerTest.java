@@ -0,0 +1,166 @@
+package tst.audio;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.audio.SampleBank;
+import sample.audio.SampleInstaller;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleInstallerTest {
+
+    @TempDir
+    Path folder;
+
+    private byte[] zip;
+    private ServerSocket server;
+    private URI uri;
+    private volatile String lastRange;
+    private volatile int requests;
+
+    @BeforeEach
+    void setUp() throws IOException, NoSuchAlgorithmException {
+        Path samples = Files.createDirectory(folder.resolve("samples"));
+        SampleBankTest.writeSample(samples, 60, 1, (short) 100, (short) -200);
+        SampleBankTest.writeSample(samples, 108, 2, (short) 7, (short) 8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("piano/"));
+            for (int key : new int[] {60, 108}) {
+                out.putNextEntry(new ZipEntry("piano/" + SampleBank.fileName(key)));
+                out.write(Files.readAllBytes(samples.resolve(SampleBank.fileName(key))));
+            }
+            out.putNextEntry(new ZipEntry("__MACOSX/piano/" + SampleBank.fileName(61)));
+            out.write(new byte[] {1, 2, 3});
+        }
+        zip = bytes.toByteArray();
+        String etag = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(zip));
+
+        server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    serve(socket, etag);
+                } catch (IOException e) {
+                    // closed by tearDown
+                }
+            }
+        }, "SampleInstallerTest");
+        thread.setDaemon(true);
+        thread.start();
+        uri = URI.create("http://127.0.0.1:" + server.getLocalPort() + "/piano/piano.zip");
+    }
+
+    /**
+     * Answers one request for the zip like S3 does, honoring a Range header.
+     */
+    private void serve(final Socket socket, final String etag) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        String range = null;
+        for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+            if (line.regionMatches(true, 0, "Range:", 0, 6)) {
+                range = line.substring(6).trim();
+            }
+        }
+        requests++;
+        lastRange = range;
+        int from = range == null ? 0 : Integer.parseInt(range.replaceAll("\\D", ""));
+        String headers = (range == null ? "HTTP/1.1 200 OK" : "HTTP/1.1 206 Partial Content")
+                + "\r\nETag: \"" + etag + "\"\r\nContent-Length: " + (zip.length - from)
+                + "\r\nConnection: close\r\n\r\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(headers.getBytes(StandardCharsets.US_ASCII));
+        out.write(zip, from, zip.length - from);
+        out.flush();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void downloadTest() throws IOException {
+        Path zipFile = folder.resolve("piano.zip");
+        new SampleInstaller(uri, zipFile).download();
+        assertNull(lastRange);
+        assertArrayEquals(zip, Files.readAllBytes(zipFile));
+        assertFalse(Files.exists(folder.resolve("piano.zip.part")));
+    }
+
+    @Test
+    void resumeTest() throws IOException {
+        Path zipFile = folder.resolve("piano.zip");
+        Files.write(folder.resolve("piano.zip.part"), Arrays.copyOf(zip, 10));
+        new SampleInstaller(uri, zipFile).download();
+        assertEquals("bytes=10-", lastRange);
+        assertArrayEquals(zip, Files.readAllBytes(zipFile));
+    }
+
+    @Test
+    void checksumMismatchTest() {
+        Path zipFile = folder.resolve("piano.zip");
+        SampleInstaller installer = new SampleInstaller(uri, zipFile, "SHA-256", "00");
+        assertThrows(IOException.class, installer::download);
+        assertFalse(Files.exists(zipFile));
+        assertFalse(Files.exists(folder.resolve("piano.zip.part")));
+    }
+
+    @Test
+    void checksumTest() throws IOException, NoSuchAlgorithmException {
+        Path zipFile = folder.resolve("piano.zip");
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(zip));
+        new SampleInstaller(uri, zipFile, "SHA-256", sha256.toUpperCase()).download();
+        assertEquals(sha256, SampleInstaller.checksum(zipFile, "SHA-256"));
+    }
+
+    @Test
+    void readZipTest() throws IOException {
+        Path zipFile = folder.resolve("piano.zip");
+        Files.write(zipFile, zip);
+        SampleBank bank = SampleInstaller.readZip(zipFile);
+        assertEquals(2, bank.availableSamples());
+        assertEquals(-200, bank.sample(60, 1, 1));
+        assertEquals(8, bank.sample(108, 0, 1));
+        assertFalse(bank.isAvailable(61));
+    }
+
+    @Test
+    void installTest() throws IOException {
+        Path bankFile = folder.resolve("piano.bank");
+        SampleInstaller installer = new SampleInstaller(uri, folder.resolve("piano.zip"));
+        SampleBank bank = installer.install(bankFile);
+        assertTrue(bank.isMapped());
+        assertEquals(100, bank.sample(60, 0, 0));
+
+        assertEquals(1, requests);
+        installer.install(bankFile);
+        assertEquals(1, requests);
+    }
+}
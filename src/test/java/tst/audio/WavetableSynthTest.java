@@ -0,0 +1,83 @@
+package tst.audio;
+
+import org.junit.jupiter.api.Test;
+import sample.AudioPlayer;
+import sample.audio.MixerEngine;
+import sample.audio.NullSink;
+import sample.audio.SampleBank;
+import sample.audio.WavetableSynth;
+import sample.models.Note;
+import sample.models.exceptions.InvalidNoteException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavetableSynthTest {
+
+    @Test
+    void frequencyTest() {
+        assertEquals(440.0, WavetableSynth.frequency(69), 1e-9);
+        assertEquals(27.5, WavetableSynth.frequency(21), 1e-9);
+        assertEquals(4186.01, WavetableSynth.frequency(108), 0.01);
+    }
+
+    @Test
+    void bankTest() {
+        SampleBank bank = WavetableSynth.bank();
+        assertEquals(88, bank.availableSamples());
+        for (int key = 21; key <= 108; key++) {
+            int loopStart = bank.loopStart(key);
+            int loopEnd = bank.loopEnd(key);
+            assertTrue(loopStart > 0 && loopStart < loopEnd);
+            assertEquals(bank.frames(key), loopEnd);
+
+            // the loop wraps without a jump larger than the steps inside it
+            int maxStep = 0;
+            for (int frame = loopStart + 1; frame < loopEnd; frame++) {
+                maxStep = Math.max(maxStep, Math.abs(bank.sample(key, frame, 0) - bank.sample(key, frame - 1, 0)));
+            }
+            int wrapStep = Math.abs(bank.sample(key, loopStart, 0) - bank.sample(key, loopEnd - 1, 0));
+            assertTrue(wrapStep <= maxStep + 2, "key " + key);
+        }
+    }
+
+    @Test
+    void pitchTest() {
+        SampleBank bank = WavetableSynth.bank();
+        int key = 69;
+        int loopStart = bank.loopStart(key);
+        int crossings = 0;
+        for (int frame = loopStart + 1; frame < bank.loopEnd(key); frame++) {
+            if (bank.sample(key, frame - 1, 0) < 0 && bank.sample(key, frame, 0) >= 0) {
+                crossings++;
+            }
+        }
+        double frequency = crossings * SampleBank.SAMPLE_RATE / (bank.loopEnd(key) - loopStart);
+        assertEquals(440.0, frequency, 1.0);
+    }
+
+    @Test
+    void fullPolyphonyTest() {
+        SampleBank bank = WavetableSynth.bank();
+        MixerEngine engine = new MixerEngine(bank, 88, 256);
+        for (int key = 21; key <= 108; key++) {
+            engine.noteOn(key, 20);
+        }
+        byte[] period = new byte[256 * SampleBank.FRAME_SIZE];
+        int longest = 0;
+        for (int key = 21; key <= 108; key++) {
+            longest = Math.max(longest, bank.frames(key));
+        }
+        for (int rendered = 0; rendered < 2 * longest; rendered += 256) {
+            engine.render(period, 256);
+        }
+        assertEquals(88, engine.activeVoices());
+    }
+
+    @Test
+    void audioPlayerFallbackTest() throws InvalidNoteException {
+        NullSink sink = new NullSink(SampleBank.FORMAT);
+        new AudioPlayer(Note.of(60), null, format -> sink).play();
+        assertTrue(sink.framesWritten() > WavetableSynth.bank().frames(60));
+    }
+}
@@ -0,0 +1,40 @@
+package tst.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sample.models.Note;
+import sample.models.chords.Chord;
+import sample.models.chords.ChordType;
+import sample.models.exceptions.InvalidNoteException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of constructing a Chord from its ChordType intervals.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main ChordBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChordBenchmark {
+    @Param({"MAJOR_TRIAD", "DOMINANT_13TH"})
+    private ChordType chordType;
+
+    private final Note root = new Note();
+
+    @Benchmark
+    public Chord newChord() throws InvalidNoteException {
+        return new Chord(chordType, root);
+    }
+}
@@ -0,0 +1,44 @@
+package tst.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sample.models.chords.ChordRecognizer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of one note-on / note-off event through the ChordRecognizer,
+ * pressing then releasing a C major 7th chord with a doubled root.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main ChordRecognizerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChordRecognizerBenchmark {
+    private static final int[] KEYS = {48, 60, 64, 67, 71};
+
+    private final ChordRecognizer recognizer = new ChordRecognizer(task -> { });
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void pressAndRelease(final Blackhole blackhole) {
+        for (int key : KEYS) {
+            blackhole.consume(recognizer.noteOn(key));
+        }
+        for (int key : KEYS) {
+            blackhole.consume(recognizer.noteOff(key));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tst.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sample.models.KeyBatch;
+import sample.models.Note;
+import sample.models.exceptions.InvalidNoteException;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of transposing, folding, clamping and counting a batch of keys
+ * with the Vector API, plain loops and Note instances.
+ * Run with: java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:&lt;test classpath&gt;
+ * org.openjdk.jmh.Main KeyBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class KeyBatchBenchmark {
+    @Param({"65536"})
+    private int length;
+
+    private final KeyBatch vector = KeyBatch.get();
+    private int[] keys;
+    private Note[] notes;
+    private int[] dest;
+    private Note[] destNotes;
+    private final int[] counts = new int[12];
+
+    @Setup
+    public void setup() throws InvalidNoteException {
+        Random random = new Random(42);
+        keys = new int[length];
+        notes = new Note[length];
+        dest = new int[length];
+        destNotes = new Note[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = Note.LOWEST_KEY + 12 + random.nextInt(64);
+            notes[i] = Note.of(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public int[] transposeVector() {
+        vector.transpose(keys, dest, length, 5);
+        return dest;
+    }
+
+    @Benchmark
+    public int[] transposeScalar() {
+        KeyBatch.SCALAR.transpose(keys, dest, length, 5);
+        return dest;
+    }
+
+    @Benchmark
+    public Note[] transposeNotes() throws InvalidNoteException {
+        for (int i = 0; i < length; i++) {
+            destNotes[i] = notes[i].sharp(5);
+        }
+        return destNotes;
+    }
+
+    @Benchmark
+    public int[] foldVector() {
+        vector.fold(keys, dest, length);
+        return dest;
+    }
+
+    @Benchmark
+    public int[] foldScalar() {
+        KeyBatch.SCALAR.fold(keys, dest, length);
+        return dest;
+    }
+
+    @Benchmark
+    public int clampVector() {
+        return vector.clamp(keys, dest, length);
+    }
+
+    @Benchmark
+    public int clampScalar() {
+        return KeyBatch.SCALAR.clamp(keys, dest, length);
+    }
+
+    @Benchmark
+    public int[] histogramVector() {
+        vector.pitchClassHistogram(keys, length, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public int[] histogramScalar() {
+        KeyBatch.SCALAR.pitchClassHistogram(keys, length, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public int[] histogramNotes() {
+        for (int i = 0; i < length; i++) {
+            counts[notes[i].getKey() % 12]++;
+        }
+        return counts;
+    }
+}
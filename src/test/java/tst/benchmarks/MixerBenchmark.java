@@ -0,0 +1,107 @@
+package tst.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sample.audio.MixerEngine;
+import sample.audio.NullSink;
+import sample.audio.SampleBank;
+import sample.audio.WavetableSynth;
+import sample.models.Note;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the mixer rendering periods of every voice into a NullSink,
+ * so it runs without a sound card, from samples or from the built-in
+ * synthesizer. The voices counter is the number of voices rendered per second;
+ * divided by {@link SampleBank#SAMPLE_RATE} / period frames it is the number
+ * of voices the mixer could play in real time.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt;
+ * org.openjdk.jmh.Main MixerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixerBenchmark {
+    private static final int SAMPLE_FRAMES = 5 * 44100;
+
+    @Param({"8", "32", "88"})
+    private int voices;
+
+    @Param({"256"})
+    private int periodFrames;
+
+    @Param({"samples", "synth"})
+    private String source;
+
+    private MixerEngine engine;
+    private NullSink sink;
+    private byte[] period;
+
+    /**
+     * Voices rendered, reported per second by JMH.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long voices;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SampleBank bank = source.equals("synth") ? WavetableSynth.bank() : loadSamples();
+        engine = new MixerEngine(bank, voices, periodFrames);
+        sink = new NullSink(SampleBank.FORMAT);
+        period = new byte[periodFrames * SampleBank.FRAME_SIZE];
+    }
+
+    private SampleBank loadSamples() throws IOException {
+        Path folder = Files.createTempDirectory("mixer-benchmark");
+        AudioFormat format = new AudioFormat(SampleBank.SAMPLE_RATE, 16, 1, true, false);
+        byte[] pcm = new byte[SAMPLE_FRAMES * 2];
+        for (int i = 0; i < SAMPLE_FRAMES; i++) {
+            short value = (short) (8000 * Math.sin(i * 0.05));
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        for (int key = Note.LOWEST_KEY; key < Note.LOWEST_KEY + voices; key++) {
+            AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(pcm), format, SAMPLE_FRAMES);
+            AudioSystem.write(stream, AudioFileFormat.Type.AIFF, folder.resolve(SampleBank.fileName(key)).toFile());
+        }
+        return SampleBank.load(folder);
+    }
+
+    @Benchmark
+    public long renderPeriod(final Counters counters) {
+        if (engine.activeVoices() < voices) {
+            for (int key = Note.LOWEST_KEY; key < Note.LOWEST_KEY + voices; key++) {
+                engine.noteOn(key, 100);
+            }
+        }
+        sink.write(period, 0, engine.render(period, periodFrames) * SampleBank.FRAME_SIZE);
+        counters.voices += engine.activeVoices();
+        return sink.framesWritten();
+    }
+}
@@ -0,0 +1,77 @@
+package tst.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sample.models.Note;
+import sample.models.NoteParser;
+import sample.models.Utilities;
+import sample.models.exceptions.InvalidNoteException;
+
+import java.util.concurrent.TimeUnit;
+
+import static sample.models.Utilities.NOTE_NAMES_FLAT;
+import static sample.models.Utilities.NOTE_NAMES_SHARP;
+
+/**
+ * Throughput of parsing every name of the 88 keys keyboard
+ * with NoteParser against the Note constructor and the
+ * LinkedList lookup the constructor used to do.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main NoteParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteParserBenchmark {
+    private final String[] names = mixedNames();
+
+    private static String[] mixedNames() {
+        String[] names = new String[Utilities.NUMBER_OF_KEYS_88];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = i % 2 == 0 ? NOTE_NAMES_FLAT.get(i) : NOTE_NAMES_SHARP.get(i);
+        }
+        return names;
+    }
+
+    @Benchmark
+    public void noteParser(final Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(NoteParser.parse(name));
+        }
+    }
+
+    @Benchmark
+    public void noteOf(final Blackhole blackhole) throws InvalidNoteException {
+        for (String name : names) {
+            blackhole.consume(Note.of(name));
+        }
+    }
+
+    @Benchmark
+    public void noteConstructor(final Blackhole blackhole) throws InvalidNoteException {
+        for (String name : names) {
+            blackhole.consume(new Note(name));
+        }
+    }
+
+    @Benchmark
+    public void linkedListLookup(final Blackhole blackhole) {
+        for (String name : names) {
+            if (!NOTE_NAMES_FLAT.contains(name) && !NOTE_NAMES_SHARP.contains(name)) {
+                throw new IllegalStateException(name);
+            }
+            blackhole.consume(NOTE_NAMES_FLAT.contains(name)
+                    ? NOTE_NAMES_FLAT.indexOf(name) : NOTE_NAMES_SHARP.indexOf(name));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.chords.Chord;
+import sample.models.chords.ChordAtlas;
+import sample.models.chords.ChordType;
+import sample.models.exceptions.InvalidNoteException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChordAtlasTest {
+
+    @Test
+    void atlasMatchesChordTest() throws Exception {
+        ChordAtlas atlas = ChordAtlas.get();
+        int[] keys = new int[7];
+        for (ChordType type : ChordType.values()) {
+            Chord chord = new Chord(type, new Note("C3"));
+            for (int inversion = 0; inversion < type.size(); inversion++) {
+                assertEquals(type.size(), atlas.keys(type, 48, inversion, keys));
+                for (int i = 0; i < type.size(); i++) {
+                    int noteIndex = (inversion + i) % type.size();
+                    int expected = chord.notes()[noteIndex].getKey() + (inversion + i >= type.size() ? 12 : 0);
+                    assertEquals(expected, keys[i]);
+                }
+                assertEquals(PitchSet.of(chord.invert(inversion)), atlas.pitchSet(type, 48, inversion));
+            }
+        }
+    }
+
+    @Test
+    void atlasInversionTest() throws InvalidNoteException {
+        Note[] firstInversion = ChordAtlas.get().notes(ChordType.MAJOR_TRIAD, new Note("C1").getKey(), 1);
+        assertEquals("E1", firstInversion[0].getName());
+        assertEquals("G1", firstInversion[1].getName());
+        assertEquals("C2", firstInversion[2].getName());
+        assertSame(Note.of(28), firstInversion[0]);
+    }
+
+    @Test
+    void unavailableChordTest() {
+        ChordAtlas atlas = ChordAtlas.get();
+        assertTrue(atlas.isAvailable(ChordType.MAJOR_TRIAD, Note.HIGHEST_KEY - 7, 0));
+        assertFalse(atlas.isAvailable(ChordType.MAJOR_TRIAD, Note.HIGHEST_KEY - 7, 1));
+        assertFalse(atlas.isAvailable(ChordType.MAJOR_TRIAD, 60, 3));
+        assertFalse(atlas.isAvailable(ChordType.MAJOR_TRIAD, Note.LOWEST_KEY - 1, 0));
+        assertEquals(PitchSet.EMPTY, atlas.pitchSet(ChordType.DOMINANT_13TH, Note.HIGHEST_KEY, 0));
+        assertEquals(-1, atlas.keys(ChordType.DOMINANT_13TH, Note.HIGHEST_KEY, 0, new int[7]));
+        assertThrows(InvalidNoteException.class, () -> atlas.notes(ChordType.DOMINANT_13TH, Note.HIGHEST_KEY, 0));
+    }
+
+    @Test
+    void memoryBudgetTest() {
+        ChordAtlas atlas = ChordAtlas.get();
+        int expectedEntries = 0;
+        for (ChordType type : ChordType.values()) {
+            expectedEntries += 88 * type.size();
+        }
+        assertEquals(expectedEntries, atlas.entries());
+        assertTrue(atlas.memoryFootprint() < 256 * 1024);
+    }
+}
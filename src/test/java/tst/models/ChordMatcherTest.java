@@ -0,0 +1,69 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.PitchSet;
+import sample.models.chords.ChordMatch;
+import sample.models.chords.ChordMatcher;
+import sample.models.chords.ChordType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChordMatcherTest {
+
+    @Test
+    void exactChordTest() {
+        ChordMatch[] matches = new ChordMatch[3];
+        int[] scores = new int[3];
+        assertEquals(3, ChordMatcher.topK(PitchSet.of(60, 64, 67), matches, scores));
+        assertSame(ChordMatch.of(ChordType.MAJOR_TRIAD, 0, 0), matches[0]);
+        assertTrue(scores[0] > scores[1]);
+        assertTrue(scores[1] >= scores[2]);
+    }
+
+    @Test
+    void omittedFifthTest() {
+        ChordMatch[] matches = new ChordMatch[1];
+        int[] scores = new int[1];
+        assertEquals(1, ChordMatcher.topK(PitchSet.of(48, 52, 58), matches, scores));
+        assertSame(ChordMatch.of(ChordType.DOMINANT_7TH, 0, 0), matches[0]);
+    }
+
+    @Test
+    void doublingAndPassingToneTest() {
+        ChordMatch[] matches = new ChordMatch[2];
+        int[] scores = new int[2];
+        assertEquals(2, ChordMatcher.topK(PitchSet.of(45, 57, 60, 64, 68, 69), matches, scores));
+        assertSame(ChordMatch.of(ChordType.MINOR_TRIAD, 9, 0), matches[0]);
+    }
+
+    @Test
+    void inversionTest() {
+        ChordMatch[] matches = new ChordMatch[1];
+        int[] scores = new int[1];
+        ChordMatcher.topK(PitchSet.of(52, 55, 60), matches, scores);
+        assertSame(ChordMatch.of(ChordType.MAJOR_TRIAD, 0, 1), matches[0]);
+    }
+
+    @Test
+    void scoreTest() {
+        int cMajor = PitchSet.of(60, 64, 67).pitchClasses();
+        assertEquals(3 * ChordMatcher.MATCHED_WEIGHT + ChordMatcher.ROOT_IN_BASS_BONUS,
+                ChordMatcher.score(cMajor, 0, ChordType.MAJOR_TRIAD, 0));
+        assertEquals(3 * ChordMatcher.MATCHED_WEIGHT - ChordMatcher.MISSING_WEIGHT + ChordMatcher.ROOT_IN_BASS_BONUS,
+                ChordMatcher.score(cMajor, 0, ChordType.MAJOR_7TH, 0));
+    }
+
+    @Test
+    void tooFewNotesTest() {
+        ChordMatch[] matches = new ChordMatch[5];
+        assertEquals(0, ChordMatcher.topK(PitchSet.of(60), matches, new int[5]));
+        assertEquals(0, ChordMatcher.topK(PitchSet.EMPTY, matches, new int[5]));
+    }
+
+    @Test
+    void emptyDestinationTest() {
+        assertEquals(0, ChordMatcher.topK(PitchSet.of(60, 64, 67), new ChordMatch[0], new int[0]));
+    }
+}
@@ -0,0 +1,90 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.PitchSet;
+import sample.models.chords.ChordMatch;
+import sample.models.chords.ChordRecognizer;
+import sample.models.chords.ChordType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ChordRecognizerTest {
+
+    @Test
+    void rootPositionTest() {
+        ChordRecognizer recognizer = new ChordRecognizer(Runnable::run);
+        assertNull(recognizer.noteOn(60));
+        assertNull(recognizer.noteOn(64));
+        ChordMatch match = recognizer.noteOn(67);
+        assertSame(ChordMatch.of(ChordType.MAJOR_TRIAD, 0, 0), match);
+        assertEquals("C", match.rootName());
+        assertSame(match, recognizer.matchProperty().get());
+    }
+
+    @Test
+    void inversionTest() {
+        ChordRecognizer recognizer = new ChordRecognizer(Runnable::run);
+        recognizer.noteOn(64);
+        recognizer.noteOn(67);
+        assertSame(ChordMatch.of(ChordType.MAJOR_TRIAD, 0, 1), recognizer.noteOn(72));
+        recognizer.noteOff(64);
+        assertSame(ChordMatch.of(ChordType.MAJOR_TRIAD, 0, 2), recognizer.noteOn(76));
+    }
+
+    @Test
+    void noteOffTest() {
+        ChordRecognizer recognizer = new ChordRecognizer(Runnable::run);
+        recognizer.noteOn(57);
+        recognizer.noteOn(60);
+        recognizer.noteOn(64);
+        recognizer.noteOn(69);
+        assertSame(ChordMatch.of(ChordType.MINOR_TRIAD, 9, 0), recognizer.getMatch());
+        assertSame(ChordMatch.of(ChordType.MINOR_TRIAD, 9, 0), recognizer.noteOff(69));
+        assertNull(recognizer.noteOff(57));
+        assertNull(recognizer.matchProperty().get());
+        recognizer.reset();
+        assertEquals(PitchSet.EMPTY, recognizer.heldKeys());
+    }
+
+    @Test
+    void ambiguousChordTest() {
+        assertSame(ChordMatch.of(ChordType.MAJOR_6TH, 0, 0), ChordRecognizer.recognize(PitchSet.of(48, 52, 55, 57)));
+        assertSame(ChordMatch.of(ChordType.MINOR_7TH, 9, 0), ChordRecognizer.recognize(PitchSet.of(45, 48, 52, 55)));
+        assertSame(ChordMatch.of(ChordType.SUSPENDED_4TH, 7, 0), ChordRecognizer.recognize(PitchSet.of(55, 60, 62)));
+        assertSame(ChordMatch.of(ChordType.SUSPENDED_2ND, 0, 0), ChordRecognizer.recognize(PitchSet.of(60, 62, 67)));
+    }
+
+    @Test
+    void densestMaskTest() {
+        // E13, Amaj13 and Bm13 share their pitch classes, the most Chords of any mask
+        int mask = PitchSet.rotatePitchClasses(ChordType.DOMINANT_13TH.pitchClassMask(), 4);
+        assertEquals(mask, PitchSet.rotatePitchClasses(ChordType.MAJOR_13TH.pitchClassMask(), 9));
+        assertEquals(mask, PitchSet.rotatePitchClasses(ChordType.MINOR_13TH.pitchClassMask(), 11));
+        assertSame(ChordMatch.of(ChordType.DOMINANT_13TH, 4, 0), ChordRecognizer.recognize(mask, 4));
+        assertSame(ChordMatch.of(ChordType.MAJOR_13TH, 9, 0), ChordRecognizer.recognize(mask, 9));
+        assertSame(ChordMatch.of(ChordType.MINOR_13TH, 11, 0), ChordRecognizer.recognize(mask, 11));
+    }
+
+    @Test
+    void extendedChordTest() {
+        ChordMatch match = ChordRecognizer.recognize(PitchSet.of(36, 40, 43, 46, 50));
+        assertSame(ChordMatch.of(ChordType.DOMINANT_9TH, 0, 0), match);
+        match = ChordRecognizer.recognize(PitchSet.of(38, 48, 52, 55, 58));
+        assertSame(ChordMatch.of(ChordType.DOMINANT_9TH, 0, 4), match);
+    }
+
+    @Test
+    void everyChordTypeTest() {
+        for (ChordType type : ChordType.values()) {
+            PitchSet keys = PitchSet.EMPTY;
+            for (int i = 0; i < type.size(); i++) {
+                keys = keys.with(50 + type.interval(i));
+            }
+            ChordMatch match = ChordRecognizer.recognize(keys);
+            assertEquals(2, match.getRootPitchClass(), type.toString());
+            assertEquals(0, match.getInversion());
+        }
+    }
+}
@@ -2,9 +2,12 @@ package tst.models;
 
 import org.junit.jupiter.api.Test;
 import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.Transposable;
 import sample.models.chords.Chord;
 import sample.models.chords.ChordType;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ChordTest {
@@ -30,6 +33,18 @@ public class ChordTest {
         assertEquals(ChordType.DOMINANT_9TH, cDominant9thChord.type);
     }
 
+    @Test
+    public void chordTypeIntervalsTest() {
+        assertEquals(3, ChordType.MAJOR_TRIAD.size());
+        assertEquals(4, ChordType.MAJOR_TRIAD.interval(1));
+        assertEquals((1 << 0) | (1 << 3) | (1 << 7) | (1 << 10) | (1 << 14), ChordType.MINOR_9TH.intervalMask());
+        assertEquals((1 << 0) | (1 << 2) | (1 << 3) | (1 << 7) | (1 << 10), ChordType.MINOR_9TH.pitchClassMask());
+        for (ChordType chordType : ChordType.values()) {
+            assertEquals(chordType.size(), Integer.bitCount(chordType.intervalMask()));
+            assertEquals(0, chordType.interval(0));
+        }
+    }
+
     @Test
     public void triadTest() throws Exception {
         Chord cMajorTriadChord = new Chord(ChordType.MAJOR_TRIAD, new Note());
@@ -680,4 +695,43 @@ public class ChordTest {
         assertEquals("D3", sixthInversion[5].getName());
         assertEquals("F3", sixthInversion[6].getName());
     }
+
+    @Test
+    public void transposeTest() throws Exception {
+        Chord cMajorTriadChord = new Chord(ChordType.MAJOR_TRIAD, new Note("C4"));
+        Note[] up = cMajorTriadChord.transposeUp(2);
+        assertEquals("D4", up[0].getName());
+        assertEquals(66, up[1].getKey());
+        assertEquals("A4", up[2].getName());
+        Note[] down = cMajorTriadChord.transposeDown(12);
+        assertEquals("C3", down[0].getName());
+        assertEquals("G3", down[2].getName());
+
+        int[] keys = new int[3];
+        assertEquals(0, cMajorTriadChord.transpose(-1, keys));
+        assertArrayEquals(new int[] {59, 63, 66}, keys);
+        assertEquals(PitchSet.of(59, 63, 66), cMajorTriadChord.transposePitchSet(-1));
+
+        Chord highChord = new Chord(ChordType.MAJOR_TRIAD, new Note("F7"));
+        assertEquals(2, highChord.transpose(4, keys));
+        assertArrayEquals(new int[] {105, Transposable.OFF_KEYBOARD, Transposable.OFF_KEYBOARD}, keys);
+    }
+
+    @Test
+    public void invertIntoBufferTest() throws Exception {
+        int[] keys = new int[7];
+        for (ChordType type : ChordType.values()) {
+            Chord chord = new Chord(type, new Note("C3"));
+            for (int inversion = 0; inversion <= type.size(); inversion++) {
+                assertEquals(0, chord.invert(inversion, keys));
+                Note[] notes = chord.invert(inversion);
+                for (int i = 0; i < notes.length; i++) {
+                    assertEquals(notes[i].getKey(), keys[i]);
+                }
+            }
+        }
+        Chord highChord = new Chord(ChordType.MAJOR_TRIAD, new Note("F7"));
+        assertEquals(1, highChord.invert(1, keys));
+        assertEquals(Transposable.OFF_KEYBOARD, keys[2]);
+    }
 }
@@ -0,0 +1,87 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.KeyBatch;
+import sample.models.Note;
+import sample.models.Transposable;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class KeyBatchTest {
+    private static final int LENGTH = 1003;
+
+    private static int[] randomKeys() {
+        Random random = new Random(42);
+        int[] keys = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            keys[i] = random.nextInt(300) - 150;
+        }
+        return keys;
+    }
+
+    @Test
+    public void scalarTest() {
+        int[] keys = {60, 64, 67, Transposable.OFF_KEYBOARD, 0, 127};
+        int[] dest = new int[keys.length];
+
+        KeyBatch.SCALAR.transpose(keys, dest, 3, -12);
+        assertArrayEquals(new int[] {48, 52, 55, 0, 0, 0}, dest);
+
+        KeyBatch.SCALAR.fold(keys, dest, keys.length);
+        assertArrayEquals(new int[] {0, 4, 7, 11, 0, 7}, dest);
+
+        assertEquals(3, KeyBatch.SCALAR.clamp(keys, dest, keys.length));
+        assertArrayEquals(new int[] {60, 64, 67, Note.LOWEST_KEY, Note.LOWEST_KEY, Note.HIGHEST_KEY}, dest);
+
+        int[] counts = new int[12];
+        assertEquals(5, KeyBatch.SCALAR.pitchClassHistogram(keys, keys.length, counts));
+        assertArrayEquals(new int[] {2, 0, 0, 0, 1, 0, 0, 2, 0, 0, 0, 0}, counts);
+    }
+
+    @Test
+    public void defaultMatchesScalarTest() {
+        KeyBatch batch = KeyBatch.get();
+        int[] keys = randomKeys();
+        int[] expected = new int[LENGTH];
+        int[] actual = new int[LENGTH];
+
+        KeyBatch.SCALAR.transpose(keys, expected, LENGTH, 7);
+        batch.transpose(keys, actual, LENGTH, 7);
+        assertArrayEquals(expected, actual);
+
+        KeyBatch.SCALAR.fold(keys, expected, LENGTH);
+        batch.fold(keys, actual, LENGTH);
+        assertArrayEquals(expected, actual);
+
+        assertEquals(KeyBatch.SCALAR.clamp(keys, expected, LENGTH), batch.clamp(keys, actual, LENGTH));
+        assertArrayEquals(expected, actual);
+
+        int[] expectedCounts = new int[12];
+        int[] actualCounts = new int[12];
+        assertEquals(KeyBatch.SCALAR.pitchClassHistogram(keys, LENGTH, expectedCounts),
+                batch.pitchClassHistogram(keys, LENGTH, actualCounts));
+        assertArrayEquals(expectedCounts, actualCounts);
+    }
+
+    @Test
+    public void foldRangeTest() {
+        int[] keys = {-49152, -49151, -13, -12, -1, 49139, 49151};
+        int[] dest = new int[keys.length];
+        KeyBatch.get().fold(keys, dest, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Math.floorMod(keys[i], 12), dest[i]);
+        }
+    }
+
+    @Test
+    public void inPlaceTest() {
+        int[] keys = randomKeys();
+        int[] expected = new int[LENGTH];
+        KeyBatch.SCALAR.transpose(keys, expected, LENGTH, -3);
+        KeyBatch.get().transpose(keys, keys, LENGTH, -3);
+        assertArrayEquals(expected, keys);
+    }
+}
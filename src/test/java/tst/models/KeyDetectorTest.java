@@ -0,0 +1,71 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.scales.KeyDetector;
+import sample.models.scales.KeyMatch;
+import sample.models.scales.ScaleType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyDetectorTest {
+    private static final int[] C_MAJOR_MELODY = {60, 62, 64, 65, 67, 69, 71, 72, 67, 64, 60, 55, 60};
+    private static final int[] A_MINOR_MELODY = {57, 59, 60, 62, 64, 65, 68, 69, 64, 60, 57, 52, 57};
+
+    private static KeyMatch play(final KeyDetector detector, final int[] keys, final int transposition) {
+        KeyMatch match = null;
+        for (int key : keys) {
+            match = detector.noteOn(key + transposition);
+        }
+        return match;
+    }
+
+    @Test
+    void majorKeyTest() {
+        KeyDetector detector = new KeyDetector(KeyDetector.DEFAULT_HALF_LIFE, Runnable::run);
+        assertNull(detector.noteOn(60));
+        assertNull(detector.noteOn(64));
+        KeyMatch match = play(detector, C_MAJOR_MELODY, 0);
+        assertSame(KeyMatch.of(ScaleType.MAJOR_SCALE, 0), match);
+        assertSame(match, detector.matchProperty().get());
+        assertEquals("C", match.rootName());
+        assertTrue(detector.getCorrelation() > 0.7);
+    }
+
+    @Test
+    void minorKeyTest() {
+        KeyDetector detector = new KeyDetector(KeyDetector.DEFAULT_HALF_LIFE, Runnable::run);
+        assertSame(KeyMatch.of(ScaleType.MINOR_SCALE, 9), play(detector, A_MINOR_MELODY, 0));
+    }
+
+    @Test
+    void everyRootTest() {
+        for (int root = 0; root < 12; root++) {
+            KeyDetector detector = new KeyDetector(KeyDetector.DEFAULT_HALF_LIFE, Runnable::run);
+            assertSame(KeyMatch.of(ScaleType.MAJOR_SCALE, root), play(detector, C_MAJOR_MELODY, root));
+        }
+    }
+
+    @Test
+    void modulationTest() {
+        KeyDetector detector = new KeyDetector(8, Runnable::run);
+        for (int i = 0; i < 1000; i++) {
+            play(detector, C_MAJOR_MELODY, 0);
+        }
+        assertSame(KeyMatch.of(ScaleType.MAJOR_SCALE, 0), detector.getMatch());
+        play(detector, C_MAJOR_MELODY, 3);
+        assertSame(KeyMatch.of(ScaleType.MAJOR_SCALE, 3), play(detector, C_MAJOR_MELODY, 3));
+    }
+
+    @Test
+    void resetTest() {
+        KeyDetector detector = new KeyDetector(KeyDetector.DEFAULT_HALF_LIFE, Runnable::run);
+        play(detector, C_MAJOR_MELODY, 0);
+        detector.reset();
+        assertNull(detector.getMatch());
+        assertNull(detector.matchProperty().get());
+        assertNull(detector.noteOn(60));
+    }
+}
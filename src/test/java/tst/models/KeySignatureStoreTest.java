@@ -0,0 +1,57 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.Note;
+import sample.models.NotesNamingMode;
+import sample.models.scales.KeySignatureStore;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sample.models.NotesNamingMode.FLAT_MODE;
+import static sample.models.NotesNamingMode.SHARP_MODE;
+
+class KeySignatureStoreTest {
+
+    @Test
+    void whiteKeyRootsTest() {
+        for (NotesNamingMode mode : NotesNamingMode.values()) {
+            assertEquals(List.of(), KeySignatureStore.accidentals(0, mode));
+            assertEquals(1, KeySignatureStore.fifths(7, mode));
+            assertEquals(List.of("F#", "C#", "G#", "D#", "A#"), KeySignatureStore.accidentals(11, mode));
+            assertEquals(List.of("Bb"), KeySignatureStore.accidentals(5, mode));
+        }
+    }
+
+    @Test
+    void blackKeyRootsTest() {
+        assertEquals(List.of("F#", "C#", "G#", "D#", "A#", "E#"), KeySignatureStore.accidentals(6, SHARP_MODE));
+        assertEquals(List.of("Bb", "Eb", "Ab", "Db", "Gb", "Cb"), KeySignatureStore.accidentals(6, FLAT_MODE));
+        assertEquals(-3, KeySignatureStore.fifths(3, FLAT_MODE));
+        assertEquals(7, KeySignatureStore.fifths(1, SHARP_MODE));
+        assertEquals(List.of("Fx", "C#", "G#", "D#", "A#", "E#", "B#"), KeySignatureStore.accidentals(8, SHARP_MODE));
+        assertEquals(10, KeySignatureStore.fifths(10, SHARP_MODE));
+    }
+
+    @Test
+    void namingModeTest() {
+        Note.notesNamingMode = SHARP_MODE;
+        try {
+            assertSame(KeySignatureStore.accidentals(1, SHARP_MODE), KeySignatureStore.accidentals(1));
+            assertTrue(KeySignatureStore.printKeySignatures().contains("C#: [ F# C# G# D# A# E# B# ]"));
+        } finally {
+            Note.notesNamingMode = FLAT_MODE;
+        }
+        assertSame(KeySignatureStore.accidentals(1, FLAT_MODE), KeySignatureStore.accidentals(1));
+        assertTrue(KeySignatureStore.printKeySignatures().contains("Db: [ Bb Eb Ab Db Gb ]"));
+    }
+
+    @Test
+    void invalidRootTest() {
+        assertThrows(IllegalArgumentException.class, () -> KeySignatureStore.accidentals(12, FLAT_MODE));
+        assertThrows(UnsupportedOperationException.class, () -> KeySignatureStore.accidentals(2, FLAT_MODE).add("C#"));
+    }
+}
@@ -0,0 +1,139 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.PitchSet;
+import sample.models.midi.MidiDecoder;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.SysexMessage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MidiDecoderTest {
+
+    private static byte[] bytes(final int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    void noteOnOffTest() {
+        MidiDecoder decoder = new MidiDecoder();
+        assertEquals(MidiDecoder.NOTE_ON, decoder.decode(0x90, 60, 100));
+        assertEquals(MidiDecoder.NOTE_ON, decoder.decode(0x90, 100, 40));
+        assertTrue(decoder.isPressed(60));
+        assertTrue(decoder.isPressed(100));
+        assertEquals(100, decoder.velocity(60));
+        assertEquals(40, decoder.velocity(100));
+        assertEquals(1L << 60, decoder.pressedLow());
+        assertEquals(1L << 36, decoder.pressedHigh());
+        assertEquals(PitchSet.of(60, 100), decoder.pressedKeys());
+
+        // a velocity 0 note on releases the key
+        assertEquals(MidiDecoder.NOTE_OFF, decoder.decode(0x90, 60, 0));
+        assertFalse(decoder.isPressed(60));
+        assertEquals(0, decoder.velocity(60));
+        assertEquals(MidiDecoder.NOTE_OFF, decoder.decode(0x80, 100, 64));
+        assertEquals(0, decoder.pressedCount());
+
+        // the same key pressed twice is released once, no stuck key
+        decoder.decode(0x90, 64, 127);
+        decoder.decode(0x90, 64, 127);
+        decoder.decode(0x80, 64, 0);
+        assertFalse(decoder.isPressed(64));
+    }
+
+    @Test
+    void controlChangeTest() {
+        MidiDecoder decoder = new MidiDecoder();
+        assertEquals(MidiDecoder.CONTROL_CHANGE, decoder.decode(0xB0, 64, 127));
+        assertEquals(127, decoder.controller(64));
+        decoder.decode(0x90, 21, 10);
+        decoder.decode(0x90, 108, 10);
+        assertEquals(2, decoder.pressedCount());
+        decoder.decode(0xB0, MidiDecoder.ALL_NOTES_OFF, 0);
+        assertEquals(0, decoder.pressedCount());
+        assertEquals(0, decoder.velocity(108));
+
+        assertEquals(MidiDecoder.PITCH_BEND, decoder.decode(0xE0, 0, 64));
+        assertEquals(0, decoder.pitchBend());
+        decoder.decode(0xE0, 0, 0);
+        assertEquals(-8192, decoder.pitchBend());
+        decoder.decode(0xE0, 0x7F, 0x7F);
+        assertEquals(8191, decoder.pitchBend());
+
+        assertEquals(MidiDecoder.IGNORED, decoder.decode(0xC0, 5, 0));
+        assertEquals(MidiDecoder.IGNORED, decoder.decode(0xF8, 0, 0));
+        assertEquals(MidiDecoder.IGNORED, decoder.decode(60, 100, 0));
+    }
+
+    @Test
+    void channelFilterTest() {
+        MidiDecoder decoder = new MidiDecoder(1 << 2);
+        assertEquals(MidiDecoder.IGNORED, decoder.decode(0x90, 60, 100));
+        assertEquals(MidiDecoder.NOTE_ON, decoder.decode(0x92, 62, 100));
+        assertEquals(PitchSet.of(62), decoder.pressedKeys());
+        assertEquals(MidiDecoder.IGNORED, decoder.decode(0xB9, MidiDecoder.ALL_NOTES_OFF, 0));
+        assertTrue(decoder.isPressed(62));
+    }
+
+    @Test
+    void runningStatusTest() {
+        MidiDecoder decoder = new MidiDecoder();
+        List<String> messages = new ArrayList<>();
+        MidiDecoder.Listener listener = (kind, status, data1, data2) ->
+                messages.add(kind + ":" + Integer.toHexString(status) + ":" + data1 + ":" + data2);
+
+        // a chord with running status, a clock byte in the middle of a message
+        assertEquals(3, decoder.decode(bytes(0x90, 60, 90, 64, 0xF8, 91, 67, 92), 8, listener));
+        assertEquals(PitchSet.of(60, 64, 67), decoder.pressedKeys());
+        // the running status carries over to the next call, released by velocity 0
+        assertEquals(2, decoder.decode(bytes(60, 0, 64, 0, 0xFF), 4, listener));
+        assertEquals(PitchSet.of(67), decoder.pressedKeys());
+        // a program change has a single data byte and is not reported
+        assertEquals(2, decoder.decode(bytes(0xC0, 5, 6), 3, listener));
+        assertEquals(1, decoder.decode(bytes(0x80, 67, 0), 3, listener));
+        assertEquals(List.of("1:90:60:90", "1:90:64:91", "1:90:67:92",
+                "2:90:60:0", "2:90:64:0", "2:80:67:0"), messages);
+
+        // system messages cancel the running status, data bytes without status are dropped
+        assertEquals(0, decoder.decode(bytes(0xF0, 0x7E, 60, 100, 0xF7, 60, 100), 7, listener));
+        assertEquals(0, decoder.pressedCount());
+        // a message split across calls
+        decoder.decode(bytes(0x91, 72), 2, null);
+        assertFalse(decoder.isPressed(72));
+        decoder.decode(bytes(80), 1, null);
+        assertTrue(decoder.isPressed(72));
+        decoder.reset();
+        assertEquals(0, decoder.pressedCount());
+        assertEquals(0, decoder.decode(bytes(72, 0), 2, null));
+    }
+
+    @Test
+    void midiMessageTest() throws InvalidMidiDataException {
+        MidiDecoder decoder = new MidiDecoder(1);
+        List<String> messages = new ArrayList<>();
+        MidiDecoder.Listener listener = (kind, status, data1, data2) ->
+                messages.add(kind + ":" + Integer.toHexString(status) + ":" + data1 + ":" + data2);
+
+        ShortMessage message = new ShortMessage(ShortMessage.NOTE_ON, 0, 60, 100);
+        assertEquals(1, decoder.decode(message, listener));
+        assertTrue(decoder.isPressed(60));
+        message.setMessage(ShortMessage.NOTE_ON, 1, 64, 100);
+        assertEquals(1, decoder.decode(message, listener));
+        assertFalse(decoder.isPressed(64));
+        message.setMessage(ShortMessage.PROGRAM_CHANGE, 0, 5, 0);
+        assertEquals(1, decoder.decode(message, listener));
+        // other messages go through their bytes
+        assertEquals(0, decoder.decode(new SysexMessage(new byte[] {(byte) 0xF0, 0x7E, (byte) 0xF7}, 3), listener));
+        assertEquals(List.of("1:90:60:100"), messages);
+    }
+}
@@ -0,0 +1,72 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.midi.MidiEventQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MidiEventQueueTest {
+
+    @Test
+    void packTest() {
+        long event = MidiEventQueue.pack(0x91, 60, 100, 123_456_789L);
+        assertEquals(0x91, MidiEventQueue.status(event));
+        assertEquals(60, MidiEventQueue.data1(event));
+        assertEquals(100, MidiEventQueue.data2(event));
+        assertEquals(123_456_789L, MidiEventQueue.timeStamp(event));
+        assertEquals(0, MidiEventQueue.timeStamp(MidiEventQueue.pack((byte) 0x80, (byte) 60, 0, -1)));
+        assertEquals(0x80, MidiEventQueue.status(MidiEventQueue.pack((byte) 0x80, (byte) 60, 0, -1)));
+    }
+
+    @Test
+    void fullQueueTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MidiEventQueue(6));
+        MidiEventQueue queue = new MidiEventQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(1, queue.dropped());
+        assertEquals(4, queue.size());
+
+        long[] dest = new long[3];
+        assertEquals(3, queue.drainTo(dest));
+        assertEquals(2, dest[2]);
+        assertTrue(queue.offer(5));
+        assertEquals(2, queue.drainTo(dest));
+        assertEquals(3, dest[0]);
+        assertEquals(5, dest[1]);
+        assertEquals(0, queue.drainTo(dest));
+    }
+
+    @Test
+    void concurrentTest() throws InterruptedException {
+        final int total = 100_000;
+        MidiEventQueue queue = new MidiEventQueue(256);
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < total; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        long[] batch = new long[64];
+        long expected = 0;
+        while (expected < total) {
+            int count = queue.drainTo(batch);
+            if (count == 0) {
+                // lets the producer run on a single CPU
+                Thread.yield();
+            }
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected++, batch[i]);
+            }
+        }
+        producer.join();
+        assertEquals(0, queue.size());
+    }
+}
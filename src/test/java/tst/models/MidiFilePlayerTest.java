@@ -0,0 +1,91 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.models.midi.MidiEventQueue;
+import sample.models.midi.MidiFilePlayer;
+import sample.models.midi.StandardMidiFile;
+
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Receiver;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MidiFilePlayerTest {
+
+    /**
+     * Keeps the messages received with the time they arrived at.
+     */
+    private static final class Collector implements Receiver {
+        private final List<long[]> received = new ArrayList<>();
+
+        @Override
+        public void send(final MidiMessage message, final long timeStamp) {
+            byte[] bytes = message.getMessage();
+            received.add(new long[] {System.nanoTime(), MidiEventQueue.pack(bytes[0], bytes[1], bytes[2], timeStamp)});
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void playTest(@TempDir Path folder) throws IOException, InterruptedException {
+        long[] events = {
+                MidiEventQueue.pack(0x90, 60, 100, 0),
+                MidiEventQueue.pack(0x90, 64, 100, 50_000),
+                MidiEventQueue.pack(0x80, 60, 0, 100_000),
+                MidiEventQueue.pack(0x80, 64, 0, 150_000)};
+        Path file = folder.resolve("short.mid");
+        StandardMidiFile.write(file, events, events.length, StandardMidiFile.SINGLE_TRACK);
+
+        Collector first = new Collector();
+        Collector second = new Collector();
+        MidiFilePlayer player = new MidiFilePlayer(file, first, second);
+        player.start();
+        assertTrue(player.isPlaying());
+        player.await();
+        assertFalse(player.isPlaying());
+        assertEquals(150_000, player.positionMicros());
+
+        // the events, then All Notes Off on every channel
+        assertEquals(events.length + 16, first.received.size());
+        assertEquals(first.received.size(), second.received.size());
+        long start = first.received.get(0)[0];
+        for (int i = 0; i < events.length; i++) {
+            assertEquals(events[i], first.received.get(i)[1]);
+            long late = first.received.get(i)[0] - start - MidiEventQueue.timeStamp(events[i]) * 1000;
+            assertTrue(late > -1_000_000 && late < 20_000_000, "late by " + late + " ns");
+        }
+        long allNotesOff = first.received.get(events.length + 15)[1];
+        assertEquals(0xBF, MidiEventQueue.status(allNotesOff));
+        assertEquals(123, MidiEventQueue.data1(allNotesOff));
+    }
+
+    @Test
+    void closeTest(@TempDir Path folder) throws IOException, InterruptedException {
+        long[] events = {
+                MidiEventQueue.pack(0x90, 60, 100, 0),
+                MidiEventQueue.pack(0x80, 60, 0, 10_000_000)};
+        Path file = folder.resolve("long.mid");
+        StandardMidiFile.write(file, events, events.length, StandardMidiFile.SINGLE_TRACK);
+
+        Collector collector = new Collector();
+        MidiFilePlayer player = new MidiFilePlayer(file, collector);
+        player.start();
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        player.close();
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertFalse(player.isPlaying());
+        assertEquals(1 + 16, collector.received.size());
+        assertEquals(0, player.positionMicros());
+    }
+}
@@ -0,0 +1,123 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.models.midi.MidiEventQueue;
+import sample.models.midi.MidiFileStream;
+import sample.models.midi.StandardMidiFile;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MidiFileStreamTest {
+
+    @Test
+    void mergeTest(@TempDir Path folder) throws IOException, InvalidMidiDataException {
+        // 16 tracks of random notes at 480 PPQ, 120 BPM: a tick is 1041.666 us
+        final int tracks = 16;
+        final int eventsPerTrack = 5000;
+        Sequence sequence = new Sequence(Sequence.PPQ, 480);
+        long[] expected = new long[tracks * eventsPerTrack];
+        Random random = new Random(7);
+        for (int t = 0; t < tracks; t++) {
+            Track track = sequence.createTrack();
+            long tick = 0;
+            for (int i = 0; i < eventsPerTrack; i++) {
+                tick += random.nextInt(50);
+                int key = 21 + random.nextInt(88);
+                int velocity = random.nextInt(128);
+                track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, t, key, velocity), tick));
+                // tick, then track, then order in the track
+                expected[t * eventsPerTrack + i] = tick << 40 | (long) t << 20 | i;
+            }
+        }
+        Path file = folder.resolve("orchestra.mid");
+        MidiSystem.write(sequence, 1, file.toFile());
+        Arrays.sort(expected);
+
+        MidiFileStream stream = MidiFileStream.open(file);
+        assertEquals(StandardMidiFile.MULTI_TRACK, stream.format());
+        assertEquals(tracks, stream.trackCount());
+        for (long order : expected) {
+            long tick = order >>> 40;
+            int t = (int) (order >>> 20) & 0xFFFFF;
+            long event = stream.next();
+            assertEquals(Math.round(tick * 500_000.0 / 480), MidiEventQueue.timeStamp(event));
+            assertEquals(0x90 | t, MidiEventQueue.status(event));
+        }
+        assertEquals(MidiFileStream.END, stream.next());
+        assertEquals(MidiFileStream.END, stream.next());
+    }
+
+    @Test
+    void tempoTest(@TempDir Path folder) throws IOException, InvalidMidiDataException {
+        Sequence sequence = new Sequence(Sequence.PPQ, 100);
+        Track conductor = sequence.createTrack();
+        // 60 BPM from beat 1, 240 BPM from beat 2
+        conductor.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x0F, 0x42, 0x40}, 3), 100));
+        conductor.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x03, (byte) 0xD0, (byte) 0x90}, 3), 200));
+        Track notes = sequence.createTrack();
+        for (int beat = 0; beat < 4; beat++) {
+            notes.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 60 + beat, 100), beat * 100));
+        }
+        Path file = folder.resolve("tempo.mid");
+        MidiSystem.write(sequence, 1, file.toFile());
+
+        MidiFileStream stream = MidiFileStream.open(file);
+        assertEquals(0, MidiEventQueue.timeStamp(stream.next()));
+        assertEquals(500_000, MidiEventQueue.timeStamp(stream.next()));
+        assertEquals(1_500_000, MidiEventQueue.timeStamp(stream.next()));
+        assertEquals(1_750_000, MidiEventQueue.timeStamp(stream.next()));
+        assertEquals(MidiFileStream.END, stream.next());
+    }
+
+    @Test
+    void lazyDecodingTest(@TempDir Path folder) throws IOException {
+        // a program change, a sysex ending the running status, then a data byte without status
+        byte[] track = {0x00, (byte) 0xC0, 0x05, 0x00, (byte) 0xF0, 0x01, (byte) 0xF7, 0x10, 0x3C, 0x40,
+                0x00, (byte) 0xFF, 0x2F, 0x00};
+        byte[] bytes = new byte[14 + 8 + track.length];
+        System.arraycopy(new byte[] {'M', 'T', 'h', 'd', 0, 0, 0, 6, 0, 0, 0, 1, 0, 96,
+                'M', 'T', 'r', 'k', 0, 0, 0, (byte) track.length}, 0, bytes, 0, 22);
+        System.arraycopy(track, 0, bytes, 22, track.length);
+        Path file = folder.resolve("corrupt.mid");
+        Files.write(file, bytes);
+
+        MidiFileStream stream = MidiFileStream.open(file);
+        assertEquals(MidiEventQueue.pack(0xC0, 5, 0, 0), stream.next());
+        assertThrows(UncheckedIOException.class, stream::next);
+        assertThrows(IOException.class, () -> StandardMidiFile.read(file));
+
+        // the first event is decoded on opening
+        track[1] = 0x20;
+        System.arraycopy(track, 0, bytes, 22, track.length);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MidiFileStream.open(file));
+    }
+
+    @Test
+    void readTest(@TempDir Path folder) throws IOException {
+        long[] events = {
+                MidiEventQueue.pack(0x90, 60, 100, 0),
+                MidiEventQueue.pack(0x91, 64, 90, 1000),
+                MidiEventQueue.pack(0x80, 60, 0, 2000)};
+        Path file = folder.resolve("small.mid");
+        StandardMidiFile.write(file, events, events.length, StandardMidiFile.MULTI_TRACK);
+        assertArrayEquals(events, StandardMidiFile.read(file));
+    }
+}
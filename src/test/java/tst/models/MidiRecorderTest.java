@@ -0,0 +1,127 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.models.midi.MidiEventQueue;
+import sample.models.midi.MidiRecorder;
+import sample.models.midi.StandardMidiFile;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.SysexMessage;
+import javax.sound.midi.Track;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MidiRecorderTest {
+
+    private static MidiRecorder performance() {
+        MidiRecorder recorder = new MidiRecorder();
+        recorder.start();
+        recorder.record(0x90, 60, 100, 1_000_000);
+        recorder.record(0x91, 64, 90, 1_250_000);
+        recorder.record(0xB0, 64, 127, 1_500_000);
+        recorder.record(0xE1, 0, 80, 1_750_500);
+        recorder.record(0xC0, 5, 0, 2_000_000);
+        recorder.record(0x80, 60, 0, 2_500_000);
+        recorder.record(0x91, 64, 0, 3_000_000);
+        recorder.stop();
+        return recorder;
+    }
+
+    @Test
+    void recordTest() {
+        MidiRecorder recorder = new MidiRecorder();
+        recorder.record(0x90, 60, 100, 5);
+        assertEquals(0, recorder.size());
+
+        recorder = performance();
+        assertEquals(7, recorder.size());
+        long[] events = recorder.events();
+        assertEquals(0, MidiEventQueue.timeStamp(events[0]));
+        assertEquals(250_000, MidiEventQueue.timeStamp(events[1]));
+        assertEquals(0x91, MidiEventQueue.status(events[1]));
+        assertEquals(2_000_000, recorder.durationMicros());
+        recorder.record(0x90, 61, 100, 4_000_000);
+        assertEquals(7, recorder.size());
+
+        // without device time-stamps, the system clock never goes back
+        recorder.start();
+        for (int i = 0; i < 100_000; i++) {
+            recorder.record(0x90, 21 + i % 88, 1 + i % 127, -1);
+        }
+        assertEquals(100_000, recorder.size());
+        events = recorder.events();
+        for (int i = 1; i < events.length; i++) {
+            assertTrue(MidiEventQueue.timeStamp(events[i]) >= MidiEventQueue.timeStamp(events[i - 1]));
+        }
+        assertEquals(21 + 99_999 % 88, MidiEventQueue.data1(events[99_999]));
+    }
+
+    @Test
+    void saveLoadTest(@TempDir Path folder) throws IOException, InvalidMidiDataException {
+        MidiRecorder recorder = performance();
+        for (int format : new int[] {StandardMidiFile.SINGLE_TRACK, StandardMidiFile.MULTI_TRACK}) {
+            Path file = folder.resolve("performance" + format + ".mid");
+            recorder.save(file, format);
+            long[] expected = recorder.events();
+            // 500 us ticks
+            expected[3] = MidiEventQueue.pack(0xE1, 0, 80, 750_500);
+            assertArrayEquals(expected, MidiRecorder.load(file).events());
+
+            Sequence sequence = MidiSystem.getSequence(file.toFile());
+            assertEquals(format == StandardMidiFile.SINGLE_TRACK ? 1 : 3, sequence.getTracks().length);
+            assertEquals(StandardMidiFile.RESOLUTION, sequence.getResolution());
+            assertEquals(2_000_000, sequence.getMicrosecondLength());
+        }
+        assertThrows(IllegalArgumentException.class, () -> recorder.save(folder.resolve("x.mid"), 2));
+
+        Sequence sequence = recorder.toSequence();
+        assertEquals(8, sequence.getTracks()[0].size() - 1);
+        assertEquals(2_000_000, sequence.getMicrosecondLength());
+    }
+
+    @Test
+    void readTest(@TempDir Path folder) throws IOException, InvalidMidiDataException {
+        // written by Java Sound, with running status, a tempo change, a sysex and a second track
+        Sequence sequence = new Sequence(Sequence.PPQ, 480);
+        Track conductor = sequence.createTrack();
+        conductor.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x03, (byte) 0xD0, (byte) 0x90}, 3), 480));
+        conductor.add(new MidiEvent(new SysexMessage(new byte[] {(byte) 0xF0, 0x7E, 0x7F, 0x09, 0x01, (byte) 0xF7}, 6), 0));
+        Track notes = sequence.createTrack();
+        notes.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 60, 100), 0));
+        notes.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 64, 100), 480));
+        notes.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 60, 0), 960));
+        notes.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 64, 0), 960));
+        Track other = sequence.createTrack();
+        other.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 3, 48, 70), 480));
+        Path file = folder.resolve("song.mid");
+        MidiSystem.write(sequence, 1, file.toFile());
+
+        assertArrayEquals(new long[] {
+                MidiEventQueue.pack(0x90, 60, 100, 0),
+                MidiEventQueue.pack(0x90, 64, 100, 500_000),
+                MidiEventQueue.pack(0x93, 48, 70, 500_000),
+                MidiEventQueue.pack(0x90, 60, 0, 750_000),
+                MidiEventQueue.pack(0x90, 64, 0, 750_000)}, StandardMidiFile.read(file));
+
+        Path text = folder.resolve("text.mid");
+        Files.writeString(text, "not a midi file");
+        assertThrows(IOException.class, () -> StandardMidiFile.read(text));
+        Path truncated = folder.resolve("truncated.mid");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> StandardMidiFile.read(truncated));
+    }
+}
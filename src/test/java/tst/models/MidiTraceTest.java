@@ -0,0 +1,95 @@
+package tst.models;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sample.models.midi.MidiTrace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MidiTraceTest {
+
+    @Test
+    void dumpTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MidiTrace(100));
+        MidiTrace trace = new MidiTrace(4);
+        assertEquals("", trace.dump());
+
+        trace.midiReceived(0x90, 60, 100, 1234);
+        trace.keyboardApplied(3, 2, System.nanoTime());
+        trace.audioStarted(60, MidiTrace.SOURCE_SYNTH, System.nanoTime());
+        String[] lines = trace.dump().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("midi-receive") && lines[0].contains("90 60 100 at 1234 us"), lines[0]);
+        assertTrue(lines[1].contains("keyboard-apply") && lines[1].contains("3 events, 2 keys"), lines[1]);
+        assertTrue(lines[2].contains("audio-start") && lines[2].contains("key 60 from synth"), lines[2]);
+        assertTrue(lines[2].trim().startsWith("0.0 us"), lines[2]);
+    }
+
+    @Test
+    void ringTest() {
+        MidiTrace trace = new MidiTrace(4);
+        for (int i = 0; i < 10; i++) {
+            trace.midiReceived(0x80, 21 + i, 0, -1);
+        }
+        trace.eventDropped(7);
+        assertEquals(11, trace.recordCount());
+        String[] lines = trace.dump().split(System.lineSeparator());
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("80 28 0 at -1 us"), lines[0]);
+        assertTrue(lines[2].contains("80 30 0"), lines[2]);
+        assertTrue(lines[3].contains("event-dropped") && lines[3].contains("7 dropped"), lines[3]);
+    }
+
+    @Test
+    void concurrentTest() throws InterruptedException {
+        MidiTrace trace = new MidiTrace(1024);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    trace.midiReceived(0x90, i & 0x7F, 64, i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, trace.recordCount());
+        assertEquals(1024, trace.dump().split(System.lineSeparator()).length);
+    }
+
+    @Test
+    void flightRecorderTest(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("trace.jfr");
+        MidiTrace trace = new MidiTrace(4);
+        try (Recording recording = new Recording()) {
+            recording.enable("sample.MidiReceive");
+            recording.enable("sample.AudioStart");
+            recording.start();
+            trace.midiReceived(0x90, 60, 100, 42);
+            trace.audioStarted(60, MidiTrace.SOURCE_BANK, System.nanoTime());
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, events.size());
+        RecordedEvent received = events.stream()
+                .filter(e -> e.getEventType().getName().equals("sample.MidiReceive")).findFirst().orElseThrow();
+        assertEquals(0x90, received.getInt("status"));
+        assertEquals(60, received.getInt("data1"));
+        assertEquals(42, received.getLong("deviceTimeStamp"));
+        RecordedEvent started = events.stream()
+                .filter(e -> e.getEventType().getName().equals("sample.AudioStart")).findFirst().orElseThrow();
+        assertEquals("bank", started.getString("source"));
+    }
+}
@@ -0,0 +1,63 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.NoteParser;
+import sample.models.Utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NoteParserTest {
+
+    @Test
+    void parseTest() {
+        assertEquals(60, NoteParser.parse("C4"));
+        assertEquals(21, NoteParser.parse("A0"));
+        assertEquals(108, NoteParser.parse("C8"));
+        assertEquals(61, NoteParser.parse("Db4"));
+        assertEquals(61, NoteParser.parse("C#4"));
+        assertEquals(62, NoteParser.parse("C##4"));
+        assertEquals(62, NoteParser.parse("Cx4"));
+        assertEquals(60, NoteParser.parse("Dbb4"));
+        assertEquals(58, NoteParser.parse("Cbb4"));
+        assertEquals(59, NoteParser.parse("Cb4"));
+        assertEquals(65, NoteParser.parse("E#4"));
+        assertEquals(60, NoteParser.parse("c4"));
+    }
+
+    @Test
+    void fullMidiRangeTest() {
+        assertEquals(0, NoteParser.parse("C-1"));
+        assertEquals(127, NoteParser.parse("G9"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("Cb-1"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("G#9"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C10"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C-2"));
+    }
+
+    @Test
+    void invalidNameTest() {
+        assertEquals(NoteParser.INVALID, NoteParser.parse("Bad Note Name"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse(""));
+        assertEquals(NoteParser.INVALID, NoteParser.parse(null));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("H4"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C#"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C-"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C4b"));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C99999999999"));
+    }
+
+    @Test
+    void subSequenceTest() {
+        assertEquals(60, NoteParser.parse("[C4]", 1, 3));
+        assertEquals(NoteParser.INVALID, NoteParser.parse("C4", 1, 1));
+    }
+
+    @Test
+    void allKeyboardNamesTest() {
+        for (int i = 0; i < Utilities.NUMBER_OF_KEYS_88; i++) {
+            assertEquals(21 + i, NoteParser.parse(Utilities.NOTE_NAMES_FLAT.get(i)));
+            assertEquals(21 + i, NoteParser.parse(Utilities.NOTE_NAMES_SHARP.get(i)));
+        }
+    }
+}
@@ -54,5 +54,17 @@ class NoteTest {
         note.notesNamingMode = NotesNamingMode.SHARP_MODE;
         Note note2 = new Note("Ab1");
         assertEquals("G#1", note2.getName());
+        note.notesNamingMode = NotesNamingMode.FLAT_MODE;
+    }
+
+    @Test
+    void flyweightTest() throws InvalidNoteException {
+        Note c4 = new Note("C4");
+        assertEquals(60, c4.getKey());
+        assertSame(Note.of(64), c4.sharp(4));
+        assertSame(c4.sharp(12).flat(12), c4.flat(12).sharp(12));
+        assertEquals(c4, Note.of(60));
+        assertEquals(new Note("C#4"), new Note("Db4"));
+        assertThrows(InvalidNoteException.class, () -> Note.of(Note.HIGHEST_KEY + 1));
     }
 }
\ No newline at end of file
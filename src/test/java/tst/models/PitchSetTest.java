@@ -0,0 +1,76 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.chords.Chord;
+import sample.models.chords.ChordType;
+import sample.models.scales.Scale;
+import sample.models.scales.ScaleType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PitchSetTest {
+
+    @Test
+    void membershipTest() {
+        PitchSet set = PitchSet.of(0, 60, 63, 127);
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(63));
+        assertTrue(set.contains(127));
+        assertFalse(set.contains(64));
+        assertFalse(set.contains(128));
+        assertEquals(4, set.size());
+        assertEquals(0, set.lowest());
+        assertEquals(127, set.highest());
+        assertArrayEquals(new int[]{0, 60, 63, 127}, set.keys());
+        assertThrows(IllegalArgumentException.class, () -> PitchSet.of(128));
+    }
+
+    @Test
+    void setOperationsTest() {
+        PitchSet a = PitchSet.of(60, 64, 67);
+        PitchSet b = PitchSet.of(64, 67, 71);
+        assertEquals(PitchSet.of(60, 64, 67, 71), a.union(b));
+        assertEquals(PitchSet.of(64, 67), a.intersection(b));
+        assertEquals(PitchSet.of(60), a.difference(b));
+        assertTrue(a.union(b).containsAll(a));
+        assertFalse(a.containsAll(b));
+        assertEquals(a, a.with(72).without(72));
+        assertTrue(PitchSet.of().isEmpty());
+    }
+
+    @Test
+    void transposeTest() {
+        PitchSet set = PitchSet.of(10, 60, 63, 100);
+        assertEquals(PitchSet.of(14, 64, 67, 104), set.transpose(4));
+        assertEquals(PitchSet.of(74, 124, 127), set.transpose(64));
+        assertEquals(PitchSet.of(36), set.transpose(-64));
+        assertEquals(PitchSet.of(0, 50, 53, 90), set.transpose(-10));
+        assertEquals(PitchSet.of(37, 87, 90, 127), set.transpose(27));
+        assertEquals(PitchSet.EMPTY, set.transpose(128));
+        assertEquals(set, set.transpose(12).transpose(-12));
+    }
+
+    @Test
+    void pitchClassesTest() {
+        assertEquals(0b000010010001, PitchSet.of(60, 64, 67).pitchClasses());
+        assertEquals(0b000010010001, PitchSet.of(24, 52, 67, 115, 127 - 7).pitchClasses());
+        assertEquals(1 << 7, PitchSet.of(127).pitchClasses());
+        assertEquals(PitchSet.of(60, 64, 67), PitchSet.ofPitchClasses(0b000010010001, 60));
+    }
+
+    @Test
+    void chordAndScalePitchSetTest() throws Exception {
+        Chord cMajor = new Chord(ChordType.MAJOR_TRIAD, new Note("C4"));
+        assertEquals(PitchSet.of(60, 64, 67), cMajor.pitchSet());
+
+        Scale cMajorScale = new Scale(ScaleType.MAJOR_SCALE, new Note("C4"));
+        assertEquals(0b101010110101, cMajorScale.pitchSet().pitchClasses());
+        assertTrue(cMajorScale.pitchSet().containsAll(cMajor.pitchSet()));
+    }
+}
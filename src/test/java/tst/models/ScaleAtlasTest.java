@@ -0,0 +1,82 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.Note;
+import sample.models.PitchSet;
+import sample.models.exceptions.InvalidNoteException;
+import sample.models.scales.Scale;
+import sample.models.scales.ScaleAtlas;
+import sample.models.scales.ScaleMode;
+import sample.models.scales.ScaleType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScaleAtlasTest {
+
+    @Test
+    void atlasMatchesScaleTest() throws Exception {
+        ScaleAtlas atlas = ScaleAtlas.get();
+        int[] expected = new int[12];
+        int[] keys = new int[12];
+        for (ScaleType type : ScaleType.values()) {
+            Scale scale = new Scale(type, new Note("C3"));
+            for (ScaleMode mode : ScaleMode.values()) {
+                int length = atlas.keys(type, 48, mode, keys);
+                assertEquals(type.size(mode), length);
+                assertEquals(0, scale.invert(mode.ordinal(), expected));
+                for (int i = 0; i < length; i++) {
+                    assertEquals(expected[i], keys[i]);
+                }
+                assertEquals(PitchSet.of(scale.generateMode(mode)), atlas.pitchSet(type, 48, mode));
+            }
+        }
+    }
+
+    @Test
+    void scaleTypeIntervalsTest() {
+        assertEquals(8, ScaleType.MAJOR_SCALE.size());
+        assertEquals(0b101010110101, ScaleType.MAJOR_SCALE.pitchClassMask());
+        assertEquals(0b1101010110101, ScaleType.MAJOR_SCALE.intervalMask());
+        assertEquals(11, ScaleType.CHROMATIC_SCALE.size(ScaleMode.LOCRIAN));
+        assertEquals(12, ScaleType.CHROMATIC_SCALE.size(ScaleMode.IONIAN));
+        assertEquals(7, ScaleType.MAJOR_SCALE.size(ScaleMode.LOCRIAN));
+        assertEquals(6, ScaleType.MAJOR_PENTATONIC.size(ScaleMode.LOCRIAN));
+    }
+
+    @Test
+    void pentatonicModeTest() throws InvalidNoteException {
+        Scale cMajorPentatonic = new Scale(ScaleType.MAJOR_PENTATONIC, new Note("C3"));
+        Note[] aeolian = cMajorPentatonic.generateAeolianMode();
+        assertEquals(5, aeolian.length);
+        assertEquals("C4", aeolian[0].getName());
+        assertEquals("D4", aeolian[1].getName());
+        assertEquals("A4", aeolian[4].getName());
+        assertSame(cMajorPentatonic.notes(), cMajorPentatonic.generateLocrianMode());
+    }
+
+    @Test
+    void chromaticInversionTest() throws InvalidNoteException {
+        Scale chromatic = new Scale(ScaleType.CHROMATIC_SCALE, new Note("C3"));
+        Note[] inversion = chromatic.invert(9);
+        assertEquals(11, inversion.length);
+        assertEquals("A3", inversion[0].getName());
+        assertEquals("Db4", inversion[3].getName());
+    }
+
+    @Test
+    void unavailableScaleTest() {
+        ScaleAtlas atlas = ScaleAtlas.get();
+        int fSeven = Note.HIGHEST_KEY - 7;
+        assertFalse(atlas.isAvailable(ScaleType.MAJOR_SCALE, fSeven, ScaleMode.IONIAN));
+        assertTrue(atlas.isAvailable(ScaleType.MAJOR_SCALE, fSeven - 12, ScaleMode.IONIAN));
+        assertFalse(atlas.isAvailable(ScaleType.MAJOR_SCALE, fSeven - 12, ScaleMode.LOCRIAN));
+        assertFalse(atlas.isAvailable(ScaleType.MAJOR_SCALE, Note.LOWEST_KEY - 1, ScaleMode.IONIAN));
+        assertEquals(-1, atlas.keys(ScaleType.MAJOR_SCALE, fSeven, ScaleMode.IONIAN, new int[12]));
+        assertThrows(InvalidNoteException.class, () -> atlas.notes(ScaleType.MAJOR_SCALE, fSeven, ScaleMode.DORIAN));
+        assertEquals(ScaleType.values().length * 88 * ScaleMode.values().length, atlas.entries());
+    }
+}
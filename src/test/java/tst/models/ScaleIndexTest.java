@@ -0,0 +1,89 @@
+package tst.models;
+
+import org.junit.jupiter.api.Test;
+import sample.models.PitchSet;
+import sample.models.scales.KeyMatch;
+import sample.models.scales.ScaleIndex;
+import sample.models.scales.ScaleType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScaleIndexTest {
+    /**
+     * C, E, F# and A.
+     */
+    private static final int C_E_FSHARP_A = 1 | 1 << 4 | 1 << 6 | 1 << 9;
+
+    @Test
+    void containingTest() {
+        KeyMatch[] dest = new KeyMatch[ScaleIndex.candidates()];
+        int count = ScaleIndex.get().containing(C_E_FSHARP_A, dest);
+        List<KeyMatch> scales = Arrays.asList(dest).subList(0, count);
+        assertEquals(14, count);
+        assertEquals(List.of(KeyMatch.of(ScaleType.MAJOR_SCALE, 7), KeyMatch.of(ScaleType.MINOR_SCALE, 4)),
+                scales.subList(0, 2));
+        for (int root = 0; root < 12; root++) {
+            assertSame(KeyMatch.of(ScaleType.CHROMATIC_SCALE, root), scales.get(2 + root));
+        }
+        for (KeyMatch scale : scales) {
+            assertEquals(0, ScaleIndex.notesOutside(C_E_FSHARP_A, scale));
+        }
+    }
+
+    @Test
+    void rankingTest() {
+        KeyMatch[] dest = new KeyMatch[ScaleIndex.candidates()];
+        int[] outside = new int[dest.length];
+        int count = ScaleIndex.get().query(C_E_FSHARP_A, 12, dest, outside);
+        assertEquals(ScaleIndex.candidates(), count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(ScaleIndex.notesOutside(C_E_FSHARP_A, dest[i]), outside[i]);
+            if (i > 0) {
+                assertTrue(outside[i - 1] <= outside[i]);
+            }
+        }
+        assertEquals(ScaleIndex.get().count(C_E_FSHARP_A, 1), ScaleIndex.get().query(C_E_FSHARP_A, 1, dest, null));
+        assertSame(KeyMatch.of(ScaleType.MAJOR_SCALE, 0), findFirst(dest, ScaleIndex.get().count(C_E_FSHARP_A, 1), ScaleType.MAJOR_SCALE, 0));
+    }
+
+    @Test
+    void bruteForceTest() {
+        ScaleIndex index = ScaleIndex.get();
+        KeyMatch[] dest = new KeyMatch[ScaleIndex.candidates()];
+        for (int mask = 0; mask < 4096; mask++) {
+            int expected = 0;
+            for (ScaleType type : ScaleType.values()) {
+                for (int root = 0; root < 12; root++) {
+                    if ((PitchSet.rotatePitchClasses(type.pitchClassMask(), root) & mask) == mask) {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals(expected, index.containing(mask, dest));
+        }
+        assertEquals(2, index.containing(mask(0, 4, 7), new KeyMatch[2]));
+        assertEquals(ScaleIndex.candidates(), index.containing(PitchSet.EMPTY, dest));
+    }
+
+    private static int mask(final int... pitchClasses) {
+        int mask = 0;
+        for (int pitchClass : pitchClasses) {
+            mask |= 1 << pitchClass;
+        }
+        return mask;
+    }
+
+    private static KeyMatch findFirst(final KeyMatch[] scales, final int count, final ScaleType type, final int root) {
+        for (int i = 0; i < count; i++) {
+            if (scales[i].getType() == type && scales[i].getRootPitchClass() == root) {
+                return scales[i];
+            }
+        }
+        return null;
+    }
+}
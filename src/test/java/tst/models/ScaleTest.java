@@ -192,4 +192,19 @@ class ScaleTest {
         assertEquals("Bb3", chromaticScale.notes()[10].getName());
         assertEquals("B3", chromaticScale.notes()[11].getName());
     }
+
+    @Test
+    public void invertIntoBufferTest() throws Exception {
+        Scale cMajorScale = new Scale(ScaleType.MAJOR_SCALE, new Note("C3"));
+        int[] keys = new int[8];
+        for (int index = 1; index < cMajorScale.notes().length; index++) {
+            assertEquals(0, cMajorScale.invert(index, keys));
+            Note[] notes = cMajorScale.invert(index);
+            for (int i = 0; i < notes.length; i++) {
+                assertEquals(notes[i].getKey(), keys[i]);
+            }
+        }
+        assertEquals(0, cMajorScale.invert(0, keys));
+        assertEquals(cMajorScale.notes()[7].getKey(), keys[7]);
+    }
 }